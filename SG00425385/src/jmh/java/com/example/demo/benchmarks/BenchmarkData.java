@@ -0,0 +1,120 @@
+package com.example.demo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.dto.VehicleRow;
+import com.example.demo.models.Customer;
+import com.example.demo.models.Garage;
+import com.example.demo.models.Mechanic;
+import com.example.demo.models.Vehicle;
+import com.example.demo.services.VehicleService;
+
+/**
+ * Realistic in-memory object graphs for the benchmarks, shaped like the seed
+ * data in import.sql: a few garages, a handful of mechanics per garage and
+ * customers owning one or two vehicles each.
+ */
+public final class BenchmarkData {
+
+	private static final String[] MAKES = { "Toyota", "Nissan", "VW", "Ford", "BMW" };
+	private static final String[] MODELS = { "Corolla", "Leaf", "Golf", "Focus", "3 Series" };
+	private static final String[] LOCATIONS = { "Galway", "Ballinasloe", "Ballina", "Athlone", "Sligo" };
+
+	private BenchmarkData() {
+	}
+
+	/**
+	 * Builds vehicles with owners, mechanics and garages attached.
+	 *
+	 * @param count The number of vehicles
+	 * @return The vehicle entities
+	 */
+	public static List<Vehicle> vehicles(int count) {
+		List<Garage> garages = new ArrayList<>();
+		for (int i = 0; i < LOCATIONS.length; i++) {
+			garages.add(new Garage("G" + (i + 1), LOCATIONS[i], 200000 + i * 75000, new ArrayList<>()));
+		}
+
+		List<Mechanic> mechanics = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			Garage garage = garages.get(i % garages.size());
+			Mechanic mechanic = new Mechanic(String.format("M%03d", i + 1), "Mechanic " + i, 48000.0 + i * 350.5,
+					garage);
+			garage.getMechanics().add(mechanic);
+			mechanics.add(mechanic);
+		}
+
+		List<Vehicle> vehicles = new ArrayList<>(count);
+		Customer owner = null;
+		for (int i = 0; i < count; i++) {
+			if (i % 2 == 0) {
+				owner = new Customer(String.format("C%05d", i / 2 + 1), "Customer " + i, "091 " + (1000000 + i),
+						new ArrayList<>());
+			}
+			Vehicle vehicle = new Vehicle(reg(i), MAKES[i % MAKES.length], MODELS[i % MODELS.length], owner,
+					mechanics.get(i % mechanics.size()));
+			vehicle.setId(i + 1);
+			owner.getVehicles().add(vehicle);
+			vehicles.add(vehicle);
+		}
+		return vehicles;
+	}
+
+	/**
+	 * Builds the projection rows matching {@link #vehicles(int)}.
+	 *
+	 * @param count The number of vehicles
+	 * @return The projection rows
+	 */
+	public static List<VehicleRow> rows(int count) {
+		List<VehicleRow> rows = new ArrayList<>(count);
+		for (Vehicle v : vehicles(count)) {
+			Mechanic m = v.getMechanic();
+			rows.add(new VehicleRow(v.getId(), v.getReg(), v.getMake(), v.getModel(), v.getOwner().getCid(),
+					v.getOwner().getName(), m.getMid(), m.getName(), m.getSalary(), m.getGarage().getGid(),
+					m.getGarage().getLocation(), m.getGarage().getBudget()));
+		}
+		return rows;
+	}
+
+	/**
+	 * Builds the DTOs matching {@link #vehicles(int)}.
+	 *
+	 * @param count The number of vehicles
+	 * @return The vehicle DTOs
+	 */
+	public static List<VehicleDTO> dtos(int count) {
+		VehicleService mapper = new VehicleService();
+		return vehicles(count).stream().map(mapper::convertToDTO).toList();
+	}
+
+	/**
+	 * Builds a POST /api/vehicle request body as the controller receives it.
+	 *
+	 * @return The request body as a map
+	 */
+	public static Map<String, Object> createRequestMap() {
+		Map<String, Object> body = new LinkedHashMap<>();
+		body.put("reg", "251-G-4242");
+		body.put("make", "Toyota");
+		body.put("model", "Corolla");
+		return body;
+	}
+
+	/**
+	 * Builds a POST /api/vehicle request body as raw JSON.
+	 *
+	 * @return The request body as UTF-8 JSON
+	 */
+	public static byte[] createRequestJson() {
+		return "{\"reg\":\"251-G-4242\",\"make\":\"Toyota\",\"model\":\"Corolla\"}".getBytes();
+	}
+
+	private static String reg(int i) {
+		return (150 + i % 100) + "-" + LOCATIONS[i % LOCATIONS.length].charAt(0) + "-" + i;
+	}
+}
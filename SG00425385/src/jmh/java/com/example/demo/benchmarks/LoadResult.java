@@ -0,0 +1,47 @@
+package com.example.demo.benchmarks;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of the successful requests to one endpoint during a load test,
+ * recorded concurrently by the client threads.
+ */
+final class LoadResult {
+	private final String path;
+	private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+	private final LongAdder errors = new LongAdder();
+
+	LoadResult(String path) {
+		this.path = path;
+	}
+
+	String getPath() {
+		return path;
+	}
+
+	void record(long nanos) {
+		latencies.add(nanos);
+	}
+
+	void error() {
+		errors.increment();
+	}
+
+	void print(long seconds) {
+		long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+		Arrays.sort(sorted);
+		System.out.printf("  %-20s %8.0f req/s  p50 %7.1f ms  p99 %7.1f ms  max %7.1f ms  errors %d%n", path,
+				(double) sorted.length / seconds, percentile(sorted, 0.50), percentile(sorted, 0.99),
+				percentile(sorted, 1.0), errors.sum());
+	}
+
+	private static double percentile(long[] sorted, double p) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+		return sorted[Math.max(index, 0)] / 1_000_000.0;
+	}
+}
@@ -0,0 +1,96 @@
+package com.example.demo.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.models.Customer;
+import com.example.demo.models.Vehicle;
+import com.example.demo.search.NgramIndex;
+
+/**
+ * Latency of the front desk search index with one vehicle document and one
+ * customer document per two vehicles, for typical partial queries returning
+ * the first page of 20 hits.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="NgramIndex"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NgramIndexBenchmark {
+
+	private static final String[] FIRST_NAMES = { "Mary", "John", "Anne", "Patrick", "Siobhan", "Sean", "Aoife",
+			"Michael", "Niamh", "Thomas", "Ciara", "Brian" };
+	private static final String[] LAST_NAMES = { "Jones", "Coleman", "Wynne", "Flynn", "O'Connor", "Murphy", "Kelly",
+			"Byrne", "Ryan", "Walsh", "Doyle", "Quinn", "Brennan" };
+
+	/**
+	 * Number of vehicles in the index.
+	 */
+	@Param({ "10000", "100000" })
+	public int vehicles;
+
+	private NgramIndex index;
+
+	@Setup
+	public void setUp() {
+		index = new NgramIndex();
+		for (Vehicle vehicle : BenchmarkData.vehicles(vehicles)) {
+			index.put(new NgramIndex.Document("vehicle", vehicle.getReg(), vehicle.getReg(),
+					new String[] { "reg", "make", "model" },
+					new String[] { vehicle.getReg(), vehicle.getMake(), vehicle.getModel() },
+					new double[] { 3, 1, 1.5 }));
+			Customer owner = vehicle.getOwner();
+			int i = vehicle.getId();
+			String name = FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / 7) % LAST_NAMES.length];
+			index.put(new NgramIndex.Document("customer", owner.getCid(), name, new String[] { "cid", "name", "phone" },
+					new String[] { owner.getCid(), name, owner.getPhone() }, new double[] { 2, 2, 2 }));
+		}
+	}
+
+	/**
+	 * Partial registration, matching few documents.
+	 */
+	@Benchmark
+	public NgramIndex.Result partialReg() {
+		return index.search("G-4242", 20);
+	}
+
+	/**
+	 * Partial surname, matching a share of the customers.
+	 */
+	@Benchmark
+	public NgramIndex.Result partialName() {
+		return index.search("flyn", 20);
+	}
+
+	/**
+	 * Make and partial model, matching a share of the vehicles.
+	 */
+	@Benchmark
+	public NgramIndex.Result makeAndModel() {
+		return index.search("toyota cor", 20);
+	}
+
+	/**
+	 * Partial phone number.
+	 */
+	@Benchmark
+	public NgramIndex.Result partialPhone() {
+		return index.search("091 10042", 20);
+	}
+}
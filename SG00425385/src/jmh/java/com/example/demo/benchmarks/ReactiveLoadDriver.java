@@ -0,0 +1,128 @@
+package com.example.demo.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.FinalProj2025v1Application;
+
+/**
+ * Load test comparing the servlet vehicle listing with the reactive read API
+ * at high concurrency. The application is started once on an in-memory H2
+ * database, opened over JDBC and R2DBC, with a fixed latency added to every
+ * SQL statement and extra vehicles so a listing has some size. Each endpoint
+ * is then driven in turn by many concurrent clients: the servlet listing, the
+ * reactive listing as a JSON array and the reactive listing streamed as
+ * newline-delimited JSON. Throughput and latency percentiles are reported per
+ * endpoint together with the peak number of platform threads.
+ *
+ * Both APIs share the database's work through pools of the same size, so the
+ * comparison is about what waits for the database: a request thread per query
+ * on the servlet side, nothing on the reactive side.
+ *
+ * mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.example.demo.benchmarks.ReactiveLoadDriver
+ * -Dbenchmark.args="--clients=1000 --db-latency-ms=5 --vehicles=100 --seconds=15"
+ */
+public final class ReactiveLoadDriver {
+
+	private ReactiveLoadDriver() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>(Map.of("clients", "1000", "seconds", "15", "warmup-seconds", "5",
+				"db-latency-ms", "5", "vehicles", "100", "pool-size", "10"));
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+
+		long latencyMillis = Long.parseLong(options.get("db-latency-ms"));
+		String poolSize = options.get("pool-size");
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(FinalProj2025v1Application.class)
+				.initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new StatementLatency(latencyMillis)))
+				.run("--spring.datasource.url=jdbc:h2:mem:reactive-load;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+						"--spring.datasource.password=", "--spring.datasource.hikari.maximum-pool-size=" + poolSize,
+						"--app.r2dbc.url=r2dbc:h2:mem:///reactive-load;DB_CLOSE_DELAY=-1", "--app.r2dbc.username=sa",
+						"--app.r2dbc.password=", "--app.r2dbc.pool.max-size=" + poolSize, "--server.port=0",
+						"--logging.level.root=WARN", "--spring.main.banner-mode=off");
+		try {
+			context.getBean(JdbcTemplate.class).update("INSERT INTO vehicle (reg, make, model, owner_id, mechanic_id) "
+					+ "SELECT 'LOAD-' || X, 'Make' || MOD(X, 10), 'Model', (SELECT MIN(id) FROM customer), "
+					+ "(SELECT MIN(id) FROM mechanic) FROM SYSTEM_RANGE(1, ?)", Integer.parseInt(options.get("vehicles")));
+
+			String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			int clients = Integer.parseInt(options.get("clients"));
+			long warmup = Long.parseLong(options.get("warmup-seconds"));
+			long seconds = Long.parseLong(options.get("seconds"));
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+			System.out.printf("%n%d clients, %d ms per statement, pools of %s connections%n", clients, latencyMillis,
+					poolSize);
+			// The servlet endpoint runs last, as the request threads it starts stay
+			// alive and would hide the peak of the endpoints after it
+			for (String[] endpoint : new String[][] { { "/api/reactive/vehicle/all", "application/json" },
+					{ "/api/reactive/vehicle/all", "application/x-ndjson" },
+					{ "/api/vehicle/all", "application/json" } }) {
+				drive(base, endpoint[0], endpoint[1], clients, warmup);
+				threads.resetPeakThreadCount();
+				LoadResult result = drive(base, endpoint[0], endpoint[1], clients, seconds);
+				System.out.printf("%s as %s, peak platform threads %d%n", endpoint[0], endpoint[1],
+						threads.getPeakThreadCount());
+				result.print(seconds);
+			}
+		} finally {
+			context.close();
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Runs the clients against one endpoint for the given time.
+	 */
+	private static LoadResult drive(String base, String path, String accept, int clients, long seconds)
+			throws InterruptedException {
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+		LoadResult result = new LoadResult(path);
+		HttpRequest request = HttpRequest.newBuilder(URI.create(base + path)).header("Accept", accept)
+				.timeout(Duration.ofSeconds(60)).build();
+
+		List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < clients; i++) {
+			workers.add(Thread.ofVirtual().start(() -> {
+				while (System.nanoTime() < deadline) {
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() == 200) {
+							result.record(System.nanoTime() - start);
+						} else {
+							result.error();
+						}
+					} catch (Exception e) {
+						result.error();
+					}
+				}
+			}));
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		http.close();
+		return result;
+	}
+}
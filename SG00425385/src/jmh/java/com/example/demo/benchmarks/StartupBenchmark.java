@@ -0,0 +1,159 @@
+package com.example.demo.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.example.demo.FinalProj2025v1Application;
+
+/**
+ * Measures the time from launching a new JVM running
+ * {@link FinalProj2025v1Application} to its first successful request, for the
+ * plain jar and for each step of the fast-start setup:
+ * <ul>
+ * <li>baseline: default configuration</li>
+ * <li>lazy: the faststart profile, which creates beans on first use</li>
+ * <li>aot: the faststart profile on the AOT-processed bean definitions</li>
+ * <li>aot-cds: as aot, with the AppCDS archive of the training run</li>
+ * </ul>
+ * Every mode runs on its own in-memory H2 database, with the schema created and
+ * seeded from import.sql as in the default configuration, so the modes do the
+ * same work and only the start-up mechanics differ. The extracted jar and the
+ * archive come from the fast-start build profile.
+ *
+ * mvn -Pfast-start -DskipTests package
+ * mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.example.demo.benchmarks.StartupBenchmark
+ * -Dbenchmark.args="--runs=5 --modes=baseline,aot-cds"
+ */
+public final class StartupBenchmark {
+
+	private StartupBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>(Map.of("runs", "5", "modes", "baseline,lazy,aot,aot-cds", "dir",
+				"target/fast-start", "path", "/api/vehicle/all", "timeout-seconds", "120"));
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+
+		Path dir = Path.of(options.get("dir"));
+		Path jar;
+		try (var files = Files.list(dir)) {
+			jar = files.filter(file -> file.toString().endsWith(".jar")).findFirst()
+					.orElseThrow(() -> new IllegalStateException("No jar in " + dir + ", build with -Pfast-start"));
+		}
+		String h2 = Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+				.filter(entry -> entry.matches(".*[/\\\\]h2-[^/\\\\]*\\.jar")).findFirst()
+				.orElseThrow(() -> new IllegalStateException("H2 is not on the classpath"));
+		// The archive only applies when the jar comes first on the class path
+		String classPath = jar + File.pathSeparator + h2;
+
+		int runs = Integer.parseInt(options.get("runs"));
+		System.out.printf("%nTime to first successful GET %s, %d runs per mode%n", options.get("path"), runs);
+		for (String mode : options.get("modes").split(",")) {
+			long[] millis = new long[runs];
+			for (int run = 0; run < runs; run++) {
+				millis[run] = start(mode, classPath, dir.resolve("application.jsa"), options);
+			}
+			Arrays.sort(millis);
+			System.out.printf("  %-10s median %6d ms  min %6d ms  max %6d ms%n", mode, millis[runs / 2], millis[0],
+					millis[runs - 1]);
+		}
+		System.exit(0);
+	}
+
+	/**
+	 * Starts the application in a new JVM, waits for the first successful
+	 * response and stops it.
+	 *
+	 * @return The time from launch to the first successful response
+	 */
+	private static long start(String mode, String classPath, Path archive, Map<String, String> options)
+			throws Exception {
+		int port;
+		try (ServerSocket socket = new ServerSocket(0)) {
+			port = socket.getLocalPort();
+		}
+		Path audit = Files.createTempDirectory("startup-audit");
+		Path log = Files.createTempFile("startup-" + mode, ".log");
+
+		List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java")
+				.toString()));
+		switch (mode) {
+		case "baseline" -> {
+		}
+		case "lazy" -> command.add("-Dspring.profiles.active=faststart");
+		case "aot" -> command.addAll(List.of("-Dspring.profiles.active=faststart", "-Dspring.aot.enabled=true"));
+		case "aot-cds" -> command.addAll(List.of("-Dspring.profiles.active=faststart", "-Dspring.aot.enabled=true",
+				"-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error"));
+		default -> throw new IllegalArgumentException("Unknown mode " + mode);
+		}
+		command.addAll(List.of("-cp", classPath, FinalProj2025v1Application.class.getName(),
+				"--server.port=" + port, "--spring.datasource.url=jdbc:h2:mem:startup;DB_CLOSE_DELAY=-1",
+				"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+				"--spring.datasource.password=", "--spring.jpa.hibernate.ddl-auto=create-drop",
+				"--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect", "--app.audit.dir=" + audit,
+				"--spring.main.banner-mode=off"));
+
+		HttpClient http = HttpClient.newHttpClient();
+		HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + options.get("path")))
+				.timeout(Duration.ofSeconds(30)).build();
+		long deadline = System.nanoTime() + Duration.ofSeconds(Long.parseLong(options.get("timeout-seconds")))
+				.toNanos();
+
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectErrorStream(true).redirectOutput(log.toFile())
+				.start();
+		try {
+			while (true) {
+				if (!process.isAlive() || System.nanoTime() > deadline) {
+					throw new IllegalStateException("The application in mode " + mode
+							+ " didn't answer, see " + log);
+				}
+				try {
+					HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+					if (response.statusCode() == 200) {
+						long millis = (System.nanoTime() - start) / 1_000_000;
+						Files.deleteIfExists(log);
+						return millis;
+					}
+				} catch (ConnectException e) {
+					// Not listening yet
+				}
+				Thread.sleep(5);
+			}
+		} finally {
+			process.destroy();
+			if (!process.waitFor(30, TimeUnit.SECONDS)) {
+				process.destroyForcibly().waitFor();
+			}
+			http.close();
+			deleteRecursively(audit);
+		}
+	}
+
+	private static void deleteRecursively(Path dir) throws IOException {
+		try (var files = Files.walk(dir)) {
+			for (Path file : files.sorted((a, b) -> b.compareTo(a)).toList()) {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+}
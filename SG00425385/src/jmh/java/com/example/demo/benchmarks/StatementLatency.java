@@ -0,0 +1,104 @@
+package com.example.demo.benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.spi.ConnectionFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds a fixed latency to every statement execution, standing in for the
+ * network round trip and query time of a remote database. JDBC statements
+ * sleep on the calling thread, as a blocking driver waits for the database;
+ * R2DBC statements are delayed on a timer, as a non-blocking driver waits
+ * without a thread. Register it ahead of the application's post processors so
+ * the concurrency limit wraps it.
+ */
+final class StatementLatency implements BeanPostProcessor {
+	private final long millis;
+
+	StatementLatency(long millis) {
+		this.millis = millis;
+	}
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (bean instanceof DataSource) {
+			return slow(bean, DataSource.class);
+		}
+		if (bean instanceof DatabaseClient client) {
+			return DatabaseClient.create(slow(client.getConnectionFactory()));
+		}
+		return bean;
+	}
+
+	private Object slow(Object target, Class<?> type) {
+		return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			if (method.getName().startsWith("execute")) {
+				Thread.sleep(millis);
+			}
+			Object value = invoke(target, method, args);
+			Class<?> returned = method.getReturnType();
+			if (value != null && (returned == Connection.class || Statement.class.isAssignableFrom(returned))) {
+				return slow(value, returned);
+			}
+			return value;
+		});
+	}
+
+	private ConnectionFactory slow(ConnectionFactory target) {
+		return (ConnectionFactory) Proxy.newProxyInstance(ConnectionFactory.class.getClassLoader(),
+				new Class<?>[] { ConnectionFactory.class }, (proxy, method, args) -> {
+					Object value = invoke(target, method, args);
+					if (method.getName().equals("create")) {
+						return Flux.from((Publisher<?>) value).map(connection -> slowReactive(connection,
+								io.r2dbc.spi.Connection.class));
+					}
+					return value;
+				});
+	}
+
+	private Object slowReactive(Object target, Class<?> type) {
+		return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+			if (type == io.r2dbc.spi.Statement.class && method.getName().equals("execute")) {
+				return Mono.delay(Duration.ofMillis(millis))
+						.thenMany(Flux.defer(() -> (Publisher<?>) invokeUnchecked(target, method, args)));
+			}
+			Object value = invoke(target, method, args);
+			if (value instanceof io.r2dbc.spi.Statement) {
+				// Binding methods return the statement itself
+				return value == target ? proxy : slowReactive(value, io.r2dbc.spi.Statement.class);
+			}
+			return value;
+		});
+	}
+
+	private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			throw e.getCause();
+		}
+	}
+
+	private static Object invokeUnchecked(Object target, Method method, Object[] args) {
+		try {
+			return invoke(target, method, args);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+package com.example.demo.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.demo.FinalProj2025v1Application;
+
+/**
+ * Load test comparing request handling on platform threads with virtual
+ * threads. For each mode the application is started on an in-memory H2
+ * database with a fixed latency added to every SQL statement, then driven by
+ * many concurrent clients of a DB-bound endpoint plus a few clients of an
+ * endpoint that doesn't touch the database. Throughput and latency
+ * percentiles are reported per endpoint together with the peak number of
+ * platform threads.
+ *
+ * mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.example.demo.benchmarks.ThreadModeLoadDriver
+ * -Dbenchmark.args="--clients=400 --db-latency-ms=5 --seconds=15"
+ */
+public final class ThreadModeLoadDriver {
+
+	private ThreadModeLoadDriver() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>(Map.of("clients", "400", "light-clients", "20", "seconds", "15",
+				"warmup-seconds", "5", "db-latency-ms", "5", "db-path", "/api/vehicle/all", "light-path",
+				"/api/cache/stats"));
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+
+		for (boolean virtual : new boolean[] { false, true }) {
+			run(virtual, options);
+		}
+		System.exit(0);
+	}
+
+	private static void run(boolean virtual, Map<String, String> options) throws Exception {
+		long latencyMillis = Long.parseLong(options.get("db-latency-ms"));
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(FinalProj2025v1Application.class)
+				.initializers(ctx -> ctx.getBeanFactory().addBeanPostProcessor(new StatementLatency(latencyMillis)))
+				.run("--spring.datasource.url=jdbc:h2:mem:load" + virtual + ";DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+						"--spring.datasource.password=", "--server.port=0", "--logging.level.root=WARN",
+						"--spring.main.banner-mode=off", "--spring.threads.virtual.enabled=" + virtual);
+		try {
+			String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+			int clients = Integer.parseInt(options.get("clients"));
+			int lightClients = Integer.parseInt(options.get("light-clients"));
+			long warmup = Long.parseLong(options.get("warmup-seconds"));
+			long seconds = Long.parseLong(options.get("seconds"));
+
+			drive(base, options, clients, lightClients, warmup);
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			threads.resetPeakThreadCount();
+			List<LoadResult> results = drive(base, options, clients, lightClients, seconds);
+
+			System.out.printf("%n%s threads, %d + %d clients, %d ms per statement, peak platform threads %d%n",
+					virtual ? "Virtual" : "Platform", clients, lightClients, latencyMillis,
+					threads.getPeakThreadCount());
+			for (LoadResult result : results) {
+				result.print(seconds);
+			}
+		} finally {
+			context.close();
+		}
+	}
+
+	/**
+	 * Runs the clients against both endpoints for the given time.
+	 */
+	private static List<LoadResult> drive(String base, Map<String, String> options, int clients, int lightClients,
+			long seconds) throws InterruptedException {
+		HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+		long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+		LoadResult db = new LoadResult(options.get("db-path"));
+		LoadResult light = new LoadResult(options.get("light-path"));
+
+		List<Thread> workers = new ArrayList<>();
+		for (int i = 0; i < clients + lightClients; i++) {
+			LoadResult result = i < clients ? db : light;
+			HttpRequest request = HttpRequest.newBuilder(URI.create(base + result.getPath()))
+					.timeout(Duration.ofSeconds(60)).build();
+			workers.add(Thread.ofVirtual().start(() -> {
+				while (System.nanoTime() < deadline) {
+					long start = System.nanoTime();
+					try {
+						HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+						if (response.statusCode() == 200) {
+							result.record(System.nanoTime() - start);
+						} else {
+							result.error();
+						}
+					} catch (Exception e) {
+						result.error();
+					}
+				}
+			}));
+		}
+		for (Thread worker : workers) {
+			worker.join();
+		}
+		http.close();
+		return List.of(db, light);
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.demo.benchmarks;
+
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.FinalProj2025v1Application;
+import com.example.demo.services.VehicleExportService;
+
+/**
+ * Measures the gzip CSV export of all vehicles at several levels of
+ * parallelism. For each level the application is started on an in-memory H2
+ * database filled with the given number of extra vehicles, the export is run
+ * a few times to warm up and then timed, discarding the output but counting
+ * its bytes.
+ *
+ * mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.example.demo.benchmarks.VehicleExportDriver
+ * -Dbenchmark.args="--vehicles=300000 --parallelism=1,2,4 --runs=3"
+ */
+public final class VehicleExportDriver {
+
+	private VehicleExportDriver() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>(Map.of("vehicles", "300000", "parallelism", "1,2,4",
+				"chunk-size", "10000", "warmup-runs", "2", "runs", "3"));
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+
+		System.out.printf("%n%s vehicles, chunks of %s ids, %d available processors%n", options.get("vehicles"),
+				options.get("chunk-size"), Runtime.getRuntime().availableProcessors());
+		for (String parallelism : options.get("parallelism").split(",")) {
+			run(Integer.parseInt(parallelism.trim()), options);
+		}
+		System.exit(0);
+	}
+
+	private static void run(int parallelism, Map<String, String> options) throws Exception {
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(FinalProj2025v1Application.class)
+				.run("--spring.datasource.url=jdbc:h2:mem:export" + parallelism + ";DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+						"--spring.datasource.password=", "--server.port=0", "--logging.level.root=WARN",
+						"--spring.main.banner-mode=off", "--app.export.parallelism=" + parallelism,
+						"--app.export.chunk-size=" + options.get("chunk-size"));
+		try {
+			context.getBean(JdbcTemplate.class).update("INSERT INTO vehicle (reg, make, model, owner_id, mechanic_id) "
+					+ "SELECT 'EXPORT-' || X, 'Make' || MOD(X, 40), 'Model ' || MOD(X, 300), "
+					+ "(SELECT MIN(id) FROM customer), (SELECT MIN(id) FROM mechanic) FROM SYSTEM_RANGE(1, ?)",
+					Integer.parseInt(options.get("vehicles")));
+			VehicleExportService exportService = context.getBean(VehicleExportService.class);
+
+			for (int i = Integer.parseInt(options.get("warmup-runs")); i > 0; i--) {
+				exportService.exportCsv(OutputStream.nullOutputStream());
+			}
+			int runs = Integer.parseInt(options.get("runs"));
+			long rows = 0;
+			long[] bytes = new long[1];
+			long start = System.nanoTime();
+			for (int i = 0; i < runs; i++) {
+				bytes[0] = 0;
+				rows = exportService.exportCsv(new OutputStream() {
+					@Override
+					public void write(int b) {
+						bytes[0]++;
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) {
+						bytes[0] += len;
+					}
+				});
+			}
+			System.out.printf("  parallelism %-3d %8d rows  %8.2f MB  %8.0f ms per export%n", parallelism, rows,
+					bytes[0] / 1_000_000.0, (System.nanoTime() - start) / 1_000_000.0 / runs);
+		} finally {
+			context.close();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.example.demo.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.dto.VehicleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Cost of writing and reading a vehicle listing, as returned by GET
+ * /api/vehicle/all, in each format the endpoints negotiate. The payload sizes,
+ * plain and gzip-compressed, are printed once per format and listing size
+ * before the measurements:
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="VehicleFormats -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VehicleFormatsBenchmark {
+
+	/**
+	 * Number of vehicles in the listing.
+	 */
+	@Param({ "100", "10000" })
+	public int vehicles;
+
+	/**
+	 * Encoding of the listing: json, cbor or smile.
+	 */
+	@Param({ "json", "cbor", "smile" })
+	public String format;
+
+	private ObjectWriter writer;
+	private ObjectReader reader;
+	private List<VehicleDTO> dtos;
+	private byte[] payload;
+
+	@Setup
+	public void setUp() throws IOException {
+		ObjectMapper mapper = switch (format) {
+		case "json" -> new ObjectMapper();
+		case "cbor" -> new CBORMapper();
+		case "smile" -> new SmileMapper();
+		default -> throw new IllegalArgumentException("Unknown format " + format);
+		};
+		writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, VehicleDTO.class));
+		reader = mapper.readerFor(VehicleDTO[].class);
+		dtos = BenchmarkData.dtos(vehicles);
+		payload = writer.writeValueAsBytes(dtos);
+		System.out.printf("%n%s, %d vehicles: %d bytes, %d bytes gzip-compressed%n", format, vehicles, payload.length,
+				gzipSize(payload));
+	}
+
+	/**
+	 * Server side of a listing request: encoding the DTOs.
+	 */
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return writer.writeValueAsBytes(dtos);
+	}
+
+	/**
+	 * Client side of a listing request: decoding the DTOs.
+	 */
+	@Benchmark
+	public VehicleDTO[] deserialize() throws IOException {
+		return reader.readValue(payload);
+	}
+
+	private static int gzipSize(byte[] bytes) throws IOException {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+			gzip.write(bytes);
+		}
+		return buffer.size();
+	}
+}
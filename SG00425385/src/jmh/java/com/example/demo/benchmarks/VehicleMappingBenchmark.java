@@ -0,0 +1,131 @@
+package com.example.demo.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.demo.dto.CreateVehicleRequest;
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.dto.VehicleRow;
+import com.example.demo.models.Vehicle;
+import com.example.demo.services.VehicleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+/**
+ * Throughput of the DTO mapping, request binding and response serialization
+ * hot paths of the vehicle endpoints. Run with the gc profiler (the default
+ * benchmark.args) to get the allocation rate per operation alongside the
+ * throughput:
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="VehicleMapping -prof gc"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VehicleMappingBenchmark {
+
+	/**
+	 * Number of vehicles in a listing.
+	 */
+	@Param({ "10", "1000" })
+	public int vehicles;
+
+	private final VehicleService vehicleService = new VehicleService();
+	private final ObjectMapper sharedMapper = new ObjectMapper();
+	private final ObjectReader createRequestReader = sharedMapper.readerFor(CreateVehicleRequest.class);
+
+	private List<Vehicle> entities;
+	private List<VehicleRow> rows;
+	private List<VehicleDTO> dtos;
+	private Map<String, Object> createRequest;
+	private byte[] createRequestJson;
+
+	@Setup
+	public void setUp() {
+		entities = BenchmarkData.vehicles(vehicles);
+		rows = BenchmarkData.rows(vehicles);
+		dtos = BenchmarkData.dtos(vehicles);
+		createRequest = BenchmarkData.createRequestMap();
+		createRequestJson = BenchmarkData.createRequestJson();
+	}
+
+	/**
+	 * Entity graph to DTO conversion, as done by the single-vehicle write
+	 * endpoints.
+	 */
+	@Benchmark
+	public void convertEntitiesToDTO(Blackhole blackhole) {
+		for (Vehicle vehicle : entities) {
+			blackhole.consume(vehicleService.convertToDTO(vehicle));
+		}
+	}
+
+	/**
+	 * Projection row to DTO conversion, as done by the listing endpoints.
+	 */
+	@Benchmark
+	public void convertRowsToDTO(Blackhole blackhole) {
+		for (VehicleRow row : rows) {
+			blackhole.consume(vehicleService.convertToDTO(row));
+		}
+	}
+
+	/**
+	 * Jackson serialization of a vehicle listing with nested owner, mechanic and
+	 * garage DTOs.
+	 */
+	@Benchmark
+	public byte[] serializeListing() throws Exception {
+		return sharedMapper.writeValueAsBytes(dtos);
+	}
+
+	/**
+	 * Former POST /api/vehicle binding: the body read into a map, then a new
+	 * ObjectMapper per request converting the map to a VehicleDTO.
+	 */
+	@Benchmark
+	public VehicleDTO bindCreateRequestNewMapper() throws Exception {
+		Map<?, ?> body = sharedMapper.readValue(createRequestJson, Map.class);
+		ObjectMapper mapper = new ObjectMapper();
+		return mapper.convertValue(body, VehicleDTO.class);
+	}
+
+	/**
+	 * The same conversion with one shared mapper, to separate the cost of building
+	 * the mapper from the cost of the conversion.
+	 */
+	@Benchmark
+	public VehicleDTO bindCreateRequestSharedMapper() {
+		return sharedMapper.convertValue(createRequest, VehicleDTO.class);
+	}
+
+	/**
+	 * POST /api/vehicle binding as done by the controller: the body read straight
+	 * into the typed request with the shared mapper, then checked and converted.
+	 */
+	@Benchmark
+	public VehicleDTO bindCreateRequestTyped() throws Exception {
+		CreateVehicleRequest request = createRequestReader.readValue(createRequestJson);
+		if (request.violation() != null) {
+			throw new IllegalStateException(request.violation());
+		}
+		return request.toDTO();
+	}
+}
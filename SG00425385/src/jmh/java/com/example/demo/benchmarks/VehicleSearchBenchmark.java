@@ -0,0 +1,122 @@
+package com.example.demo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.FinalProj2025v1Application;
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.services.VehicleService;
+
+/**
+ * Latency of the vehicle search as the vehicle table grows, on an in-memory H2
+ * database with the application's schema and indexes. The indexed searches
+ * should stay roughly flat across table sizes; the lower(make) scan is the
+ * unindexed case-insensitive filter for comparison and grows with the table.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="VehicleSearch"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VehicleSearchBenchmark {
+
+	private static final String[] MAKES = { "Toyota", "Nissan", "VW", "Ford", "BMW", "Audi", "Honda", "Hyundai",
+			"Kia", "Mazda", "Opel", "Peugeot", "Renault", "Skoda", "Volvo", "Tesla" };
+	private static final String[] MODELS = { "Corolla", "Leaf", "Golf", "Focus", "3 Series", "A4", "Civic", "Tucson",
+			"Sportage", "CX-5", "Astra", "208", "Clio", "Octavia", "XC40", "Model 3" };
+
+	/**
+	 * Number of vehicles in the table.
+	 */
+	@Param({ "1000", "10000", "100000" })
+	public int vehicles;
+
+	private ConfigurableApplicationContext context;
+	private VehicleService vehicleService;
+	private JdbcTemplate jdbcTemplate;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(FinalProj2025v1Application.class).run(
+				"--spring.datasource.url=jdbc:h2:mem:search;DB_CLOSE_DELAY=-1;OPTIMIZE_REUSE_RESULTS=FALSE",
+				"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+				"--spring.datasource.password=", "--spring.main.web-application-type=none",
+				"--logging.level.root=WARN", "--spring.main.banner-mode=off");
+		vehicleService = context.getBean(VehicleService.class);
+		jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+		// Each make comes with several models, so a make prefix matches a fixed share
+		// of the table and a make and model pair a smaller one
+		List<Object[]> rows = new ArrayList<>(vehicles);
+		for (int i = 0; i < vehicles; i++) {
+			String make = MAKES[i % MAKES.length];
+			String model = MODELS[(i / MAKES.length) % MODELS.length];
+			rows.add(new Object[] { "B-" + i, make, model, make.toLowerCase(Locale.ROOT),
+					model.toLowerCase(Locale.ROOT) });
+		}
+		jdbcTemplate.batchUpdate("INSERT INTO vehicle (reg, make, model, make_key, model_key) VALUES (?, ?, ?, ?, ?)",
+				rows);
+		jdbcTemplate.execute("ANALYZE");
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	/**
+	 * Case-insensitive make prefix search, first 20 results.
+	 */
+	@Benchmark
+	public List<VehicleDTO> searchMakePrefix() {
+		return vehicleService.searchVehiclesDTO("toy", null, true, 20);
+	}
+
+	/**
+	 * Case-insensitive exact make and model search, first 20 results.
+	 */
+	@Benchmark
+	public List<VehicleDTO> searchMakeAndModelExact() {
+		return vehicleService.searchVehiclesDTO("TOYOTA", "golf", false, 20);
+	}
+
+	/**
+	 * Case-insensitive model prefix search, first 20 results.
+	 */
+	@Benchmark
+	public List<VehicleDTO> searchModelPrefix() {
+		return vehicleService.searchVehiclesDTO(null, "go", true, 20);
+	}
+
+	/**
+	 * The make prefix search done on the make column with lower(), which no index
+	 * can serve, for comparison.
+	 */
+	@Benchmark
+	public List<String> lowerMakeScan() {
+		return jdbcTemplate.queryForList(
+				"SELECT reg FROM vehicle WHERE LOWER(make) LIKE ? ORDER BY LOWER(make), LOWER(model), reg LIMIT 20",
+				String.class, "toy%");
+	}
+}
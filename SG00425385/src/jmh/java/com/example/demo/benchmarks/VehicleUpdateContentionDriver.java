@@ -0,0 +1,155 @@
+package com.example.demo.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.FinalProj2025v1Application;
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.services.GarageAnalyticsService;
+import com.example.demo.services.VehicleService;
+import com.example.demo.services.VersionConflictException;
+
+/**
+ * Measures the throughput of concurrent mechanic assignments. The application
+ * is started once on an in-memory H2 database with the given number of extra
+ * vehicles, then every thread moves vehicles between two mechanics of
+ * different garages, on a few hot vehicles and spread over all of them.
+ *
+ * Unconditional updates are retried by the service and count the updates that
+ * still failed. Conditional updates read the vehicle and send its version,
+ * like a client using If-Match, and read again on every conflict until their
+ * update goes through; they count the conflicts.
+ *
+ * mvn -Pbenchmark test-compile exec:exec
+ * -Dbenchmark.main=com.example.demo.benchmarks.VehicleUpdateContentionDriver
+ * -Dbenchmark.args="--threads=8 --updates=200 --hot-vehicles=2"
+ */
+public final class VehicleUpdateContentionDriver {
+
+	/**
+	 * One update made by a thread, returning the number of failed attempts.
+	 */
+	private interface Update {
+		int run(String reg, String mid);
+	}
+
+	private VehicleUpdateContentionDriver() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new HashMap<>(Map.of("vehicles", "1000", "hot-vehicles", "2", "threads", "8",
+				"updates", "200", "warmup-updates", "50"));
+		for (String arg : args) {
+			String[] option = arg.replaceFirst("^--", "").split("=", 2);
+			options.put(option[0], option.length > 1 ? option[1] : "true");
+		}
+
+		ConfigurableApplicationContext context = new SpringApplicationBuilder(FinalProj2025v1Application.class)
+				.run("--spring.datasource.url=jdbc:h2:mem:contention;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver", "--spring.datasource.username=sa",
+						"--spring.datasource.password=", "--server.port=0", "--logging.level.root=WARN",
+						"--spring.main.banner-mode=off");
+		try {
+			int vehicles = Integer.parseInt(options.get("vehicles"));
+			context.getBean(JdbcTemplate.class).update("INSERT INTO vehicle (reg, make, model, mechanic_id) "
+					+ "SELECT 'CONT-' || X, 'Make', 'Model', (SELECT id FROM mechanic WHERE mid = 'M001') "
+					+ "FROM SYSTEM_RANGE(1, ?)", vehicles);
+			context.getBean(GarageAnalyticsService.class).rebuild();
+			VehicleService vehicleService = context.getBean(VehicleService.class);
+
+			Update unconditional = (reg, mid) -> {
+				try {
+					vehicleService.updateVehicleMechanic(reg, mid);
+					return 0;
+				} catch (ConcurrencyFailureException e) {
+					return 1;
+				}
+			};
+			Update conditional = (reg, mid) -> {
+				for (int conflicts = 0;; conflicts++) {
+					VehicleDTO vehicle = vehicleService.getVehicleDTO(reg);
+					String other = vehicle.getMechanic().getMid().equals("M001") ? "M003" : "M001";
+					try {
+						vehicleService.updateVehicleMechanic(reg, other, vehicle.getVersion());
+						return conflicts;
+					} catch (VersionConflictException | ConcurrencyFailureException e) {
+						// Read again and retry
+					}
+				}
+			};
+
+			int threads = Integer.parseInt(options.get("threads"));
+			int hot = Integer.parseInt(options.get("hot-vehicles"));
+			System.out.printf("%n%d threads, %s updates each, %d hot of %d vehicles, %d available processors%n",
+					threads, options.get("updates"), hot, vehicles, Runtime.getRuntime().availableProcessors());
+			for (String kind : List.of("unconditional", "conditional")) {
+				Update update = kind.equals("unconditional") ? unconditional : conditional;
+				run(kind, "hot", update, threads, hot, options);
+				run(kind, "spread", update, threads, vehicles, options);
+			}
+		} finally {
+			context.close();
+		}
+		System.exit(0);
+	}
+
+	private static void run(String kind, String keys, Update update, int threads, int vehicles,
+			Map<String, String> options) throws Exception {
+		int warmupUpdates = Integer.parseInt(options.get("warmup-updates"));
+		runConcurrently(update, threads, vehicles, warmupUpdates, new AtomicInteger());
+
+		int updates = Integer.parseInt(options.get("updates"));
+		AtomicInteger failures = new AtomicInteger();
+		long nanos = runConcurrently(update, threads, vehicles, updates, failures);
+		double millis = nanos / 1_000_000.0;
+		System.out.printf("  %-13s %-6s %6d updates  %8.0f ms  %8.0f updates/s  %6d %s%n", kind, keys,
+				threads * updates, millis, threads * updates * 1000.0 / millis, failures.get(),
+				kind.equals("unconditional") ? "failed" : "conflicts");
+	}
+
+	/**
+	 * Starts all threads together, each making its updates on the vehicles in
+	 * turn, and waits for them to finish.
+	 *
+	 * @return The elapsed time in nanoseconds
+	 */
+	private static long runConcurrently(Update update, int threads, int vehicles, int updatesPerThread,
+			AtomicInteger failures) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < updatesPerThread; i++) {
+						String reg = "CONT-" + (1 + (thread + i * threads) % vehicles);
+						failures.addAndGet(update.run(reg, (thread + i) % 2 == 0 ? "M001" : "M003"));
+					}
+					return null;
+				}));
+			}
+			long startNanos = System.nanoTime();
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return System.nanoTime() - startNanos;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on the number of requests handled at once that adapts to the database
+ * latency the requests see, by additive increase and multiplicative decrease
+ * (AIMD). Every completed request whose average SQL statement took longer than
+ * the target lowers the limit by a fixed ratio; every faster one raises it by
+ * one over the limit, so about one per limit's worth of fast requests. While
+ * the database is slow, the limit soon falls to where the pool can serve the
+ * admitted requests and the rest are shed at once instead of queueing for a
+ * connection. The limit only grows while the requests use at least half of
+ * it, so a quiet period doesn't leave it far above what was last proven safe.
+ *
+ * The in-flight count and the limit are atomics updated with compare-and-set,
+ * so admission never takes a lock.
+ */
+public class AdaptiveConcurrencyLimit {
+
+	private final int minLimit;
+	private final int maxLimit;
+	private final long targetLatencyNanos;
+	private final double backoffRatio;
+	private final AtomicInteger inFlight = new AtomicInteger();
+	private final AtomicLong limitBits;
+
+	/**
+	 * @param initialLimit    The limit at startup
+	 * @param minLimit        The lowest limit, kept even under high latency
+	 * @param maxLimit        The highest limit
+	 * @param targetLatencyMs The average statement latency above which the limit
+	 *                        is lowered
+	 * @param backoffRatio    The factor applied to the limit for each slow
+	 *                        request, between 0 and 1
+	 */
+	public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs,
+			double backoffRatio) {
+		if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+			throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= max, backoff in (0, 1)");
+		}
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.targetLatencyNanos = targetLatencyMs * 1_000_000;
+		this.backoffRatio = backoffRatio;
+		this.limitBits = new AtomicLong(
+				Double.doubleToLongBits(Math.min(maxLimit, Math.max(minLimit, initialLimit))));
+	}
+
+	/**
+	 * Admits a request if fewer than its share of the limit are in flight. Giving
+	 * reads a share below 1 keeps room for writes when reads pile up.
+	 *
+	 * @param share The fraction of the limit the request may fill, up to 1
+	 * @return The number of requests in flight including this one, or 0 if it
+	 *         was rejected
+	 */
+	public int tryAcquire(double share) {
+		int allowed = Math.max(1, (int) (getLimit() * share));
+		while (true) {
+			int current = inFlight.get();
+			if (current >= allowed) {
+				return 0;
+			}
+			if (inFlight.compareAndSet(current, current + 1)) {
+				return current + 1;
+			}
+		}
+	}
+
+	/**
+	 * Ends an admitted request and adapts the limit to its latency.
+	 *
+	 * @param inFlightAtStart       The value returned by
+	 *                              {@link #tryAcquire(double)}
+	 * @param statementLatencyNanos The average latency of the request's SQL
+	 *                              statements, or -1 if it ran none
+	 */
+	public void release(int inFlightAtStart, long statementLatencyNanos) {
+		inFlight.decrementAndGet();
+		if (statementLatencyNanos < 0) {
+			return;
+		}
+		while (true) {
+			long bits = limitBits.get();
+			double limit = Double.longBitsToDouble(bits);
+			double next;
+			if (statementLatencyNanos > targetLatencyNanos) {
+				next = Math.max(minLimit, limit * backoffRatio);
+			} else if (inFlightAtStart * 2 >= limit) {
+				next = Math.min(maxLimit, limit + 1 / limit);
+			} else {
+				return;
+			}
+			if (next == limit || limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Gets the current limit.
+	 */
+	public double getLimit() {
+		return Double.longBitsToDouble(limitBits.get());
+	}
+
+	/**
+	 * Gets the number of requests in flight.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.demo.admission;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.example.demo.admission.EndpointPolicy.Budget;
+import com.example.demo.metrics.RequestSqlStats;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Admits or rejects each request before its handler runs. The client's read or
+ * write budget is checked first, so a client that exceeds its own budget gets
+ * 429 Too Many Requests without affecting anyone else. Admitted requests then
+ * take a slot of the shared adaptive concurrency limit, and get 503 Service
+ * Unavailable if none is free. Both responses carry Retry-After in seconds.
+ *
+ * The concurrency slot is released when the request completes, including
+ * after the asynchronous dispatch of streamed responses, and the request's
+ * average SQL statement latency is fed back to the limit.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+	private static final String SLOT = AdmissionControlInterceptor.class.getName() + ".slot";
+	private static final EndpointPolicy DEFAULT_POLICY = new EndpointPolicy();
+	private static final int MAX_CLIENT_LENGTH = 64;
+
+	private final ClientRateLimiter readLimiter;
+	private final ClientRateLimiter writeLimiter;
+	private final AdaptiveConcurrencyLimit concurrencyLimit;
+	private final double readShare;
+	private final Map<String, EndpointPolicy> policies;
+	private final String clientHeader;
+	private final MeterRegistry meterRegistry;
+
+	/**
+	 * @param readLimiter      Budgets of GET requests and endpoints set to read
+	 * @param writeLimiter     Budgets of other requests and endpoints set to write
+	 * @param concurrencyLimit The shared limit, or null to only rate limit
+	 * @param readShare        The fraction of the concurrency limit reads may
+	 *                         fill
+	 * @param policies         Settings by Controller.method
+	 * @param clientHeader     Header naming the client, or null to use the
+	 *                         remote address only
+	 * @param meterRegistry    Registry of the rejection counters
+	 */
+	public AdmissionControlInterceptor(ClientRateLimiter readLimiter, ClientRateLimiter writeLimiter,
+			AdaptiveConcurrencyLimit concurrencyLimit, double readShare, Map<String, EndpointPolicy> policies,
+			String clientHeader, MeterRegistry meterRegistry) {
+		this.readLimiter = readLimiter;
+		this.writeLimiter = writeLimiter;
+		this.concurrencyLimit = concurrencyLimit;
+		this.readShare = readShare;
+		this.policies = policies;
+		this.clientHeader = clientHeader;
+		this.meterRegistry = meterRegistry;
+	}
+
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+			throws IOException {
+		if (!(handler instanceof HandlerMethod method) || request.getAttribute(SLOT) != null) {
+			// Not a controller, or the asynchronous dispatch of an admitted request
+			return true;
+		}
+		String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+		EndpointPolicy policy = policies.getOrDefault(endpoint, DEFAULT_POLICY);
+		Budget budget = policy.getBudget();
+		if (budget == null) {
+			budget = request.getMethod().equals("GET") || request.getMethod().equals("HEAD") ? Budget.READ
+					: Budget.WRITE;
+		}
+
+		if (budget != Budget.NONE) {
+			ClientRateLimiter limiter = budget == Budget.READ ? readLimiter : writeLimiter;
+			long waitNanos = limiter.tryAcquire(client(request), policy.getCost(), System.nanoTime());
+			if (waitNanos > 0) {
+				long seconds = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+				reject(response, HttpStatus.TOO_MANY_REQUESTS, seconds,
+						"Too many " + budget.name().toLowerCase() + " requests, retry in " + seconds + " s");
+				rejected("rate-limit", budget, endpoint);
+				return false;
+			}
+		}
+
+		if (concurrencyLimit != null && policy.isShed()) {
+			int slot = concurrencyLimit.tryAcquire(budget == Budget.WRITE ? 1 : readShare);
+			if (slot == 0) {
+				reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server is busy, retry in 1 s");
+				rejected("concurrency", budget, endpoint);
+				return false;
+			}
+			request.setAttribute(SLOT, slot);
+		}
+		return true;
+	}
+
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (request.getAttribute(SLOT) instanceof Integer slot) {
+			request.removeAttribute(SLOT);
+			RequestSqlStats stats = RequestSqlStats.current();
+			long latency = stats == null || stats.getStatements() == 0 ? -1
+					: (stats.getJdbcNanos() + stats.getConnectionWaitNanos()) / stats.getStatements();
+			concurrencyLimit.release(slot, latency);
+		}
+	}
+
+	/**
+	 * Names the client by the configured header, as set by the gateway, or else
+	 * by its address. The header is only trustworthy if clients can't reach the
+	 * service except through the gateway.
+	 */
+	private String client(HttpServletRequest request) {
+		String client = clientHeader == null ? null : request.getHeader(clientHeader);
+		if (client == null || client.isBlank()) {
+			return request.getRemoteAddr();
+		}
+		client = client.trim();
+		return client.length() > MAX_CLIENT_LENGTH ? client.substring(0, MAX_CLIENT_LENGTH) : client;
+	}
+
+	private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+			String message) throws IOException {
+		response.setStatus(status.value());
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+		response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+		response.setCharacterEncoding("UTF-8");
+		response.getWriter().write(message);
+	}
+
+	private void rejected(String reason, Budget budget, String endpoint) {
+		Counter.builder("app.admission.rejected").tag("reason", reason)
+				.tag("budget", budget.name().toLowerCase()).tag("endpoint", endpoint).register(meterRegistry)
+				.increment();
+	}
+}
@@ -0,0 +1,97 @@
+package com.example.demo.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket per client, implemented as the generic cell rate algorithm
+ * (GCRA). Instead of a token count and a refill time, each client has a single
+ * theoretical arrival time (TAT): the time at which its bucket would be full
+ * again. A request costing n tokens moves the TAT n emission intervals into
+ * the future and is allowed if that stays within the burst of the current time.
+ * The TAT is one AtomicLong updated with compare-and-set, so checks never take
+ * a lock and clients never contend with each other.
+ *
+ * A client whose TAT has passed has a full bucket, which is the same as having
+ * no entry, so such entries are dropped once the number of clients reaches the
+ * configured maximum, at most once a second. If every tracked client is
+ * active, further new clients share a single overflow bucket rather than
+ * growing the map. A request racing with the removal of its client's entry
+ * may go uncounted, which at most gives that client one extra request.
+ */
+public class ClientRateLimiter {
+
+	private static final String OVERFLOW = "";
+	private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+	private final long emissionIntervalNanos;
+	private final long burstNanos;
+	private final int maxClients;
+	private final ConcurrentHashMap<String, AtomicLong> arrivals = new ConcurrentHashMap<>();
+	private final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime());
+
+	/**
+	 * @param ratePerSecond Tokens added to each client's bucket per second
+	 * @param burst         Capacity of each bucket, the most tokens a rested
+	 *                      client can spend at once
+	 * @param maxClients    Number of clients tracked before idle ones are dropped
+	 */
+	public ClientRateLimiter(double ratePerSecond, int burst, int maxClients) {
+		if (ratePerSecond <= 0 || burst < 1) {
+			throw new IllegalArgumentException("Rate and burst must be positive");
+		}
+		this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / ratePerSecond));
+		this.burstNanos = emissionIntervalNanos * burst;
+		this.maxClients = maxClients;
+	}
+
+	/**
+	 * Takes tokens from a client's bucket if it holds enough.
+	 *
+	 * @param client   The client key
+	 * @param cost     The number of tokens the request costs
+	 * @param nowNanos The current {@link System#nanoTime()}
+	 * @return 0 if the tokens were taken, otherwise the nanoseconds until the
+	 *         bucket holds enough of them
+	 */
+	public long tryAcquire(String client, int cost, long nowNanos) {
+		AtomicLong arrival = arrival(client, nowNanos);
+		long increment = emissionIntervalNanos * cost;
+		while (true) {
+			long tat = arrival.get();
+			long next = Math.max(tat, nowNanos) + increment;
+			long excess = next - nowNanos - burstNanos;
+			if (excess > 0) {
+				return excess;
+			}
+			if (arrival.compareAndSet(tat, next)) {
+				return 0;
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of clients currently tracked.
+	 */
+	public int getClients() {
+		return arrivals.size();
+	}
+
+	private AtomicLong arrival(String client, long nowNanos) {
+		AtomicLong arrival = arrivals.get(client);
+		if (arrival != null) {
+			return arrival;
+		}
+		if (arrivals.size() >= maxClients) {
+			long sweep = nextSweepNanos.get();
+			if (nowNanos - sweep >= 0 && nextSweepNanos.compareAndSet(sweep, nowNanos + SWEEP_INTERVAL_NANOS)) {
+				// Clients with a full bucket are indistinguishable from new ones
+				arrivals.values().removeIf(tat -> tat.get() - nowNanos <= 0);
+			}
+			if (arrivals.size() >= maxClients) {
+				client = OVERFLOW;
+			}
+		}
+		return arrivals.computeIfAbsent(client, key -> new AtomicLong(nowNanos));
+	}
+}
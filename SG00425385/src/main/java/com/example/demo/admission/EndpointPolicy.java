@@ -0,0 +1,45 @@
+package com.example.demo.admission;
+
+/**
+ * Admission settings of one endpoint, bound from
+ * app.admission.endpoints[Controller.method].*. Endpoints without settings
+ * use the defaults.
+ */
+public class EndpointPolicy {
+
+	/**
+	 * Token budget an endpoint draws from.
+	 */
+	public enum Budget {
+		READ, WRITE, NONE
+	}
+
+	private Budget budget; // Budget to draw from, null for read on GET and HEAD and write otherwise
+	private int cost = 1; // Tokens taken per request
+	private boolean shed = true; // Whether the request counts against the concurrency limit
+
+	// Getters and setters
+	public Budget getBudget() {
+		return budget;
+	}
+
+	public void setBudget(Budget budget) {
+		this.budget = budget;
+	}
+
+	public int getCost() {
+		return cost;
+	}
+
+	public void setCost(int cost) {
+		this.cost = cost;
+	}
+
+	public boolean isShed() {
+		return shed;
+	}
+
+	public void setShed(boolean shed) {
+		this.shed = shed;
+	}
+}
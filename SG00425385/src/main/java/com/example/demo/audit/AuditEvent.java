@@ -0,0 +1,50 @@
+package com.example.demo.audit;
+
+/**
+ * A change recorded in the audit log. Instances are immutable.
+ */
+public final class AuditEvent {
+	private final long time; // Milliseconds since the epoch at which the change was committed
+	private final AuditEventType type; // Kind of change
+	private final String reg; // Vehicle registration, null if no single vehicle is involved
+	private final String mid; // Mechanic involved, null if none
+	private final String previousMid; // Mechanic replaced by the change, null if none or unknown
+
+	/**
+	 * Creates an event.
+	 *
+	 * @param time        The time of the change in milliseconds since the epoch
+	 * @param type        The kind of change
+	 * @param reg         The registration of the vehicle, may be null
+	 * @param mid         The mechanic involved, may be null
+	 * @param previousMid The mechanic replaced by the change, may be null
+	 */
+	public AuditEvent(long time, AuditEventType type, String reg, String mid, String previousMid) {
+		this.time = time;
+		this.type = type;
+		this.reg = reg;
+		this.mid = mid;
+		this.previousMid = previousMid;
+	}
+
+	// Getters
+	public long getTime() {
+		return time;
+	}
+
+	public AuditEventType getType() {
+		return type;
+	}
+
+	public String getReg() {
+		return reg;
+	}
+
+	public String getMid() {
+		return mid;
+	}
+
+	public String getPreviousMid() {
+		return previousMid;
+	}
+}
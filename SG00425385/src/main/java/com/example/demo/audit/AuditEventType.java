@@ -0,0 +1,30 @@
+package com.example.demo.audit;
+
+/**
+ * Kinds of changes recorded in the audit log. The log stores the ordinal, so
+ * new types must be added at the end and existing ones never reordered.
+ */
+public enum AuditEventType {
+
+	/**
+	 * A vehicle was created; the event has its reg.
+	 */
+	VEHICLE_CREATED,
+
+	/**
+	 * A mechanic was assigned to a vehicle; the event has the reg, the new mid
+	 * and the previous mid when it is known.
+	 */
+	MECHANIC_ASSIGNED,
+
+	/**
+	 * All vehicles of one mechanic were moved to another; the event has the new
+	 * mid and the previous mid, but no reg.
+	 */
+	VEHICLES_MOVED,
+
+	/**
+	 * A mechanic was deleted; the event has the mid.
+	 */
+	MECHANIC_DELETED
+}
@@ -0,0 +1,428 @@
+package com.example.demo.audit;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of audit events, stored in fixed-size segment files that are
+ * memory-mapped, so appending an event is a copy into memory rather than a
+ * system call. When an event doesn't fit in the current segment, the segment
+ * is forced to disk and a new one is started. With a segment limit, the oldest
+ * segments are deleted beyond it.
+ *
+ * Each record is a length, a CRC32C of the payload and the payload: the time,
+ * the type and three length-prefixed UTF-8 strings. The length is written last,
+ * and the unused rest of a segment is zero, so a zero length marks the end of
+ * the data. On opening, the last segment is scanned and anything after the
+ * last intact record, such as a record torn by a crash, is cleared.
+ *
+ * Appended records survive a crash of the process as soon as they are
+ * appended, since the mapped pages belong to the operating system; they
+ * survive a crash of the machine once {@link #force()} has returned.
+ *
+ * {@link #append} and {@link #force} must be called from a single writer
+ * thread. {@link #query} may be called from any thread at the same time and
+ * sees every record whose append has returned.
+ */
+public class AuditLog implements Closeable {
+
+	private static final String PREFIX = "audit-";
+	private static final String SUFFIX = ".log";
+	private static final String LOCK_FILE = "audit.lock";
+
+	/**
+	 * Record header: payload length and CRC32C.
+	 */
+	private static final int HEADER_SIZE = 8;
+
+	/**
+	 * A segment file and its mapping. Closed segments stay mapped for reading.
+	 */
+	private static final class Segment {
+		private final long sequence;
+		private final Path path;
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * Length of the intact records. Written by the writer thread after the
+		 * records, so readers never see a partial record.
+		 */
+		private volatile int end;
+
+		/**
+		 * Range of the event times in the segment, for skipping segments outside a
+		 * queried time range. Empty while minTime > maxTime.
+		 */
+		private volatile long minTime = Long.MAX_VALUE;
+		private volatile long maxTime = Long.MIN_VALUE;
+
+		private Segment(long sequence, Path path, MappedByteBuffer buffer) {
+			this.sequence = sequence;
+			this.path = path;
+			this.buffer = buffer;
+		}
+
+		private boolean overlaps(long from, long to) {
+			return minTime <= to && maxTime >= from;
+		}
+	}
+
+	/**
+	 * Position in a segment while decoding records.
+	 */
+	private static final class Cursor {
+		private final ByteBuffer buffer;
+		private int position;
+
+		private Cursor(ByteBuffer buffer, int position) {
+			this.buffer = buffer;
+			this.position = position;
+		}
+
+		private long readLong() {
+			long value = buffer.getLong(position);
+			position += Long.BYTES;
+			return value;
+		}
+
+		private byte readByte() {
+			return buffer.get(position++);
+		}
+
+		private String readString() {
+			short length = buffer.getShort(position);
+			position += Short.BYTES;
+			if (length < 0) {
+				return null;
+			}
+			byte[] bytes = new byte[length];
+			buffer.get(position, bytes);
+			position += length;
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+
+	private final Path directory;
+	private final int segmentSize;
+	private final int maxSegments;
+	private final FileChannel lockChannel;
+	private final FileLock lock;
+
+	/**
+	 * Segments in sequence order; the last one is written to. Only the writer
+	 * thread adds and removes segments.
+	 */
+	private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+	// Writer thread state
+	private final CRC32C crc = new CRC32C();
+	private ByteBuffer scratch = ByteBuffer.allocate(256);
+	private int forcedEnd;
+
+	/**
+	 * Opens the log in a directory, creating the directory if needed and
+	 * recovering the segments already in it.
+	 *
+	 * @param directory   The directory holding the segment files
+	 * @param segmentSize The size of new segment files in bytes
+	 * @param maxSegments The number of segments to keep, or 0 to keep all
+	 * @throws IOException           if the directory or a segment can't be read
+	 *                               or written
+	 * @throws IllegalStateException if another log has the directory open
+	 */
+	public AuditLog(Path directory, int segmentSize, int maxSegments) throws IOException {
+		if (segmentSize < 1024) {
+			throw new IllegalArgumentException("Audit segments must be at least 1024 bytes");
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+
+		Files.createDirectories(directory);
+		lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE);
+		FileLock acquired;
+		try {
+			acquired = lockChannel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			acquired = null;
+		}
+		if (acquired == null) {
+			lockChannel.close();
+			throw new IllegalStateException("Audit directory " + directory + " is used by another audit log");
+		}
+		lock = acquired;
+
+		try {
+			List<Path> paths = new ArrayList<>();
+			try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+				files.forEach(paths::add);
+			}
+			paths.sort(Comparator.comparingLong(AuditLog::sequenceOf));
+			for (int i = 0; i < paths.size(); i++) {
+				segments.add(recover(paths.get(i), i == paths.size() - 1));
+			}
+			if (segments.isEmpty()) {
+				segments.add(createSegment(1));
+			}
+			forcedEnd = active().end;
+		} catch (IOException | RuntimeException e) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Appends an event to the current segment, starting a new segment if it
+	 * doesn't fit.
+	 *
+	 * @param event The event to append
+	 * @throws IOException              if a new segment can't be created
+	 * @throws IllegalArgumentException if the event is larger than a segment
+	 */
+	public void append(AuditEvent event) throws IOException {
+		ByteBuffer payload = encode(event);
+		int size = HEADER_SIZE + payload.remaining();
+		if (size > segmentSize) {
+			throw new IllegalArgumentException("Audit event of " + size + " bytes doesn't fit in a segment");
+		}
+
+		Segment segment = active();
+		if (segment.end + size > segment.buffer.capacity()) {
+			segment = rotate();
+		}
+
+		int start = segment.end;
+		crc.reset();
+		crc.update(payload.duplicate());
+		segment.buffer.put(start + HEADER_SIZE, payload, payload.position(), payload.remaining());
+		segment.buffer.putInt(start + Integer.BYTES, (int) crc.getValue());
+		segment.buffer.putInt(start, payload.remaining());
+
+		if (event.getTime() < segment.minTime) {
+			segment.minTime = event.getTime();
+		}
+		if (event.getTime() > segment.maxTime) {
+			segment.maxTime = event.getTime();
+		}
+		segment.end = start + size;
+	}
+
+	/**
+	 * Writes the records appended since the last call to disk.
+	 */
+	public void force() {
+		Segment segment = active();
+		int end = segment.end;
+		if (end > forcedEnd) {
+			segment.buffer.force(forcedEnd, end - forcedEnd);
+			forcedEnd = end;
+		}
+	}
+
+	/**
+	 * Finds the events matching all given criteria, in the order they were
+	 * appended.
+	 *
+	 * @param reg   The registration to match, or null for any
+	 * @param mid   The mechanic to match as mid or previous mid, or null for any
+	 * @param from  The earliest time to match in milliseconds since the epoch
+	 * @param to    The latest time to match in milliseconds since the epoch
+	 * @param limit The maximum number of events returned
+	 * @return The matching events, at most limit of them
+	 */
+	public List<AuditEvent> query(String reg, String mid, long from, long to, int limit) {
+		List<AuditEvent> events = new ArrayList<>();
+		for (Segment segment : segments) {
+			if (!segment.overlaps(from, to)) {
+				continue;
+			}
+			int end = segment.end;
+			int position = 0;
+			while (position < end && events.size() < limit) {
+				int length = segment.buffer.getInt(position);
+				Cursor cursor = new Cursor(segment.buffer, position + HEADER_SIZE);
+				position += HEADER_SIZE + length;
+
+				long time = cursor.readLong();
+				if (time < from || time > to) {
+					continue;
+				}
+				AuditEvent event = decode(time, cursor);
+				if ((reg == null || reg.equals(event.getReg()))
+						&& (mid == null || mid.equals(event.getMid()) || mid.equals(event.getPreviousMid()))) {
+					events.add(event);
+				}
+			}
+		}
+		return events;
+	}
+
+	/**
+	 * Gets the number of segment files.
+	 *
+	 * @return The number of segments, including the current one
+	 */
+	public int getSegmentCount() {
+		return segments.size();
+	}
+
+	/**
+	 * Forces the current segment to disk and releases the directory. Mappings
+	 * are released by the garbage collector.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (!segments.isEmpty()) {
+				force();
+			}
+		} finally {
+			if (lock != null) {
+				lock.release();
+			}
+			lockChannel.close();
+		}
+	}
+
+	private Segment active() {
+		return segments.get(segments.size() - 1);
+	}
+
+	/**
+	 * Forces the current segment, starts the next one and deletes segments beyond
+	 * the limit.
+	 */
+	private Segment rotate() throws IOException {
+		force();
+		Segment segment = createSegment(active().sequence + 1);
+		segments.add(segment);
+		forcedEnd = 0;
+		while (maxSegments > 0 && segments.size() > maxSegments) {
+			Files.deleteIfExists(segments.remove(0).path);
+		}
+		return segment;
+	}
+
+	private Segment createSegment(long sequence) throws IOException {
+		Path path = directory.resolve(String.format("%s%019d%s", PREFIX, sequence, SUFFIX));
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			return new Segment(sequence, path, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+		}
+	}
+
+	/**
+	 * Maps an existing segment and finds its intact records. In the last segment,
+	 * whatever follows them is cleared so new records can be appended.
+	 */
+	private Segment recover(Path path, boolean last) throws IOException {
+		Segment segment;
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			segment = new Segment(sequenceOf(path), path,
+					channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+		}
+
+		MappedByteBuffer buffer = segment.buffer;
+		int position = 0;
+		while (position + HEADER_SIZE <= buffer.capacity()) {
+			int length = buffer.getInt(position);
+			if (length <= 0 || length > buffer.capacity() - position - HEADER_SIZE) {
+				break;
+			}
+			crc.reset();
+			crc.update(buffer.slice(position + HEADER_SIZE, length));
+			if ((int) crc.getValue() != buffer.getInt(position + Integer.BYTES)) {
+				break;
+			}
+			long time = buffer.getLong(position + HEADER_SIZE);
+			segment.minTime = Math.min(segment.minTime, time);
+			segment.maxTime = Math.max(segment.maxTime, time);
+			position += HEADER_SIZE + length;
+		}
+		segment.end = position;
+
+		if (last) {
+			int dirty = position;
+			while (dirty < buffer.capacity() && buffer.get(dirty) == 0) {
+				dirty++;
+			}
+			if (dirty < buffer.capacity()) {
+				for (int i = position; i < buffer.capacity(); i++) {
+					buffer.put(i, (byte) 0);
+				}
+				buffer.force();
+			}
+		}
+		return segment;
+	}
+
+	private ByteBuffer encode(AuditEvent event) {
+		byte[] reg = bytes(event.getReg());
+		byte[] mid = bytes(event.getMid());
+		byte[] previousMid = bytes(event.getPreviousMid());
+		int size = Long.BYTES + 1 + 3 * Short.BYTES + length(reg) + length(mid) + length(previousMid);
+		if (scratch.capacity() < size) {
+			scratch = ByteBuffer.allocate(Math.max(size, scratch.capacity() * 2));
+		}
+		scratch.clear();
+		scratch.putLong(event.getTime());
+		scratch.put((byte) event.getType().ordinal());
+		putString(reg);
+		putString(mid);
+		putString(previousMid);
+		return scratch.flip();
+	}
+
+	private void putString(byte[] bytes) {
+		if (bytes == null) {
+			scratch.putShort((short) -1);
+		} else {
+			scratch.putShort((short) bytes.length);
+			scratch.put(bytes);
+		}
+	}
+
+	private static byte[] bytes(String value) {
+		if (value == null) {
+			return null;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Audit event values must be shorter than 32 KB");
+		}
+		return bytes;
+	}
+
+	private static int length(byte[] bytes) {
+		return bytes == null ? 0 : bytes.length;
+	}
+
+	private static AuditEvent decode(long time, Cursor cursor) {
+		AuditEventType type = AuditEventType.values()[cursor.readByte()];
+		String reg = cursor.readString();
+		String mid = cursor.readString();
+		String previousMid = cursor.readString();
+		return new AuditEvent(time, type, reg, mid, previousMid);
+	}
+
+	private static long sequenceOf(Path path) {
+		String name = path.getFileName().toString();
+		return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+	}
+}
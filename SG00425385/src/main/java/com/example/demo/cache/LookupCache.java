@@ -0,0 +1,162 @@
+package com.example.demo.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import com.example.demo.dto.CacheStatsDTO;
+
+/**
+ * Bounded in-process read-through cache with least-recently-used and
+ * time-to-live eviction. Used in front of repository lookups by natural key
+ * (such as mid) that are repeated for the same hot keys.
+ *
+ * Absent values are never cached, so a key that doesn't exist yet is always
+ * looked up again. Writers must call {@link #invalidate(Object)} after changing
+ * the underlying data; a load that overlaps an invalidation is not cached, so a
+ * concurrent reader can't put a stale value back.
+ *
+ * @param <K> The lookup key type
+ * @param <V> The cached value type
+ */
+public class LookupCache<K, V> {
+
+	/**
+	 * Cached value together with the time it was loaded.
+	 */
+	private static class Entry<V> {
+		private final V value;
+		private final long loadedAt;
+
+		private Entry(V value, long loadedAt) {
+			this.value = value;
+			this.loadedAt = loadedAt;
+		}
+	}
+
+	private final String name;
+	private final int maxSize;
+	private final long ttlNanos;
+
+	/**
+	 * Entries in access order, so the eldest entry is the least recently used one.
+	 * Guarded by this.
+	 */
+	private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Incremented on every invalidation. A load only caches its result if no
+	 * invalidation happened while it was running. Guarded by this.
+	 */
+	private long invalidationCount;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder invalidations = new LongAdder();
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param name       The name reported in the cache statistics
+	 * @param maxSize    The maximum number of entries kept
+	 * @param ttlSeconds How long an entry stays valid after it was loaded
+	 */
+	public LookupCache(String name, int maxSize, long ttlSeconds) {
+		this.name = name;
+		this.maxSize = maxSize;
+		this.ttlNanos = ttlSeconds * 1_000_000_000L;
+	}
+
+	/**
+	 * Returns the cached value for the key, or loads it with the given loader on a
+	 * miss. Non-null loaded values are cached.
+	 *
+	 * @param key    The lookup key
+	 * @param loader Loads the value from the database, returning null if absent
+	 * @return The cached or loaded value, or null if it doesn't exist
+	 */
+	public V get(K key, Function<K, V> loader) {
+		long invalidationsBeforeLoad;
+		synchronized (this) {
+			Entry<V> entry = entries.get(key);
+			if (entry != null) {
+				if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+					hits.increment();
+					return entry.value;
+				}
+				entries.remove(key);
+				evictions.increment();
+			}
+			invalidationsBeforeLoad = invalidationCount;
+		}
+
+		misses.increment();
+		V value = loader.apply(key);
+		if (value == null) {
+			return null;
+		}
+
+		synchronized (this) {
+			if (invalidationCount == invalidationsBeforeLoad) {
+				entries.put(key, new Entry<>(value, System.nanoTime()));
+				evictEldest();
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Removes the entry for a key whose underlying data has changed.
+	 *
+	 * @param key The lookup key to invalidate
+	 */
+	public synchronized void invalidate(K key) {
+		invalidationCount++;
+		if (entries.remove(key) != null) {
+			invalidations.increment();
+		}
+	}
+
+	/**
+	 * Removes all entries, for writes that may affect any key.
+	 */
+	public synchronized void invalidateAll() {
+		invalidationCount++;
+		invalidations.add(entries.size());
+		entries.clear();
+	}
+
+	/**
+	 * Drops least recently used entries until the cache is back within its size
+	 * bound, dropping expired entries met on the way as well.
+	 */
+	private void evictEldest() {
+		long now = System.nanoTime();
+		Iterator<Map.Entry<K, Entry<V>>> iterator = entries.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<V> entry = iterator.next().getValue();
+			if (entries.size() <= maxSize && now - entry.loadedAt < ttlNanos) {
+				break;
+			}
+			iterator.remove();
+			evictions.increment();
+		}
+	}
+
+	/**
+	 * Gets a snapshot of the hit, miss and eviction counters.
+	 *
+	 * @return The current cache statistics
+	 */
+	public CacheStatsDTO getStats() {
+		int size;
+		synchronized (this) {
+			size = entries.size();
+		}
+		return new CacheStatsDTO(name, size, maxSize, hits.sum(), misses.sum(), evictions.sum(),
+				invalidations.sum());
+	}
+}
@@ -0,0 +1,162 @@
+package com.example.demo.config;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.example.demo.admission.AdaptiveConcurrencyLimit;
+import com.example.demo.admission.AdmissionControlInterceptor;
+import com.example.demo.admission.ClientRateLimiter;
+import com.example.demo.admission.EndpointPolicy;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Admission control for the vehicle and mechanic endpoints, configured with
+ * app.admission.*: per-client read and write budgets, a shared adaptive
+ * concurrency limit and per-endpoint settings bound from
+ * app.admission.endpoints[Controller.method]. The limiter state is exposed as
+ * app.admission.* gauges at /actuator/metrics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+	/**
+	 * Header naming the client, set by the gateway; blank to use the remote address only.
+	 */
+	@Value("${app.admission.client-header:X-Client-Id}")
+	private String clientHeader;
+
+	/**
+	 * Number of clients tracked per budget before idle ones are dropped.
+	 */
+	@Value("${app.admission.max-clients:10000}")
+	private int maxClients;
+
+	/**
+	 * Read tokens added to each client's budget per second.
+	 */
+	@Value("${app.admission.read.rate:50}")
+	private double readRate;
+
+	/**
+	 * Read tokens a rested client can spend at once.
+	 */
+	@Value("${app.admission.read.burst:100}")
+	private int readBurst;
+
+	/**
+	 * Write tokens added to each client's budget per second.
+	 */
+	@Value("${app.admission.write.rate:10}")
+	private double writeRate;
+
+	/**
+	 * Write tokens a rested client can spend at once.
+	 */
+	@Value("${app.admission.write.burst:20}")
+	private int writeBurst;
+
+	/**
+	 * Whether requests also share the adaptive concurrency limit.
+	 */
+	@Value("${app.admission.concurrency.enabled:true}")
+	private boolean concurrencyEnabled;
+
+	/**
+	 * Concurrency limit at startup.
+	 */
+	@Value("${app.admission.concurrency.initial-limit:20}")
+	private int initialLimit;
+
+	/**
+	 * Lowest concurrency limit, kept however slow the database gets.
+	 */
+	@Value("${app.admission.concurrency.min-limit:4}")
+	private int minLimit;
+
+	/**
+	 * Highest concurrency limit.
+	 */
+	@Value("${app.admission.concurrency.max-limit:200}")
+	private int maxLimit;
+
+	/**
+	 * Average SQL statement latency above which the limit is lowered.
+	 */
+	@Value("${app.admission.concurrency.target-latency-ms:50}")
+	private long targetLatencyMs;
+
+	/**
+	 * Factor applied to the limit for each request over the target latency.
+	 */
+	@Value("${app.admission.concurrency.backoff-ratio:0.9}")
+	private double backoffRatio;
+
+	/**
+	 * Fraction of the concurrency limit reads may fill, keeping the rest for writes.
+	 */
+	@Value("${app.admission.concurrency.read-share:0.8}")
+	private double readShare;
+
+	/**
+	 * Environment the per-endpoint settings are bound from.
+	 */
+	@Autowired
+	private Environment environment;
+
+	/**
+	 * Registry of the admission gauges and rejection counters.
+	 */
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		Map<String, EndpointPolicy> policies = Binder.get(environment)
+				.bind("app.admission.endpoints", Bindable.mapOf(String.class, EndpointPolicy.class))
+				.orElse(Map.of());
+		policies.forEach((endpoint, policy) -> {
+			// A cost above the burst could never be paid
+			int burst = policy.getBudget() == null ? Math.min(readBurst, writeBurst) : switch (policy.getBudget()) {
+			case READ -> readBurst;
+			case WRITE -> writeBurst;
+			case NONE -> Integer.MAX_VALUE;
+			};
+			if (policy.getCost() < 1 || policy.getCost() > burst) {
+				throw new IllegalStateException("Cost of " + endpoint + " must be between 1 and its budget's burst");
+			}
+		});
+
+		ClientRateLimiter readLimiter = new ClientRateLimiter(readRate, readBurst, maxClients);
+		ClientRateLimiter writeLimiter = new ClientRateLimiter(writeRate, writeBurst, maxClients);
+		Gauge.builder("app.admission.clients", readLimiter, ClientRateLimiter::getClients).tag("budget", "read")
+				.register(meterRegistry);
+		Gauge.builder("app.admission.clients", writeLimiter, ClientRateLimiter::getClients).tag("budget", "write")
+				.register(meterRegistry);
+
+		AdaptiveConcurrencyLimit concurrencyLimit = null;
+		if (concurrencyEnabled) {
+			concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatencyMs,
+					backoffRatio);
+			Gauge.builder("app.admission.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+					.register(meterRegistry);
+			Gauge.builder("app.admission.concurrency.in-flight", concurrencyLimit,
+					AdaptiveConcurrencyLimit::getInFlight).register(meterRegistry);
+		}
+
+		registry.addInterceptor(new AdmissionControlInterceptor(readLimiter, writeLimiter, concurrencyLimit,
+				readShare, policies, clientHeader.isBlank() ? null : clientHeader, meterRegistry))
+				.addPathPatterns("/api/vehicle/**", "/api/mechanic/**");
+	}
+}
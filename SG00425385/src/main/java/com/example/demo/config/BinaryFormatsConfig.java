@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * CBOR (application/cbor) and Smile (application/x-jackson-smile) request and
+ * response bodies for internal clients that call the listings often enough for
+ * JSON parsing to show up in their profiles. Both encode the same DTOs as the
+ * JSON converter, with the same Jackson settings, so a client only changes its
+ * Accept and Content-Type headers.
+ *
+ * The converters take the place of the defaults Spring MVC registers when the
+ * formats are on the classpath, which come after the JSON converter, so JSON is
+ * still used whenever the Accept header allows it, including for clients that
+ * accept any type. Boot's builder bean is a prototype, so setting the factory
+ * doesn't change the mapper of the JSON converter.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+	@Bean
+	MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+	}
+
+	@Bean
+	MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+		return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.demo.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * DataSource that lets at most a fixed number of callers hold a connection at
+ * the same time. With request handling on virtual threads there can be far more
+ * concurrent requests than pooled connections; the surplus parks cheaply and
+ * in arrival order on the semaphore instead of crowding the pool's own wait
+ * queue. A permit is taken when a connection is obtained and returned when it
+ * is closed.
+ *
+ * Closing this DataSource closes the wrapped one, so a pool replaced by this
+ * wrapper in the application context is still shut down with it.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource implements Closeable {
+
+	private final Semaphore permits;
+	private final long acquireTimeoutMillis;
+
+	/**
+	 * Wraps a DataSource.
+	 *
+	 * @param target               The pooled DataSource to limit
+	 * @param maxConcurrency       The number of connections that may be held at
+	 *                             once, normally the pool size
+	 * @param acquireTimeoutMillis How long to wait for a permit before failing
+	 */
+	public ConcurrencyLimitedDataSource(DataSource target, int maxConcurrency, long acquireTimeoutMillis) {
+		super(target);
+		this.permits = new Semaphore(maxConcurrency, true);
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+	}
+
+	@Override
+	public Connection getConnection() throws SQLException {
+		acquire();
+		return limited(obtain(() -> super.getConnection()));
+	}
+
+	@Override
+	public Connection getConnection(String username, String password) throws SQLException {
+		acquire();
+		return limited(obtain(() -> super.getConnection(username, password)));
+	}
+
+	/**
+	 * Gets the number of callers currently waiting for a permit.
+	 *
+	 * @return The estimated queue length
+	 */
+	public int getWaiting() {
+		return permits.getQueueLength();
+	}
+
+	@Override
+	public void close() throws IOException {
+		try {
+			if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+				closeable.close();
+			}
+		} catch (IOException | RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new IOException(e);
+		}
+	}
+
+	private void acquire() throws SQLException {
+		try {
+			if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+				throw new SQLTransientConnectionException(
+						"No database connection available within " + acquireTimeoutMillis + "ms");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLTransientConnectionException("Interrupted while waiting for a database connection", e);
+		}
+	}
+
+	/**
+	 * Obtains a connection after a permit was acquired, returning the permit if
+	 * that fails.
+	 */
+	private Connection obtain(ConnectionSupplier supplier) throws SQLException {
+		try {
+			return supplier.get();
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * Wraps a connection so closing it returns the permit exactly once.
+	 */
+	private Connection limited(Connection connection) {
+		AtomicBoolean released = new AtomicBoolean();
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+				new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					} finally {
+						if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+							permits.release();
+						}
+					}
+				});
+	}
+
+	@FunctionalInterface
+	private interface ConnectionSupplier {
+		Connection get() throws SQLException;
+	}
+}
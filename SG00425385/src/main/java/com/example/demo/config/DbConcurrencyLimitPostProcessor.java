@@ -0,0 +1,63 @@
+package com.example.demo.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Wraps the application DataSource in a {@link ConcurrencyLimitedDataSource}
+ * when app.db.concurrency-limit.enabled is set, which by default follows
+ * spring.threads.virtual.enabled. The limit defaults to the maximum size of the
+ * Hikari pool and the wait to its connection timeout.
+ */
+@Component
+public class DbConcurrencyLimitPostProcessor implements BeanPostProcessor {
+
+	private static final Logger log = LoggerFactory.getLogger(DbConcurrencyLimitPostProcessor.class);
+
+	/**
+	 * Whether to limit the concurrent database work.
+	 */
+	@Value("${app.db.concurrency-limit.enabled:false}")
+	private boolean enabled;
+
+	/**
+	 * The number of connections that may be held at once, or 0 for the pool size.
+	 */
+	@Value("${app.db.concurrency-limit.permits:0}")
+	private int permits;
+
+	/**
+	 * How long to wait for a connection in milliseconds, or 0 for the pool's
+	 * connection timeout.
+	 */
+	@Value("${app.db.concurrency-limit.acquire-timeout-ms:0}")
+	private long acquireTimeoutMillis;
+
+	@Override
+	public Object postProcessAfterInitialization(Object bean, String beanName) {
+		if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+			return bean;
+		}
+
+		HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+		int limit = permits > 0 ? permits : pool != null ? pool.getMaximumPoolSize() : 0;
+		long timeout = acquireTimeoutMillis > 0 ? acquireTimeoutMillis
+				: pool != null ? pool.getConnectionTimeout() : 30_000;
+		if (limit <= 0) {
+			log.warn("DataSource {} is not a Hikari pool and no app.db.concurrency-limit.permits is set; not limited",
+					beanName);
+			return bean;
+		}
+
+		log.info("Limiting DataSource {} to {} concurrent connections", beanName, limit);
+		return new ConcurrencyLimitedDataSource(dataSource, limit, timeout);
+	}
+}
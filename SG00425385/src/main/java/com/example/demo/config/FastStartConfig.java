@@ -0,0 +1,25 @@
+package com.example.demo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.demo.services.AuditService;
+
+/**
+ * Beans created at startup even when spring.main.lazy-initialization is set, as
+ * in the faststart profile. Most beans are safe to create on first use; the
+ * search index and garage summaries are built from ApplicationReadyEvent
+ * listeners, which create their beans at startup anyway. The audit service
+ * must start with the application so the log is recovered and locked before
+ * requests arrive, and a second instance sharing the directory fails at
+ * startup rather than on its first write.
+ */
+@Configuration
+public class FastStartConfig {
+
+	@Bean
+	static LazyInitializationExcludeFilter eagerBeans() {
+		return LazyInitializationExcludeFilter.forBeanTypes(AuditService.class);
+	}
+}
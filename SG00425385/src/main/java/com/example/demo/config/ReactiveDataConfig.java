@@ -0,0 +1,61 @@
+package com.example.demo.config;
+
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Non-blocking database access for the reactive read API, through an R2DBC
+ * connection pool configured with app.r2dbc.* (url, username, password and
+ * pool.*, as for spring.r2dbc.*). The pool is separate from the JDBC pool used
+ * by JPA, so size the database's connection limit for both.
+ *
+ * Spring Boot's R2DBC auto-configuration is excluded because its connection
+ * factory bean would switch off the JDBC DataSource; for the same reason the
+ * pool here is only exposed through the {@link DatabaseClient}.
+ */
+@Configuration
+public class ReactiveDataConfig {
+
+	private ConnectionPool pool;
+
+	@Bean
+	public DatabaseClient reactiveDatabaseClient(Environment environment) {
+		R2dbcProperties properties = Binder.get(environment).bind("app.r2dbc", R2dbcProperties.class)
+				.orElseThrow(() -> new IllegalStateException("app.r2dbc.url must be set"));
+		ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+				.username(properties.getUsername()).password(properties.getPassword()).build();
+
+		R2dbcProperties.Pool settings = properties.getPool();
+		ConnectionPoolConfiguration.Builder builder = ConnectionPoolConfiguration.builder(connectionFactory)
+				.name("reactive").initialSize(settings.getInitialSize()).maxSize(settings.getMaxSize());
+		PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+		map.from(settings.getMaxIdleTime()).to(builder::maxIdleTime);
+		map.from(settings.getMaxLifeTime()).to(builder::maxLifeTime);
+		map.from(settings.getMaxAcquireTime()).to(builder::maxAcquireTime);
+		map.from(settings.getMaxCreateConnectionTime()).to(builder::maxCreateConnectionTime);
+		map.from(settings.getValidationQuery()).to(builder::validationQuery);
+		pool = new ConnectionPool(builder.build());
+		return DatabaseClient.create(pool);
+	}
+
+	/**
+	 * Closes the pooled connections when the application stops.
+	 */
+	@PreDestroy
+	void closePool() {
+		if (pool != null) {
+			pool.dispose();
+		}
+	}
+}
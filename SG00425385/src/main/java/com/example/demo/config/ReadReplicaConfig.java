@@ -0,0 +1,79 @@
+package com.example.demo.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Routes read-only transactions to a read replica when
+ * app.datasource.replica.url is set. The primary pool is configured with the
+ * usual spring.datasource.* properties, the replica pool with
+ * app.datasource.replica.* (url, username, password, driver-class-name and
+ * hikari.*). Without a replica URL the application keeps Spring Boot's single
+ * DataSource.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+public class ReadReplicaConfig {
+
+	/**
+	 * How long after a committed write all reads go to the primary.
+	 */
+	@Value("${app.datasource.replica.primary-after-write-ms:1000}")
+	private long primaryAfterWriteMillis;
+
+	/**
+	 * How long to read from the primary after the replica failed.
+	 */
+	@Value("${app.datasource.replica.retry-ms:5000}")
+	private long replicaRetryMillis;
+
+	@Bean
+	@Primary
+	public ReadReplicaRoutingDataSource dataSource(DataSourceProperties primaryProperties, Environment environment,
+			ObjectProvider<MeterRegistry> meterRegistry) {
+		Binder binder = Binder.get(environment);
+		HikariDataSource primary = pool(primaryProperties, "primary", binder, "spring.datasource.hikari",
+				meterRegistry);
+		DataSourceProperties replicaProperties = binder
+				.bind("app.datasource.replica", DataSourceProperties.class).get();
+		HikariDataSource replica = pool(replicaProperties, "replica", binder, "app.datasource.replica.hikari",
+				meterRegistry);
+		return new ReadReplicaRoutingDataSource(primary, replica, primaryAfterWriteMillis, replicaRetryMillis);
+	}
+
+	@Bean
+	public FilterRegistrationBean<ReadReplicaStickinessFilter> readReplicaStickinessFilter() {
+		FilterRegistrationBean<ReadReplicaStickinessFilter> registration = new FilterRegistrationBean<>(
+				new ReadReplicaStickinessFilter());
+		registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+		return registration;
+	}
+
+	/**
+	 * Builds a Hikari pool the way Spring Boot builds its own, with pool metrics
+	 * tagged by the pool name.
+	 */
+	private static HikariDataSource pool(DataSourceProperties properties, String name, Binder binder,
+			String hikariPrefix, ObjectProvider<MeterRegistry> meterRegistry) {
+		HikariDataSource pool = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+		pool.setPoolName(name);
+		binder.bind(hikariPrefix, Bindable.ofInstance(pool));
+		meterRegistry.ifAvailable(registry -> pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+		return pool;
+	}
+}
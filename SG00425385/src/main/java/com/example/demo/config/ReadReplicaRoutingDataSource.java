@@ -0,0 +1,162 @@
+package com.example.demo.config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * DataSource that sends read-only transactions to a read replica and everything
+ * else to the primary database.
+ *
+ * Connections are fetched lazily, on the first statement, so the read-only flag
+ * of the transaction is known by the time one is picked. Reads still go to the
+ * primary when
+ * <ul>
+ * <li>the current request has already written, so it reads its own
+ * writes;</li>
+ * <li>any write committed within the last primaryAfterWriteMillis, so the
+ * replica has time to catch up before readers, and the ETags handed to them,
+ * see the new data version;</li>
+ * <li>the replica failed to give a connection within the last
+ * replicaRetryMillis.</li>
+ * </ul>
+ * The request scope is ended by {@link ReadReplicaStickinessFilter}.
+ */
+public class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+	private static final Logger log = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+	/**
+	 * Set once the current request has run a read-write transaction.
+	 */
+	private static final ThreadLocal<Boolean> wrote = new ThreadLocal<>();
+
+	private final HikariDataSource primary;
+	private final HikariDataSource replica;
+	private final long primaryAfterWriteMillis;
+	private final long replicaRetryMillis;
+
+	private volatile long primaryUntil;
+	private volatile long replicaDownUntil;
+
+	/**
+	 * Creates the routing DataSource. It owns both pools and closes them when
+	 * closed.
+	 *
+	 * @param primary                 The pool of the primary database
+	 * @param replica                 The pool of the read replica
+	 * @param primaryAfterWriteMillis How long after a write all reads go to the
+	 *                                primary, normally the expected replication lag
+	 * @param replicaRetryMillis      How long to leave the replica alone after it
+	 *                                failed
+	 */
+	public ReadReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica,
+			long primaryAfterWriteMillis, long replicaRetryMillis) {
+		this.primary = primary;
+		this.replica = replica;
+		this.primaryAfterWriteMillis = primaryAfterWriteMillis;
+		this.replicaRetryMillis = replicaRetryMillis;
+		setTargetDataSource(new WriteTracking(primary));
+		setReadOnlyDataSource(new ReplicaOrPrimary());
+		afterPropertiesSet();
+	}
+
+	/**
+	 * Forgets that the current thread wrote. Called at the end of each request.
+	 */
+	public static void endRequest() {
+		wrote.remove();
+	}
+
+	/**
+	 * Checks whether reads are currently allowed to go to the replica.
+	 *
+	 * @return False if the replica is down, or a write was made by this request or
+	 *         committed recently
+	 */
+	public boolean isReplicaReadable() {
+		long now = System.currentTimeMillis();
+		return wrote.get() == null && now >= primaryUntil && now >= replicaDownUntil;
+	}
+
+	public HikariDataSource getPrimary() {
+		return primary;
+	}
+
+	public HikariDataSource getReplica() {
+		return replica;
+	}
+
+	@Override
+	public void close() {
+		replica.close();
+		primary.close();
+	}
+
+	/**
+	 * The primary pool, noting each connection taken for a read-write
+	 * transaction.
+	 */
+	private final class WriteTracking extends DelegatingDataSource {
+
+		WriteTracking(DataSource primary) {
+			super(primary);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			Connection connection = super.getConnection();
+			if (TransactionSynchronizationManager.isActualTransactionActive()
+					&& !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+				wrote.set(Boolean.TRUE);
+				if (primaryAfterWriteMillis > 0) {
+					TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+						@Override
+						public void afterCommit() {
+							primaryUntil = System.currentTimeMillis() + primaryAfterWriteMillis;
+						}
+					});
+				}
+			}
+			return connection;
+		}
+	}
+
+	/**
+	 * The pool for read-only transactions: the replica when it is readable, the
+	 * primary otherwise.
+	 */
+	private final class ReplicaOrPrimary extends DelegatingDataSource {
+
+		ReplicaOrPrimary() {
+			super(replica);
+		}
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (!isReplicaReadable()) {
+				return primary.getConnection();
+			}
+			try {
+				return replica.getConnection();
+			} catch (SQLException | RuntimeException e) {
+				// Hikari reports a replica that is down at first use as a RuntimeException
+				replicaDownUntil = System.currentTimeMillis() + replicaRetryMillis;
+				log.warn("Read replica unavailable, reading from the primary for {} ms: {}", replicaRetryMillis,
+						e.getMessage());
+				return primary.getConnection();
+			}
+		}
+	}
+}
@@ -0,0 +1,29 @@
+package com.example.demo.config;
+
+import java.io.IOException;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Scopes the sticky-primary-after-write rule of
+ * {@link ReadReplicaRoutingDataSource} to one request, so a pooled thread
+ * doesn't carry it into the next one.
+ */
+public class ReadReplicaStickinessFilter extends OncePerRequestFilter {
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		ReadReplicaRoutingDataSource.endRequest();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			ReadReplicaRoutingDataSource.endRequest();
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.demo.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.CacheConfiguration;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local Ehcache instance behind Hibernate's second-level and query caches. The
+ * regions are declared here rather than in an ehcache.xml so their bounds come
+ * from the application properties; Hibernate fails at startup if an entity
+ * names a region that isn't declared.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+	public static final String GARAGE_REGION = "garage";
+	public static final String MECHANIC_REGION = "mechanic";
+	public static final String CUSTOMER_REGION = "customer";
+	public static final String QUERY_REGION = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+	public static final String TIMESTAMPS_REGION = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+	/**
+	 * The regions whose statistics are reported, entities first.
+	 */
+	public static final List<String> REGIONS = List.of(GARAGE_REGION, MECHANIC_REGION, CUSTOMER_REGION,
+			QUERY_REGION);
+
+	/**
+	 * Maximum number of entries per entity region and in the query region.
+	 */
+	@Value("${app.cache.hibernate.max-entries:10000}")
+	private long maxEntries;
+
+	/**
+	 * Time in seconds after which a cached entity or query result is reloaded,
+	 * which bounds how long changes made outside the application go unseen.
+	 */
+	@Value("${app.cache.hibernate.ttl-seconds:600}")
+	private long ttlSeconds;
+
+	@Bean
+	public CacheManager hibernateCacheManager() {
+		CacheConfiguration<Object, Object> bounded = CacheConfigurationBuilder
+				.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+				.withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(Duration.ofSeconds(ttlSeconds)))
+				.build();
+		// One entry per table; must not expire or query results could outlive the
+		// writes that invalidated them
+		CacheConfiguration<Object, Object> timestamps = CacheConfigurationBuilder
+				.newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(1000))
+				.build();
+
+		org.ehcache.config.Configuration configuration = ConfigurationBuilder.newConfigurationBuilder()
+				.withCache(GARAGE_REGION, bounded)
+				.withCache(MECHANIC_REGION, bounded)
+				.withCache(CUSTOMER_REGION, bounded)
+				.withCache(QUERY_REGION, bounded)
+				.withCache(TIMESTAMPS_REGION, timestamps)
+				.build();
+		EhcacheCachingProvider provider = (EhcacheCachingProvider) Caching
+				.getCachingProvider(EhcacheCachingProvider.class.getName());
+		// A manager per application context, since Hibernate closes it on shutdown
+		return provider.getCacheManager(URI.create("urn:hibernate-l2:" + System.identityHashCode(this)),
+				configuration);
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+		return properties -> {
+			properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+			properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+		};
+	}
+}
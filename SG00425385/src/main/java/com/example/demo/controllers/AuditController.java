@@ -0,0 +1,58 @@
+package com.example.demo.controllers;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.services.AuditService;
+
+/**
+ * REST controller for reading the audit log of vehicle creations, mechanic
+ * assignments and mechanic deletions.
+ */
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+public class AuditController {
+
+	/**
+	 * Service that owns the audit log.
+	 */
+	@Autowired
+	private AuditService auditService;
+
+	/**
+	 * Finds audit events. Endpoint: GET
+	 * /api/audit?reg=09-G-992&mid=M001&from=2025-01-01T00:00:00Z&to=...&limit=100
+	 * 
+	 * Events are written shortly after the change commits, so a change made a
+	 * moment ago may not be found yet.
+	 * 
+	 * @param reg   Optional registration of the vehicle
+	 * @param mid   Optional mechanic, matched as the assigned or previous mechanic
+	 * @param from  Optional earliest time, as an ISO-8601 instant
+	 * @param to    Optional latest time, as an ISO-8601 instant
+	 * @param limit Optional maximum number of events, capped at
+	 *              {@link AuditService#MAX_QUERY_LIMIT}
+	 * @return ResponseEntity with the matching events, oldest first - 500
+	 *         Internal Server Error with error message if the limit or time range
+	 *         is invalid
+	 */
+	@GetMapping
+	public ResponseEntity<?> getEvents(@RequestParam(required = false) String reg,
+			@RequestParam(required = false) String mid, @RequestParam(required = false) Instant from,
+			@RequestParam(required = false) Instant to, @RequestParam(required = false) Integer limit) {
+		try {
+			return ResponseEntity.ok(auditService.query(reg, mid, from, to, limit));
+		} catch (IllegalArgumentException e) {
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+}
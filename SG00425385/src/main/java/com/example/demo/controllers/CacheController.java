@@ -0,0 +1,49 @@
+package com.example.demo.controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.dto.CacheStatsDTO;
+import com.example.demo.services.LookupCacheService;
+import com.example.demo.services.SecondLevelCacheService;
+
+/**
+ * REST controller that exposes the statistics of the application caches.
+ */
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+
+	/**
+	 * Service that owns the mechanic lookup cache.
+	 */
+	@Autowired
+	private LookupCacheService lookupCacheService;
+
+	/**
+	 * Service that reports on Hibernate's second-level and query caches.
+	 */
+	@Autowired
+	private SecondLevelCacheService secondLevelCacheService;
+
+	/**
+	 * Retrieves the hit, miss and eviction counters of the lookup cache,
+	 * followed by the hit and miss counters of the second-level cache regions.
+	 * Endpoint: GET /api/cache/stats
+	 * 
+	 * @return List with the statistics of each cache
+	 */
+	@GetMapping("/stats")
+	public List<CacheStatsDTO> getCacheStats() {
+		List<CacheStatsDTO> stats = new ArrayList<>(lookupCacheService.getStats());
+		stats.addAll(secondLevelCacheService.getStats());
+		return stats;
+	}
+}
@@ -0,0 +1,84 @@
+package com.example.demo.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.services.GarageAnalyticsService;
+
+/**
+ * REST controller that handles HTTP requests related to garages. Provides the
+ * payroll and workload analytics of the garages.
+ */
+@RestController
+@RequestMapping("/api/garage")
+@CrossOrigin(origins = "*")
+public class GarageController {
+
+	/**
+	 * Service class that computes and maintains the garage analytics.
+	 */
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	/**
+	 * Retrieves the payroll against budget and the vehicle workload of every
+	 * garage. Endpoint: GET /api/garage/analytics
+	 *
+	 * @param source "summary" (default) to read the maintained summaries, one row
+	 *               per garage, or "live" to compute the figures with aggregate
+	 *               queries over the mechanics and vehicles
+	 * @return ResponseEntity with the figures of each garage in gid order or error
+	 *         details - 200 OK - 500 Internal Server Error if the source is unknown
+	 */
+	@GetMapping("/analytics")
+	public ResponseEntity<?> getAnalytics(@RequestParam(defaultValue = "summary") String source) {
+		switch (source) {
+		case "summary":
+			return ResponseEntity.ok(garageAnalyticsService.getAnalytics());
+		case "live":
+			return ResponseEntity.ok(garageAnalyticsService.computeAnalytics());
+		default:
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR)
+					.body("source must be summary or live");
+		}
+	}
+
+	/**
+	 * Rebuilds the garage summaries from the mechanic and vehicle tables, for
+	 * example after data was changed outside the application. Endpoint: POST
+	 * /api/garage/analytics/rebuild
+	 *
+	 * @return ResponseEntity with the rebuilt figures of each garage - 200 OK
+	 */
+	@PostMapping("/analytics/rebuild")
+	public ResponseEntity<?> rebuildAnalytics() {
+		garageAnalyticsService.rebuild();
+		return ResponseEntity.ok(garageAnalyticsService.getAnalytics());
+	}
+
+	/**
+	 * Retrieves the number of vehicles serviced by each mechanic of a garage.
+	 * Endpoint: GET /api/garage/{gid}/workload
+	 *
+	 * @param gid The garage's unique identifier code
+	 * @return ResponseEntity with the workload of each mechanic in mid order or
+	 *         error details - 200 OK - 500 Internal Server Error if the garage
+	 *         doesn't exist
+	 */
+	@GetMapping("/{gid}/workload")
+	public ResponseEntity<?> getWorkload(@PathVariable String gid) {
+		try {
+			return ResponseEntity.ok(garageAnalyticsService.getWorkload(gid));
+		} catch (IllegalArgumentException e) {
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+}
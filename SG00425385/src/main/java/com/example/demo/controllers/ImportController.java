@@ -0,0 +1,56 @@
+package com.example.demo.controllers;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.services.CsvImportService;
+
+/**
+ * REST controller for loading garages, mechanics, customers and vehicles from
+ * CSV files.
+ */
+@RestController
+@RequestMapping("/api/import")
+@CrossOrigin(origins = "*")
+public class ImportController {
+
+	/**
+	 * Service that parses and inserts the files.
+	 */
+	@Autowired
+	private CsvImportService csvImportService;
+
+	/**
+	 * Imports a CSV file sent as the request body, read as it arrives. Endpoint:
+	 * POST /api/import/{entity} with entity one of garage, mechanic, customer or
+	 * vehicle, e.g. curl --data-binary @vehicles.csv -H "Content-Type: text/csv"
+	 * 
+	 * The first line names the columns; see
+	 * {@link CsvImportService#importCsv(String, InputStream)}. Rows are committed
+	 * in batches, so rows imported before a failure stay imported.
+	 * 
+	 * @param entity The kind of entity in the file
+	 * @param body   The CSV file, encoded in UTF-8
+	 * @return ResponseEntity with the import result or error message - 200 OK
+	 *         with the imported count and row errors - 500 Internal Server Error
+	 *         with error message if the entity, header or file is invalid
+	 */
+	@PostMapping("/{entity}")
+	public ResponseEntity<?> importCsv(@PathVariable String entity, InputStream body) {
+		try {
+			return ResponseEntity.ok(csvImportService.importCsv(entity, body));
+		} catch (IllegalArgumentException | IOException e) {
+			// Handles cases like an unknown entity or column, or an unclosed quote
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+}
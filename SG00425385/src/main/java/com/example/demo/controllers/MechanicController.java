@@ -6,14 +6,23 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.example.demo.dto.DeleteMechanicsRequest;
+import com.example.demo.dto.ReassignResultDTO;
+import com.example.demo.dto.VehicleMechanicRequest;
 import com.example.demo.services.MechanicService;
 
 /**
  * REST controller that handles HTTP requests related to mechanics. Provides API
  * endpoints for managing mechanics in the database.
+ * 
+ * Request and response bodies are JSON by default, or CBOR or Smile as for
+ * {@link VehicleController}.
  */
 @RestController
 @RequestMapping("/api/mechanic")
@@ -41,13 +50,72 @@ public class MechanicController {
 			mechanicService.deleteMechanic(mid);
 
 			// Return success response if deletion was successful
-			return ResponseEntity.ok("Mechanic " + mid + " successfully deleted");
+			return VehicleController.plainText(HttpStatus.OK).body("Mechanic " + mid + " successfully deleted");
 		} catch (IllegalArgumentException e) {
 			// Return error response with appropriate message if deletion failed
 			// This handles cases like:
 			// - Mechanic with specified ID doesn't exist
 			// - Mechanic is currently servicing vehicles
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles POST requests to remove several mechanics at once. Mechanics that
+	 * service vehicles or don't exist are reported instead of failing the whole
+	 * request. Endpoint: POST /api/mechanic/bulk-delete
+	 * 
+	 * Required attribute: mids (the identifiers of the mechanics to delete)
+	 * 
+	 * @param request The mids bound from the request body
+	 * @return ResponseEntity with the deleted, blocked and missing mids or error
+	 *         details - 200 OK with the deletion result - 500 Internal Server
+	 *         Error if the request is invalid
+	 */
+	@PostMapping("/bulk-delete")
+	public ResponseEntity<?> deleteMechanics(@RequestBody DeleteMechanicsRequest request) {
+		try {
+			// Check for required attributes
+			String violation = request.violation();
+			if (violation != null) {
+				return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(violation);
+			}
+
+			return ResponseEntity.ok(mechanicService.deleteMechanics(request.getMids()));
+		} catch (IllegalArgumentException e) {
+			// Handles cases like an empty or oversized list
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Handles PUT requests to move all vehicles of a mechanic to another mechanic.
+	 * Endpoint: PUT /api/mechanic/{mid}/vehicles
+	 * 
+	 * Required attribute: mid (the mechanic ID to assign the vehicles to)
+	 * 
+	 * @param mid     The unique identifier of the mechanic whose vehicles are
+	 *                moved
+	 * @param request The target mid bound from the request body
+	 * @return ResponseEntity with the number of moved vehicles or error details -
+	 *         200 OK with the reassignment result - 500 Internal Server Error if
+	 *         the reassignment fails with error message
+	 */
+	@PutMapping("/{mid}/vehicles")
+	public ResponseEntity<?> reassignVehicles(@PathVariable String mid, @RequestBody VehicleMechanicRequest request) {
+		try {
+			// Check for required attribute; other attributes are ignored
+			String toMid = request.getMid();
+			if (toMid == null) {
+				return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR)
+						.body("mid must be present in the request");
+			}
+
+			int updated = mechanicService.reassignAllVehicles(mid, toMid);
+			return ResponseEntity.ok(new ReassignResultDTO(toMid, updated));
+		} catch (IllegalArgumentException e) {
+			// Handles cases like either mechanic not existing
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
 		}
 	}
 }
@@ -0,0 +1,120 @@
+package com.example.demo.controllers;
+
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.services.DataVersionService;
+import com.example.demo.services.ReactiveVehicleService;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST controller for the reactive read API of vehicles, for high-concurrency
+ * callers such as the gateway. It returns the same DTOs as the matching GET
+ * endpoints of {@link VehicleController}, read over R2DBC, so no request
+ * thread is held while the database works: the request is suspended and
+ * resumed when the data arrives.
+ *
+ * Listings are written as a JSON array once complete. Clients of large
+ * listings should ask for application/x-ndjson (or text/event-stream), which
+ * writes each vehicle as it arrives and requests the next one from the
+ * database only once it has been written, so memory use doesn't depend on the
+ * size of the listing and a slow client slows down the query.
+ */
+@RestController
+@RequestMapping("/api/reactive/vehicle")
+@CrossOrigin(origins = "*")
+public class ReactiveVehicleController {
+
+	/**
+	 * Service that reads vehicles without blocking.
+	 */
+	@Autowired
+	private ReactiveVehicleService reactiveVehicleService;
+
+	/**
+	 * Version of the vehicle data, used as the ETag of the listings.
+	 */
+	@Autowired
+	private DataVersionService dataVersionService;
+
+	/**
+	 * Retrieves all vehicles. Endpoint: GET /api/reactive/vehicle/all
+	 *
+	 * Answers If-None-Match with 304 Not Modified like GET /api/vehicle/all.
+	 *
+	 * @param request The request, checked for If-None-Match
+	 * @return ResponseEntity with all vehicles as DTOs with nested owner, mechanic
+	 *         and garage data - 304 Not Modified if the client's copy is current
+	 */
+	@GetMapping("/all")
+	public ResponseEntity<Flux<VehicleDTO>> getAllVehicles(WebRequest request) {
+		String version = dataVersionService.getVersion();
+		if (request.checkNotModified(VehicleController.weakETag(version))) {
+			return versioned(HttpStatus.NOT_MODIFIED, version).build();
+		}
+		return versioned(HttpStatus.OK, version).body(reactiveVehicleService.getAllVehiclesDTO());
+	}
+
+	/**
+	 * Retrieves vehicles filtered by make. Endpoint: GET
+	 * /api/reactive/vehicle?make=make
+	 *
+	 * Answers If-None-Match with 304 Not Modified like GET /api/vehicle/all.
+	 *
+	 * @param make    The vehicle make to filter by
+	 * @param request The request, checked for If-None-Match
+	 * @return ResponseEntity with the vehicles of the make as DTOs - 304 Not
+	 *         Modified if the client's copy is current
+	 */
+	@GetMapping
+	public ResponseEntity<Flux<VehicleDTO>> getVehiclesByMake(@RequestParam String make, WebRequest request) {
+		String version = dataVersionService.getVersion();
+		if (request.checkNotModified(VehicleController.weakETag(version))) {
+			return versioned(HttpStatus.NOT_MODIFIED, version).build();
+		}
+		return versioned(HttpStatus.OK, version).body(reactiveVehicleService.getVehiclesDTOByMake(make));
+	}
+
+	/**
+	 * Retrieves a single vehicle. Endpoint: GET /api/reactive/vehicle/{reg}
+	 *
+	 * Like GET /api/vehicle/{reg}, the response carries the vehicle's version,
+	 * also as its weak ETag, and errors are sent as plain text.
+	 *
+	 * @param reg The registration number of the vehicle
+	 * @return ResponseEntity with the vehicle or error message - 200 OK with the
+	 *         vehicle data - 500 Internal Server Error if the vehicle doesn't exist
+	 */
+	@GetMapping("/{reg}")
+	public Mono<ResponseEntity<?>> getVehicle(@PathVariable String reg) {
+		return reactiveVehicleService.getVehicleDTO(reg)
+				.<ResponseEntity<?>>map(vehicle -> ResponseEntity.ok()
+						.eTag(VehicleController.weakETag(vehicle.getVersion())).varyBy(HttpHeaders.ACCEPT)
+						.body(vehicle))
+				.onErrorResume(IllegalArgumentException.class,
+						e -> Mono.just(VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR)
+								.body(e.getMessage())));
+	}
+
+	/**
+	 * Starts a response tagged with a data version, as in
+	 * {@link VehicleController}.
+	 */
+	private ResponseEntity.BodyBuilder versioned(HttpStatus status, String version) {
+		return ResponseEntity.status(status).eTag(VehicleController.weakETag(version))
+				.cacheControl(CacheControl.noCache()).varyBy(HttpHeaders.ACCEPT);
+	}
+}
@@ -0,0 +1,51 @@
+package com.example.demo.controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.demo.services.SearchService;
+import com.example.demo.services.VehicleService;
+
+/**
+ * REST controller for the front desk search over vehicles, customers and
+ * mechanics.
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+	/**
+	 * Service that owns the in-memory search index.
+	 */
+	@Autowired
+	private SearchService searchService;
+
+	/**
+	 * Searches vehicles by partial reg, make or model, customers by partial cid,
+	 * name or phone and mechanics by partial mid or name. Endpoint: GET
+	 * /api/search?q=992&page=0&size=20
+	 * 
+	 * @param q    The search text; every word must match
+	 * @param page Optional zero-based page number
+	 * @param size Optional page size, capped at {@link VehicleService#MAX_PAGE_SIZE}
+	 * @return ResponseEntity with one page of results ranked by relevance - 500
+	 *         Internal Server Error with error message if the query is empty or
+	 *         the paging parameters are invalid
+	 */
+	@GetMapping
+	public ResponseEntity<?> search(@RequestParam(required = false) String q,
+			@RequestParam(required = false) Integer page, @RequestParam(required = false) Integer size) {
+		try {
+			return ResponseEntity.ok(searchService.search(q, page, size));
+		} catch (IllegalArgumentException e) {
+			return VehicleController.plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+}
@@ -1,12 +1,23 @@
 package com.example.demo.controllers;
 
+import com.example.demo.dto.BulkCreateResultDTO;
+import com.example.demo.dto.CreateVehicleRequest;
+import com.example.demo.dto.ReassignResultDTO;
+import com.example.demo.dto.ReassignVehiclesRequest;
 import com.example.demo.dto.VehicleDTO;
+import com.example.demo.dto.VehicleMechanicRequest;
 import com.example.demo.models.Vehicle;
+import com.example.demo.services.DataVersionService;
+import com.example.demo.services.VehicleExportService;
 import com.example.demo.services.VehicleService;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.demo.services.VersionConflictException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -14,16 +25,24 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 /**
  * REST controller that handles HTTP requests related to vehicles. Provides API
  * endpoints.
+ * 
+ * Request and response bodies are JSON by default, or CBOR (application/cbor)
+ * or Smile (application/x-jackson-smile) when the Content-Type and Accept
+ * headers ask for them.
  */
 @RestController
 @RequestMapping("/api/vehicle")
@@ -36,16 +55,106 @@ public class VehicleController {
 	@Autowired
 	private VehicleService vehicleService;
 
+	/**
+	 * Version of the vehicle data, used as the ETag of the listings.
+	 */
+	@Autowired
+	private DataVersionService dataVersionService;
+
+	/**
+	 * Service that writes the compressed CSV exports.
+	 */
+	@Autowired
+	private VehicleExportService vehicleExportService;
+
 	/**
 	 * Retrieves all vehicles from the database and returns them as DTOs. Endpoint:
 	 * GET /api/vehicle/all
 	 * 
-	 * @return List of all vehicles as DTOs with nested owner, mechanic and garage
-	 *         data
+	 * Passing a size or cursor switches the endpoint to cursor mode: GET
+	 * /api/vehicle/all?size=50&sort=reg returns the first page and its
+	 * nextCursor, GET /api/vehicle/all?cursor=... returns the following page.
+	 * 
+	 * The response carries an ETag of the current data version. A request whose
+	 * If-None-Match matches it gets 304 Not Modified without reading the database.
+	 * 
+	 * @param cursor  Optional cursor returned with the previous page
+	 * @param size    Optional page size, capped at {@link VehicleService#MAX_PAGE_SIZE}
+	 * @param sort    Optional column to page by ("id" or "reg"), defaults to id
+	 * @param request The request, checked for If-None-Match
+	 * @return ResponseEntity with the list of all vehicles as DTOs with nested
+	 *         owner, mechanic and garage data, or one page of them in cursor mode
+	 *         - 304 Not Modified if the client's copy is current - 500 Internal
+	 *         Server Error with error message if the cursor or page parameters are
+	 *         invalid
 	 */
 	@GetMapping("/all")
-	public List<VehicleDTO> getAllVehicles() {
-		return vehicleService.getAllVehiclesDTO();
+	public ResponseEntity<?> getAllVehicles(@RequestParam(required = false) String cursor,
+			@RequestParam(required = false) Integer size, @RequestParam(required = false) String sort,
+			WebRequest request) {
+		String version = dataVersionService.getVersion();
+		if (request.checkNotModified(weakETag(version))) {
+			return versioned(HttpStatus.NOT_MODIFIED, version).build();
+		}
+		try {
+			if (cursor == null && size == null) {
+				return versioned(HttpStatus.OK, version).body(vehicleService.getAllVehiclesDTO());
+			}
+			return versioned(HttpStatus.OK, version).body(vehicleService.getVehiclesPageDTO(null, sort, cursor, size));
+		} catch (IllegalArgumentException e) {
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Streams all vehicles as newline-delimited JSON, one vehicle DTO per line.
+	 * Endpoint: GET /api/vehicle/export
+	 * 
+	 * Vehicles are written as they are read from the database, so the first line
+	 * arrives straight away and memory use doesn't depend on the number of
+	 * vehicles. Intended for bulk consumers such as nightly syncs.
+	 * 
+	 * @return ResponseEntity streaming the vehicles as application/x-ndjson
+	 */
+	@GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> exportVehicles() {
+		StreamingResponseBody body = out -> vehicleService.exportVehicles(out);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+	}
+
+	/**
+	 * Streams all vehicles with their owner, mechanic and garage as
+	 * gzip-compressed CSV. Endpoint: GET /api/vehicle/export/csv
+	 * 
+	 * Ranges of vehicles are read and compressed in parallel and written in id
+	 * order, so throughput grows with the number of workers while memory use stays
+	 * bounded. Intended for reporting pipelines; decompress with gunzip.
+	 * 
+	 * @return ResponseEntity streaming the file as application/gzip
+	 */
+	@GetMapping(value = "/export/csv", produces = "application/gzip")
+	public ResponseEntity<StreamingResponseBody> exportVehiclesCsv() {
+		StreamingResponseBody body = out -> vehicleExportService.exportCsv(out);
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/gzip"))
+				.header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"vehicles.csv.gz\"").body(body);
+	}
+
+	/**
+	 * Writes the same export as GET /api/vehicle/export/csv to a new file in the
+	 * server's export directory (app.export.dir). Endpoint: POST
+	 * /api/vehicle/export/csv/file
+	 * 
+	 * @return ResponseEntity with the file written or error message - 200 OK with
+	 *         the path, vehicle count and size - 500 Internal Server Error with
+	 *         error message if the file can't be written
+	 */
+	@PostMapping("/export/csv/file")
+	public ResponseEntity<?> exportVehiclesCsvToFile() {
+		try {
+			return ResponseEntity.ok(vehicleExportService.exportCsvToFile());
+		} catch (IOException e) {
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
 	}
 
 	/**
@@ -62,12 +171,96 @@ public class VehicleController {
 	/**
 	 * Retrieves vehicles filtered by make. Endpoint: GET /api/vehicle?make=make
 	 * 
-	 * @param make The vehicle make to filter by
-	 * @return List of vehicles matching the specified make as DTOs
+	 * Supports the same cursor mode as GET /api/vehicle/all via the size, cursor
+	 * and sort parameters.
+	 * 
+	 * Answers If-None-Match with 304 Not Modified like GET /api/vehicle/all.
+	 * 
+	 * @param make    The vehicle make to filter by
+	 * @param cursor  Optional cursor returned with the previous page
+	 * @param size    Optional page size, capped at {@link VehicleService#MAX_PAGE_SIZE}
+	 * @param sort    Optional column to page by ("id" or "reg"), defaults to id
+	 * @param request The request, checked for If-None-Match
+	 * @return ResponseEntity with the list of vehicles matching the specified make
+	 *         as DTOs, or one page of them in cursor mode - 304 Not Modified if the
+	 *         client's copy is current - 500 Internal Server Error with error
+	 *         message if the cursor or page parameters are invalid
 	 */
 	@GetMapping
-	public List<VehicleDTO> getVehiclesByMake(@RequestParam String make) {
-		return vehicleService.getVehiclesDTOByMake(make);
+	public ResponseEntity<?> getVehiclesByMake(@RequestParam String make,
+			@RequestParam(required = false) String cursor, @RequestParam(required = false) Integer size,
+			@RequestParam(required = false) String sort, WebRequest request) {
+		String version = dataVersionService.getVersion();
+		if (request.checkNotModified(weakETag(version))) {
+			return versioned(HttpStatus.NOT_MODIFIED, version).build();
+		}
+		try {
+			if (cursor == null && size == null) {
+				return versioned(HttpStatus.OK, version).body(vehicleService.getVehiclesDTOByMake(make));
+			}
+			return versioned(HttpStatus.OK, version).body(vehicleService.getVehiclesPageDTO(make, sort, cursor, size));
+		} catch (IllegalArgumentException e) {
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Searches vehicles by make and/or model, ignoring case. Endpoint: GET
+	 * /api/vehicle/search?make=toy&model=cor&match=prefix&limit=20
+	 * 
+	 * Results are ordered by make, model and registration (model first when
+	 * searching by model only) and carry the same data version ETag as the
+	 * listings.
+	 * 
+	 * @param make    Optional make to search for
+	 * @param model   Optional model to search for
+	 * @param match   "exact" (default) to match whole values, "prefix" to match
+	 *                values starting with the terms
+	 * @param limit   Optional maximum number of results, capped at
+	 *                {@link VehicleService#MAX_PAGE_SIZE}
+	 * @param request The request, checked for If-None-Match
+	 * @return ResponseEntity with the matching vehicles as DTOs - 304 Not Modified
+	 *         if the client's copy is current - 500 Internal Server Error with
+	 *         error message if neither make nor model is given or a parameter is
+	 *         invalid
+	 */
+	@GetMapping("/search")
+	public ResponseEntity<?> searchVehicles(@RequestParam(required = false) String make,
+			@RequestParam(required = false) String model, @RequestParam(defaultValue = "exact") String match,
+			@RequestParam(required = false) Integer limit, WebRequest request) {
+		String version = dataVersionService.getVersion();
+		if (request.checkNotModified(weakETag(version))) {
+			return versioned(HttpStatus.NOT_MODIFIED, version).build();
+		}
+		try {
+			if (!match.equals("exact") && !match.equals("prefix")) {
+				throw new IllegalArgumentException("match must be exact or prefix");
+			}
+			return versioned(HttpStatus.OK, version)
+					.body(vehicleService.searchVehiclesDTO(make, model, match.equals("prefix"), limit));
+		} catch (IllegalArgumentException e) {
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Retrieves a single vehicle. Endpoint: GET /api/vehicle/{reg}
+	 * 
+	 * The response carries the vehicle's version, also as its weak ETag, which can
+	 * be sent back in If-Match to update the vehicle only if it hasn't changed.
+	 * 
+	 * @param reg The registration number of the vehicle
+	 * @return ResponseEntity with the vehicle or error message - 200 OK with the
+	 *         vehicle data - 500 Internal Server Error if the vehicle doesn't exist
+	 */
+	@GetMapping("/{reg}")
+	public ResponseEntity<?> getVehicle(@PathVariable String reg) {
+		try {
+			VehicleDTO vehicle = vehicleService.getVehicleDTO(reg);
+			return ResponseEntity.ok().eTag(weakETag(vehicle.getVersion())).varyBy(HttpHeaders.ACCEPT).body(vehicle);
+		} catch (IllegalArgumentException e) {
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
 	}
 
 	/**
@@ -76,28 +269,68 @@ public class VehicleController {
 	 * Required attributes: reg, make, model Not allowed attributes: id, owner,
 	 * mechanic
 	 * 
-	 * @param vehicleMap Map representing the vehicle data from the request body
+	 * @param request The vehicle data bound from the request body
 	 * @return ResponseEntity with the created vehicle or error message - 200 OK
 	 *         with vehicle data if creation is successful - 500 Internal Server
 	 *         Error with error message if creation fails
 	 */
 	@PostMapping
-	public ResponseEntity<?> createVehicle(@RequestBody Map<String, Object> vehicleMap) {
+	public ResponseEntity<?> createVehicle(@RequestBody CreateVehicleRequest request) {
 		try {
-			// Check for forbidden attributes in the raw JSON
-			if (vehicleMap.containsKey("id")) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-						.body("id should not be provided in the request");
+			// Check for forbidden attributes in the request
+			String violation = request.violation();
+			if (violation != null) {
+				return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(violation);
 			}
 
-			// Convert to DTO and process
-			ObjectMapper mapper = new ObjectMapper();
-			VehicleDTO vehicleDTO = mapper.convertValue(vehicleMap, VehicleDTO.class);
-
-			Vehicle vehicle = vehicleService.createVehicle(vehicleDTO);
+			Vehicle vehicle = vehicleService.createVehicle(request.toDTO());
 			return ResponseEntity.ok(vehicleService.convertToDTO(vehicle));
 		} catch (IllegalArgumentException e) {
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Creates many vehicles in one request. Endpoint: POST /api/vehicle/bulk
+	 * 
+	 * The request body is an array of vehicles with the same required and not
+	 * allowed attributes as POST /api/vehicle. Valid vehicles are created even if
+	 * other items are rejected; the response lists the rejected items with their
+	 * position in the array and the error message.
+	 * 
+	 * @param requests The vehicles bound from the request body
+	 * @return ResponseEntity with the bulk result or error message - 200 OK with
+	 *         the created count and item errors - 500 Internal Server Error with
+	 *         error message if the request as a whole is rejected
+	 */
+	@PostMapping("/bulk")
+	public ResponseEntity<?> createVehicles(@RequestBody List<CreateVehicleRequest> requests) {
+		try {
+			BulkCreateResultDTO result = new BulkCreateResultDTO(requests.size());
+			List<VehicleDTO> vehicleDTOs = new ArrayList<>(requests.size());
+
+			for (int i = 0; i < requests.size(); i++) {
+				CreateVehicleRequest request = requests.get(i);
+				if (request == null) {
+					// A null item in the array
+					result.addError(i, null, "Vehicle must be provided");
+					vehicleDTOs.add(null);
+					continue;
+				}
+
+				// Check for forbidden attributes in the request
+				String violation = request.violation();
+				if (violation != null) {
+					result.addError(i, request.getReg(), violation);
+					vehicleDTOs.add(null);
+				} else {
+					vehicleDTOs.add(request.toDTO());
+				}
+			}
+
+			return ResponseEntity.ok(vehicleService.createVehicles(vehicleDTOs, result));
+		} catch (IllegalArgumentException e) {
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
 		}
 	}
 
@@ -108,52 +341,137 @@ public class VehicleController {
 	 * Required attribute: mid (mechanic ID) Not allowed attributes: id, name,
 	 * salary, garage, vehicles
 	 * 
-	 * @param reg         The registration number of the vehicle to update
-	 * @param requestBody Map containing update data from the request body
+	 * With an If-Match header holding the version from GET /api/vehicle/{reg},
+	 * the update is only made if the vehicle is still at that version. Without
+	 * it, updates that collide with a concurrent one are retried.
+	 * 
+	 * @param reg     The registration number of the vehicle to update
+	 * @param ifMatch Optional version the vehicle must still be at
+	 * @param request The update data bound from the request body
 	 * @return ResponseEntity with updated vehicle or error message - 200 OK with
-	 *         updated vehicle data if update is successful - 500 Internal Server
-	 *         Error with error message if update fails
+	 *         updated vehicle data and its new version as ETag if update is
+	 *         successful - 409 Conflict if the vehicle changed since the version
+	 *         in If-Match, or kept changing under every retry - 500 Internal
+	 *         Server Error with error message if update fails
 	 */
 	@PutMapping("/{reg}")
 	public ResponseEntity<?> updateVehicleMechanic(@PathVariable String reg,
-			@RequestBody Map<String, Object> requestBody) {
+			@RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+			@RequestBody VehicleMechanicRequest request) {
 		try {
-			// Check for required attribute
-			if (!requestBody.containsKey("mid")) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-						.body("mid must be present in the request");
-			}
-			// Check for not allowed attributes
-			if (requestBody.containsKey("id")) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-						.body("id attribute should not be provided in the request");
-			}
-			if (requestBody.containsKey("name")) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-						.body("name attribute should not be provided in the request");
-			}
-			if (requestBody.containsKey("salary")) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-						.body("salary attribute should not be provided in the request");
-			}
-			if (requestBody.containsKey("garage")) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-						.body("garage attribute should not be provided in the request");
-			}
-			if (requestBody.containsKey("vehicles")) {
-				return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-						.body("vehicles attribute should not be provided in the request");
+			// Check for required and not allowed attributes
+			String violation = request.violation();
+			if (violation != null) {
+				return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(violation);
 			}
 
-			// Get the mid value
-			String mid = requestBody.get("mid").toString();
-
 			// Update the vehicle
-			Vehicle updatedVehicle = vehicleService.updateVehicleMechanic(reg, mid);
-			return ResponseEntity.ok(vehicleService.convertToDTO(updatedVehicle));
+			Vehicle updatedVehicle = vehicleService.updateVehicleMechanic(reg, request.getMid(),
+					parseVersion(ifMatch));
+			return ResponseEntity.ok().eTag(weakETag(updatedVehicle.getVersion()))
+					.body(vehicleService.convertToDTO(updatedVehicle));
+		} catch (VersionConflictException | ConcurrencyFailureException e) {
+			// Another request changed the vehicle first
+			return plainText(HttpStatus.CONFLICT).body(e.getMessage());
 		} catch (IllegalArgumentException e) {
 			// Handle errors for vehicle not found or mechanic not found
-			return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
 		}
 	}
+
+	/**
+	 * Assigns a mechanic to many vehicles in one request. Endpoint: PUT
+	 * /api/vehicle/mechanic
+	 * 
+	 * Required attributes: regs (list of registration numbers), mid (mechanic ID)
+	 * 
+	 * All vehicles are updated with a single statement; nothing is changed if any
+	 * vehicle or the mechanic doesn't exist.
+	 * 
+	 * @param request The regs and mid bound from the request body
+	 * @return ResponseEntity with the number of updated vehicles or error message -
+	 *         200 OK with the reassignment result - 500 Internal Server Error with
+	 *         error message if the reassignment fails
+	 */
+	@PutMapping("/mechanic")
+	public ResponseEntity<?> reassignVehicles(@RequestBody ReassignVehiclesRequest request) {
+		try {
+			// Check for required attributes
+			String violation = request.violation();
+			if (violation != null) {
+				return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(violation);
+			}
+
+			int updated = vehicleService.reassignVehicles(request.getRegs(), request.getMid());
+			return ResponseEntity.ok(new ReassignResultDTO(request.getMid(), updated));
+		} catch (IllegalArgumentException e) {
+			return plainText(HttpStatus.INTERNAL_SERVER_ERROR).body(e.getMessage());
+		}
+	}
+
+	/**
+	 * Reads the vehicle version from an If-Match header.
+	 * 
+	 * @param ifMatch The header value, such as W/"3" or "3", or null
+	 * @return The version, or null if there is no header or it matches any version
+	 * @throws IllegalArgumentException if the header doesn't hold a version
+	 */
+	private Long parseVersion(String ifMatch) {
+		if (ifMatch == null || ifMatch.trim().equals("*")) {
+			return null;
+		}
+		String tag = ifMatch.trim();
+		if (tag.startsWith("W/")) {
+			tag = tag.substring(2);
+		}
+		if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+			tag = tag.substring(1, tag.length() - 1);
+		}
+		try {
+			return Long.valueOf(tag);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("If-Match must hold a single vehicle version");
+		}
+	}
+
+	/**
+	 * Starts a response tagged with a data version. no-cache lets clients keep the
+	 * response but makes them revalidate it on every use. The body is JSON, CBOR
+	 * or Smile depending on the Accept header, so caches must keep a copy per
+	 * Accept value; a cached copy in any of the formats is current exactly when
+	 * the data hasn't changed, so all of them share the weak ETag of the version.
+	 * 
+	 * @param status  200 OK, or 304 Not Modified if the client's copy is current
+	 * @param version The data version read before the data
+	 * @return The response builder with ETag, Cache-Control and Vary set
+	 */
+	private ResponseEntity.BodyBuilder versioned(HttpStatus status, String version) {
+		return ResponseEntity.status(status).eTag(weakETag(version)).cacheControl(CacheControl.noCache())
+				.varyBy(HttpHeaders.ACCEPT);
+	}
+
+	/**
+	 * Starts a response with a message body, such as an error. The message is
+	 * sent as plain text whatever the Accept header, since the CBOR and Smile
+	 * converters only encode the DTOs. Used by every controller.
+	 * 
+	 * @param status The response status
+	 * @return The response builder with Content-Type set
+	 */
+	static ResponseEntity.BodyBuilder plainText(HttpStatus status) {
+		return ResponseEntity.status(status).contentType(MediaType.TEXT_PLAIN);
+	}
+
+	/**
+	 * Makes the ETag of a data or vehicle version. The tag is weak because the
+	 * JSON, CBOR and Smile bodies of one version are equivalent but not the same
+	 * bytes, which a strong tag would promise. Weak tags still match in
+	 * If-None-Match, and {@link #parseVersion} accepts them in If-Match.
+	 * 
+	 * @param version The version
+	 * @return The weak ETag, such as W/"3"
+	 */
+	static String weakETag(Object version) {
+		return "W/\"" + version + "\"";
+	}
 }
@@ -0,0 +1,157 @@
+package com.example.demo.csv;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader of comma-separated values as described in RFC 4180. Records
+ * are read one at a time through a fixed-size buffer, so the whole input is
+ * never held in memory.
+ *
+ * Fields may be quoted; quoted fields may contain commas, line breaks and
+ * doubled quotes. Lines may end with CRLF, LF or CR. Blank lines and a leading
+ * byte order mark are skipped. Not thread-safe.
+ */
+public class CsvReader implements Closeable {
+
+	private static final int EOF = -1;
+
+	private final Reader in;
+	private final char[] buffer = new char[8192];
+	private int position;
+	private int length;
+
+	/**
+	 * Line of the next character, counting from 1.
+	 */
+	private int line = 1;
+
+	/**
+	 * Line on which the last record returned started.
+	 */
+	private int recordLine;
+
+	private final StringBuilder field = new StringBuilder();
+
+	/**
+	 * Creates a reader of the given character stream.
+	 *
+	 * @param in The characters to read, closed with this reader
+	 */
+	public CsvReader(Reader in) {
+		this.in = in;
+	}
+
+	/**
+	 * Reads the next record.
+	 *
+	 * @return The fields of the record, or null at the end of the input
+	 * @throws IOException              if the input can't be read
+	 * @throws IllegalArgumentException if a quoted field isn't closed
+	 */
+	public List<String> readRecord() throws IOException {
+		int c = read();
+		if (line == 1 && c == '﻿') {
+			c = read();
+		}
+		// Skip blank lines
+		while (c == '\r' || c == '\n') {
+			skipLineBreak(c);
+			c = read();
+		}
+		if (c == EOF) {
+			return null;
+		}
+
+		recordLine = line;
+		List<String> fields = new ArrayList<>();
+		while (true) {
+			field.setLength(0);
+			if (c == '"') {
+				int start = line;
+				while (true) {
+					c = read();
+					if (c == EOF) {
+						throw new IllegalArgumentException("Quoted field starting on line " + start + " isn't closed");
+					}
+					if (c == '"') {
+						c = read();
+						if (c != '"') {
+							break;
+						}
+					} else if (c == '\n' || (c == '\r' && peek() != '\n')) {
+						line++;
+					}
+					field.append((char) c);
+				}
+			}
+			// Unquoted field, or characters after a closing quote
+			while (c != ',' && c != '\r' && c != '\n' && c != EOF) {
+				field.append((char) c);
+				c = read();
+			}
+			fields.add(field.toString());
+
+			if (c == ',') {
+				c = read();
+				continue;
+			}
+			if (c != EOF) {
+				skipLineBreak(c);
+			}
+			return fields;
+		}
+	}
+
+	/**
+	 * Gets the line on which the last record returned by {@link #readRecord()}
+	 * started, for error messages.
+	 *
+	 * @return The line number, counting from 1
+	 */
+	public int getRecordLine() {
+		return recordLine;
+	}
+
+	@Override
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Consumes the rest of a line break that started with c.
+	 */
+	private void skipLineBreak(int c) throws IOException {
+		if (c == '\r' && peek() == '\n') {
+			read();
+		}
+		line++;
+	}
+
+	private int read() throws IOException {
+		if (position == length && !fill()) {
+			return EOF;
+		}
+		return buffer[position++];
+	}
+
+	private int peek() throws IOException {
+		if (position == length && !fill()) {
+			return EOF;
+		}
+		return buffer[position];
+	}
+
+	private boolean fill() throws IOException {
+		int n = in.read(buffer, 0, buffer.length);
+		if (n <= 0) {
+			return false;
+		}
+		position = 0;
+		length = n;
+		return true;
+	}
+}
@@ -0,0 +1,90 @@
+package com.example.demo.csv;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of comma-separated values as described in RFC 4180, readable by
+ * {@link CsvReader}. Values are quoted only when they contain a comma, quote or
+ * line break, or start or end with a space; records end with CRLF. Not
+ * thread-safe.
+ */
+public class CsvWriter implements Closeable, Flushable {
+
+	private final Writer out;
+
+	/**
+	 * Creates a writer to the given character stream.
+	 *
+	 * @param out Where to write, buffered by the caller if needed and closed with
+	 *            this writer
+	 */
+	public CsvWriter(Writer out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes one record.
+	 *
+	 * @param values The values of the fields, written with toString; nulls are
+	 *               written as empty fields
+	 * @throws IOException if the stream can't be written
+	 */
+	public void writeRecord(Object... values) throws IOException {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				out.write(',');
+			}
+			if (values[i] != null) {
+				writeField(values[i].toString());
+			}
+		}
+		out.write("\r\n");
+	}
+
+	@Override
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		out.close();
+	}
+
+	private void writeField(String value) throws IOException {
+		if (!needsQuotes(value)) {
+			out.write(value);
+			return;
+		}
+		out.write('"');
+		int start = 0;
+		for (int i = 0; i < value.length(); i++) {
+			if (value.charAt(i) == '"') {
+				out.write(value, start, i + 1 - start);
+				out.write('"');
+				start = i + 1;
+			}
+		}
+		out.write(value, start, value.length() - start);
+		out.write('"');
+	}
+
+	private static boolean needsQuotes(String value) {
+		if (value.isEmpty()) {
+			return false;
+		}
+		if (value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ') {
+			return true;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.demo.dto;
+
+import java.time.Instant;
+
+import com.example.demo.audit.AuditEvent;
+import com.example.demo.audit.AuditEventType;
+
+/**
+ * Data Transfer Object (DTO) for an event of the audit log.
+ */
+public class AuditEventDTO {
+	private Instant time; // When the change was committed
+	private AuditEventType type; // Kind of change
+	private String reg; // Vehicle registration, null if no single vehicle is involved
+	private String mid; // Mechanic involved, null if none
+	private String previousMid; // Mechanic replaced by the change, null if none or unknown
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public AuditEventDTO() {
+	}
+
+	/**
+	 * Creates the DTO of a logged event.
+	 *
+	 * @param event The event read from the audit log
+	 */
+	public AuditEventDTO(AuditEvent event) {
+		this.time = Instant.ofEpochMilli(event.getTime());
+		this.type = event.getType();
+		this.reg = event.getReg();
+		this.mid = event.getMid();
+		this.previousMid = event.getPreviousMid();
+	}
+
+	// Getters and setters
+	public Instant getTime() {
+		return time;
+	}
+
+	public void setTime(Instant time) {
+		this.time = time;
+	}
+
+	public AuditEventType getType() {
+		return type;
+	}
+
+	public void setType(AuditEventType type) {
+		this.type = type;
+	}
+
+	public String getReg() {
+		return reg;
+	}
+
+	public void setReg(String reg) {
+		this.reg = reg;
+	}
+
+	public String getMid() {
+		return mid;
+	}
+
+	public void setMid(String mid) {
+		this.mid = mid;
+	}
+
+	public String getPreviousMid() {
+		return previousMid;
+	}
+
+	public void setPreviousMid(String previousMid) {
+		this.previousMid = previousMid;
+	}
+}
@@ -0,0 +1,111 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) with the outcome of a bulk vehicle creation.
+ * Valid vehicles are created even if other items in the same request are
+ * rejected; each rejected item is reported with its position in the request.
+ */
+public class BulkCreateResultDTO {
+	private int requested; // Number of items in the request
+	private int created; // Number of vehicles created
+	private List<ItemErrorDTO> errors = new ArrayList<>(); // Rejected items
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public BulkCreateResultDTO() {
+	}
+
+	/**
+	 * Creates an empty result for a request with the given number of items.
+	 *
+	 * @param requested The number of items in the request
+	 */
+	public BulkCreateResultDTO(int requested) {
+		this.requested = requested;
+	}
+
+	/**
+	 * Records a rejected item.
+	 *
+	 * @param index   The position of the item in the request
+	 * @param reg     The registration of the item, if any
+	 * @param message The reason the item was rejected
+	 */
+	public void addError(int index, String reg, String message) {
+		ItemErrorDTO error = new ItemErrorDTO();
+		error.setIndex(index);
+		error.setReg(reg);
+		error.setMessage(message);
+		errors.add(error);
+	}
+
+	/**
+	 * Orders the errors by their position in the request.
+	 */
+	public void sortErrors() {
+		errors.sort(Comparator.comparingInt(ItemErrorDTO::getIndex));
+	}
+
+	// Getters and setters
+	public int getRequested() {
+		return requested;
+	}
+
+	public void setRequested(int requested) {
+		this.requested = requested;
+	}
+
+	public int getCreated() {
+		return created;
+	}
+
+	public void setCreated(int created) {
+		this.created = created;
+	}
+
+	public List<ItemErrorDTO> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<ItemErrorDTO> errors) {
+		this.errors = errors;
+	}
+
+	/**
+	 * Nested static class describing why one item of the request was rejected.
+	 */
+	public static class ItemErrorDTO {
+		private int index; // Position of the item in the request
+		private String reg; // Registration of the item, may be null
+		private String message; // Validation error message
+
+		public int getIndex() {
+			return index;
+		}
+
+		public void setIndex(int index) {
+			this.index = index;
+		}
+
+		public String getReg() {
+			return reg;
+		}
+
+		public void setReg(String reg) {
+			this.reg = reg;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public void setMessage(String message) {
+			this.message = message;
+		}
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) with the outcome of a bulk mechanic deletion. Each
+ * requested mechanic ends up in exactly one of the lists, in request order.
+ */
+public class BulkDeleteResultDTO {
+	private List<String> deleted = new ArrayList<>(); // Mechanics deleted
+	private List<String> blocked = new ArrayList<>(); // Mechanics kept because they service vehicles
+	private List<String> missing = new ArrayList<>(); // Mechanics that don't exist
+
+	// Getters and setters
+	public List<String> getDeleted() {
+		return deleted;
+	}
+
+	public void setDeleted(List<String> deleted) {
+		this.deleted = deleted;
+	}
+
+	public List<String> getBlocked() {
+		return blocked;
+	}
+
+	public void setBlocked(List<String> blocked) {
+		this.blocked = blocked;
+	}
+
+	public List<String> getMissing() {
+		return missing;
+	}
+
+	public void setMissing(List<String> missing) {
+		this.missing = missing;
+	}
+}
@@ -0,0 +1,104 @@
+package com.example.demo.dto;
+
+/**
+ * Data Transfer Object (DTO) with the counters of an in-process lookup cache
+ * or a second-level cache region.
+ * Evictions are entries dropped because of the size or TTL bound, invalidations
+ * are entries removed because the underlying data changed.
+ */
+public class CacheStatsDTO {
+	private String name; // Cache name
+	private int size; // Current number of entries, -1 if not known
+	private int maxSize; // Maximum number of entries
+	private long hits; // Lookups answered from the cache
+	private long misses; // Lookups that went to the database
+	private long evictions; // Entries dropped by the size or TTL bound
+	private long invalidations; // Entries removed after writes
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public CacheStatsDTO() {
+	}
+
+	/**
+	 * Creates a statistics snapshot.
+	 */
+	public CacheStatsDTO(String name, int size, int maxSize, long hits, long misses, long evictions,
+			long invalidations) {
+		this.name = name;
+		this.size = size;
+		this.maxSize = maxSize;
+		this.hits = hits;
+		this.misses = misses;
+		this.evictions = evictions;
+		this.invalidations = invalidations;
+	}
+
+	/**
+	 * Gets the share of lookups answered from the cache.
+	 *
+	 * @return The hit ratio between 0 and 1, or 0 if there were no lookups
+	 */
+	public double getHitRatio() {
+		long lookups = hits + misses;
+		return lookups == 0 ? 0 : (double) hits / lookups;
+	}
+
+	// Getters and setters
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public void setMaxSize(int maxSize) {
+		this.maxSize = maxSize;
+	}
+
+	public long getHits() {
+		return hits;
+	}
+
+	public void setHits(long hits) {
+		this.hits = hits;
+	}
+
+	public long getMisses() {
+		return misses;
+	}
+
+	public void setMisses(long misses) {
+		this.misses = misses;
+	}
+
+	public long getEvictions() {
+		return evictions;
+	}
+
+	public void setEvictions(long evictions) {
+		this.evictions = evictions;
+	}
+
+	public long getInvalidations() {
+		return invalidations;
+	}
+
+	public void setInvalidations(long invalidations) {
+		this.invalidations = invalidations;
+	}
+}
@@ -0,0 +1,116 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Typed request body of POST /api/vehicle and of each item of POST
+ * /api/vehicle/bulk. The body is deserialized straight into this object; the
+ * not allowed attributes are only recorded as present, so their values are
+ * never bound, and any other unknown attribute is rejected like the strict
+ * mapping to VehicleDTO used to do.
+ */
+public class CreateVehicleRequest {
+
+	private static final int ID = 1;
+	private static final int UNKNOWN = 1 << 1;
+	private static final int OWNER = 1 << 2;
+	private static final int MECHANIC = 1 << 3;
+
+	/**
+	 * Not allowed attributes, in the order they are reported. Owner and mechanic
+	 * are only rejected when they are not null.
+	 */
+	private static final FieldRules RULES = FieldRules.builder()
+			.forbidden(ID, "id should not be provided in the request")
+			.forbidden(UNKNOWN, "Unrecognized field")
+			.forbidden(OWNER, "Owner should not be provided in the request")
+			.forbidden(MECHANIC, "Mechanic should not be provided in the request")
+			.build();
+
+	private String reg; // Vehicle registration number
+	private String make; // Vehicle manufacturer
+	private String model; // Vehicle model
+	private int present; // Bit set of the not allowed attributes present in the body
+	private String unknownField; // First unknown attribute in the body
+
+	/**
+	 * Checks the not allowed attributes. Required attributes are validated by the
+	 * service.
+	 *
+	 * @return The error message of the first violation, or null if the request is
+	 *         valid
+	 */
+	public String violation() {
+		if (RULES.firstBrokenField(present) == UNKNOWN) {
+			return "Unrecognized field \"" + unknownField + "\" (class " + VehicleDTO.class.getName()
+					+ "), not marked as ignorable";
+		}
+		return RULES.check(present);
+	}
+
+	/**
+	 * Converts the request to the DTO accepted by the vehicle service.
+	 *
+	 * @return A VehicleDTO with the reg, make and model of the request
+	 */
+	public VehicleDTO toDTO() {
+		VehicleDTO dto = new VehicleDTO();
+		dto.setReg(reg);
+		dto.setMake(make);
+		dto.setModel(model);
+		return dto;
+	}
+
+	@JsonProperty("id")
+	void setId(Object id) {
+		present |= ID;
+	}
+
+	@JsonProperty("owner")
+	void setOwner(Object owner) {
+		if (owner != null) {
+			present |= OWNER;
+		}
+	}
+
+	@JsonProperty("mechanic")
+	void setMechanic(Object mechanic) {
+		if (mechanic != null) {
+			present |= MECHANIC;
+		}
+	}
+
+	@JsonAnySetter
+	void setUnknown(String name, Object value) {
+		if (unknownField == null) {
+			unknownField = name;
+		}
+		present |= UNKNOWN;
+	}
+
+	// Getters and setters
+	public String getReg() {
+		return reg;
+	}
+
+	public void setReg(String reg) {
+		this.reg = reg;
+	}
+
+	public String getMake() {
+		return make;
+	}
+
+	public void setMake(String make) {
+		this.make = make;
+	}
+
+	public String getModel() {
+		return model;
+	}
+
+	public void setModel(String model) {
+		this.model = model;
+	}
+}
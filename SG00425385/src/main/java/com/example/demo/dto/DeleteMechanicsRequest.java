@@ -0,0 +1,36 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Typed request body of POST /api/mechanic/bulk-delete, which deletes a list of
+ * mechanics. Other attributes are ignored.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class DeleteMechanicsRequest {
+	private List<String> mids; // Identifiers of the mechanics to delete
+
+	/**
+	 * Checks the required attributes.
+	 *
+	 * @return The error message of the first violation, or null if the request is
+	 *         valid
+	 */
+	public String violation() {
+		if (mids == null) {
+			return "mids must be present in the request";
+		}
+		return null;
+	}
+
+	// Getters and setters
+	public List<String> getMids() {
+		return mids;
+	}
+
+	public void setMids(List<String> mids) {
+		this.mids = mids;
+	}
+}
@@ -0,0 +1,65 @@
+package com.example.demo.dto;
+
+/**
+ * Data Transfer Object (DTO) describing a vehicle export written to a file.
+ */
+public class ExportResultDTO {
+	private String file; // Path of the file written
+	private long rows; // Number of vehicles exported
+	private long bytes; // Compressed size of the file
+	private long millis; // Time taken by the export
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public ExportResultDTO() {
+	}
+
+	/**
+	 * Creates an export result.
+	 *
+	 * @param file   The path of the file written
+	 * @param rows   The number of vehicles exported
+	 * @param bytes  The compressed size of the file
+	 * @param millis The time taken by the export
+	 */
+	public ExportResultDTO(String file, long rows, long bytes, long millis) {
+		this.file = file;
+		this.rows = rows;
+		this.bytes = bytes;
+		this.millis = millis;
+	}
+
+	// Getters and setters
+	public String getFile() {
+		return file;
+	}
+
+	public void setFile(String file) {
+		this.file = file;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public void setRows(long rows) {
+		this.rows = rows;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	public void setBytes(long bytes) {
+		this.bytes = bytes;
+	}
+
+	public long getMillis() {
+		return millis;
+	}
+
+	public void setMillis(long millis) {
+		this.millis = millis;
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precompiled required and forbidden field rules for a request body. Request
+ * objects record which JSON properties were present as bits of an int while
+ * they are deserialized; the rules are then checked against that bit set in
+ * declaration order, and the message of the first broken rule is returned.
+ */
+public final class FieldRules {
+
+	private final int[] fields;
+	private final boolean[] required;
+	private final String[] messages;
+
+	private FieldRules(List<Integer> fields, List<Boolean> required, List<String> messages) {
+		this.fields = fields.stream().mapToInt(Integer::intValue).toArray();
+		this.required = new boolean[required.size()];
+		for (int i = 0; i < this.required.length; i++) {
+			this.required[i] = required.get(i);
+		}
+		this.messages = messages.toArray(new String[0]);
+	}
+
+	/**
+	 * Starts building a rule set.
+	 *
+	 * @return A new builder
+	 */
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Checks the rules against the fields present in a request.
+	 *
+	 * @param present The bit set of fields present in the request body
+	 * @return The message of the first broken rule, or null if all rules hold
+	 */
+	public String check(int present) {
+		int rule = firstBroken(present);
+		return rule < 0 ? null : messages[rule];
+	}
+
+	/**
+	 * Finds the field of the first broken rule, for requests that build the
+	 * message of some rules from the request content.
+	 *
+	 * @param present The bit set of fields present in the request body
+	 * @return The bit of the field of the first broken rule, or 0 if all rules
+	 *         hold
+	 */
+	public int firstBrokenField(int present) {
+		int rule = firstBroken(present);
+		return rule < 0 ? 0 : fields[rule];
+	}
+
+	private int firstBroken(int present) {
+		for (int i = 0; i < fields.length; i++) {
+			boolean isPresent = (present & fields[i]) != 0;
+			if (isPresent != required[i]) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Builder collecting the rules in the order they are checked.
+	 */
+	public static final class Builder {
+		private final List<Integer> fields = new ArrayList<>();
+		private final List<Boolean> required = new ArrayList<>();
+		private final List<String> messages = new ArrayList<>();
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds a rule that fails when the field is missing.
+		 *
+		 * @param field   The bit of the field
+		 * @param message The error message if the field is missing
+		 * @return This builder
+		 */
+		public Builder required(int field, String message) {
+			return add(field, true, message);
+		}
+
+		/**
+		 * Adds a rule that fails when the field is present.
+		 *
+		 * @param field   The bit of the field
+		 * @param message The error message if the field is present
+		 * @return This builder
+		 */
+		public Builder forbidden(int field, String message) {
+			return add(field, false, message);
+		}
+
+		/**
+		 * Builds the immutable rule set.
+		 *
+		 * @return The rule set
+		 */
+		public FieldRules build() {
+			return new FieldRules(fields, required, messages);
+		}
+
+		private Builder add(int field, boolean isRequired, String message) {
+			fields.add(field);
+			required.add(isRequired);
+			messages.add(message);
+			return this;
+		}
+	}
+}
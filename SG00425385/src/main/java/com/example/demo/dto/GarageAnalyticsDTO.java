@@ -0,0 +1,99 @@
+package com.example.demo.dto;
+
+/**
+ * Data Transfer Object (DTO) with the payroll and workload figures of a garage.
+ */
+public class GarageAnalyticsDTO {
+	private String gid; // Garage business identifier
+	private String location; // Garage location
+	private int budget; // Operating budget
+	private long mechanics; // Number of mechanics working at the garage
+	private double payroll; // Sum of the mechanics' salaries
+	private long vehicles; // Number of vehicles serviced by the mechanics
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public GarageAnalyticsDTO() {
+	}
+
+	/**
+	 * Creates the figures of a garage.
+	 */
+	public GarageAnalyticsDTO(String gid, String location, int budget, long mechanics, double payroll,
+			long vehicles) {
+		this.gid = gid;
+		this.location = location;
+		this.budget = budget;
+		this.mechanics = mechanics;
+		this.payroll = payroll;
+		this.vehicles = vehicles;
+	}
+
+	/**
+	 * Gets the part of the budget not taken by the payroll.
+	 *
+	 * @return The budget minus the payroll, negative if the payroll exceeds it
+	 */
+	public double getRemainingBudget() {
+		return budget - payroll;
+	}
+
+	/**
+	 * Gets the average number of vehicles per mechanic.
+	 *
+	 * @return The vehicles per mechanic, or 0 if the garage has no mechanics
+	 */
+	public double getVehiclesPerMechanic() {
+		return mechanics == 0 ? 0 : (double) vehicles / mechanics;
+	}
+
+	// Getters and setters
+	public String getGid() {
+		return gid;
+	}
+
+	public void setGid(String gid) {
+		this.gid = gid;
+	}
+
+	public String getLocation() {
+		return location;
+	}
+
+	public void setLocation(String location) {
+		this.location = location;
+	}
+
+	public int getBudget() {
+		return budget;
+	}
+
+	public void setBudget(int budget) {
+		this.budget = budget;
+	}
+
+	public long getMechanics() {
+		return mechanics;
+	}
+
+	public void setMechanics(long mechanics) {
+		this.mechanics = mechanics;
+	}
+
+	public double getPayroll() {
+		return payroll;
+	}
+
+	public void setPayroll(double payroll) {
+		this.payroll = payroll;
+	}
+
+	public long getVehicles() {
+		return vehicles;
+	}
+
+	public void setVehicles(long vehicles) {
+		this.vehicles = vehicles;
+	}
+}
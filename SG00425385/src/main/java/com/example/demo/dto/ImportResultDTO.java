@@ -0,0 +1,148 @@
+package com.example.demo.dto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) with the outcome of a CSV import. Valid rows are
+ * imported even if other rows of the file are rejected; each rejected row is
+ * counted, and the first {@link #MAX_ERRORS} are reported with their line in
+ * the file.
+ */
+public class ImportResultDTO {
+
+	/**
+	 * Maximum number of row errors reported.
+	 */
+	public static final int MAX_ERRORS = 100;
+
+	private String entity; // Kind of entity imported
+	private long rows; // Number of data rows read
+	private long imported; // Number of rows inserted
+	private long failed; // Number of rows rejected
+	private long millis; // Time taken by the import
+	private List<RowErrorDTO> errors = new ArrayList<>(); // First rejected rows
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public ImportResultDTO() {
+	}
+
+	/**
+	 * Creates an empty result for an import of the given kind of entity.
+	 *
+	 * @param entity The kind of entity imported
+	 */
+	public ImportResultDTO(String entity) {
+		this.entity = entity;
+	}
+
+	/**
+	 * Records a rejected row. Only the first {@link #MAX_ERRORS} are kept.
+	 *
+	 * @param line    The line of the row in the file
+	 * @param key     The natural key of the row, if any
+	 * @param message The reason the row was rejected
+	 */
+	public void addError(int line, String key, String message) {
+		failed++;
+		if (errors.size() < MAX_ERRORS) {
+			RowErrorDTO error = new RowErrorDTO();
+			error.setLine(line);
+			error.setKey(key);
+			error.setMessage(message);
+			errors.add(error);
+		}
+	}
+
+	/**
+	 * Orders the reported errors by their line in the file.
+	 */
+	public void sortErrors() {
+		errors.sort(Comparator.comparingInt(RowErrorDTO::getLine));
+	}
+
+	// Getters and setters
+	public String getEntity() {
+		return entity;
+	}
+
+	public void setEntity(String entity) {
+		this.entity = entity;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public void setRows(long rows) {
+		this.rows = rows;
+	}
+
+	public long getImported() {
+		return imported;
+	}
+
+	public void setImported(long imported) {
+		this.imported = imported;
+	}
+
+	public long getFailed() {
+		return failed;
+	}
+
+	public void setFailed(long failed) {
+		this.failed = failed;
+	}
+
+	public long getMillis() {
+		return millis;
+	}
+
+	public void setMillis(long millis) {
+		this.millis = millis;
+	}
+
+	public List<RowErrorDTO> getErrors() {
+		return errors;
+	}
+
+	public void setErrors(List<RowErrorDTO> errors) {
+		this.errors = errors;
+	}
+
+	/**
+	 * Nested static class describing why one row of the file was rejected.
+	 */
+	public static class RowErrorDTO {
+		private int line; // Line of the row in the file, counting the header
+		private String key; // Natural key of the row, may be null
+		private String message; // Validation error message
+
+		public int getLine() {
+			return line;
+		}
+
+		public void setLine(int line) {
+			this.line = line;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public void setKey(String key) {
+			this.key = key;
+		}
+
+		public String getMessage() {
+			return message;
+		}
+
+		public void setMessage(String message) {
+			this.message = message;
+		}
+	}
+}
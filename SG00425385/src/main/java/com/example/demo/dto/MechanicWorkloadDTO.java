@@ -0,0 +1,60 @@
+package com.example.demo.dto;
+
+/**
+ * Data Transfer Object (DTO) with the number of vehicles a mechanic services.
+ */
+public class MechanicWorkloadDTO {
+	private String mid; // Mechanic identifier
+	private String name; // Mechanic name
+	private Double salary; // Mechanic salary
+	private long vehicles; // Number of vehicles serviced by the mechanic
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public MechanicWorkloadDTO() {
+	}
+
+	/**
+	 * Creates the workload of a mechanic.
+	 */
+	public MechanicWorkloadDTO(String mid, String name, Double salary, long vehicles) {
+		this.mid = mid;
+		this.name = name;
+		this.salary = salary;
+		this.vehicles = vehicles;
+	}
+
+	// Getters and setters
+	public String getMid() {
+		return mid;
+	}
+
+	public void setMid(String mid) {
+		this.mid = mid;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Double getSalary() {
+		return salary;
+	}
+
+	public void setSalary(Double salary) {
+		this.salary = salary;
+	}
+
+	public long getVehicles() {
+		return vehicles;
+	}
+
+	public void setVehicles(long vehicles) {
+		this.vehicles = vehicles;
+	}
+}
@@ -0,0 +1,43 @@
+package com.example.demo.dto;
+
+/**
+ * Data Transfer Object (DTO) with the outcome of a bulk mechanic reassignment.
+ */
+public class ReassignResultDTO {
+	private String mid; // Mechanic the vehicles were assigned to
+	private int updated; // Number of vehicles updated
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public ReassignResultDTO() {
+	}
+
+	/**
+	 * Creates a reassignment result.
+	 *
+	 * @param mid     The mechanic the vehicles were assigned to
+	 * @param updated The number of vehicles updated
+	 */
+	public ReassignResultDTO(String mid, int updated) {
+		this.mid = mid;
+		this.updated = updated;
+	}
+
+	// Getters and setters
+	public String getMid() {
+		return mid;
+	}
+
+	public void setMid(String mid) {
+		this.mid = mid;
+	}
+
+	public int getUpdated() {
+		return updated;
+	}
+
+	public void setUpdated(int updated) {
+		this.updated = updated;
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Typed request body of PUT /api/vehicle/mechanic, which assigns one mechanic
+ * to a list of vehicles. Other attributes are ignored.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ReassignVehiclesRequest {
+	private List<String> regs; // Registration numbers of the vehicles to update
+	private String mid; // Mechanic ID to assign
+
+	/**
+	 * Checks the required attributes.
+	 *
+	 * @return The error message of the first violation, or null if the request is
+	 *         valid
+	 */
+	public String violation() {
+		if (regs == null) {
+			return "regs must be present in the request";
+		}
+		if (mid == null) {
+			return "mid must be present in the request";
+		}
+		return null;
+	}
+
+	// Getters and setters
+	public List<String> getRegs() {
+		return regs;
+	}
+
+	public void setRegs(List<String> regs) {
+		this.regs = regs;
+	}
+
+	public String getMid() {
+		return mid;
+	}
+
+	public void setMid(String mid) {
+		this.mid = mid;
+	}
+}
@@ -0,0 +1,74 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one result of the front desk search. The type
+ * and key identify the entity: a vehicle by reg, a customer by cid or a
+ * mechanic by mid.
+ */
+public class SearchHitDTO {
+	private String type; // "vehicle", "customer" or "mechanic"
+	private String key; // Natural key of the entity (reg, cid or mid)
+	private String label; // Short description for display
+	private double score; // Relevance, higher is better
+	private List<String> matchedFields; // Fields that matched the query
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public SearchHitDTO() {
+	}
+
+	/**
+	 * Creates a search result.
+	 */
+	public SearchHitDTO(String type, String key, String label, double score, List<String> matchedFields) {
+		this.type = type;
+		this.key = key;
+		this.label = label;
+		this.score = score;
+		this.matchedFields = matchedFields;
+	}
+
+	// Getters and setters
+	public String getType() {
+		return type;
+	}
+
+	public void setType(String type) {
+		this.type = type;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public void setKey(String key) {
+		this.key = key;
+	}
+
+	public String getLabel() {
+		return label;
+	}
+
+	public void setLabel(String label) {
+		this.label = label;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public void setScore(double score) {
+		this.score = score;
+	}
+
+	public List<String> getMatchedFields() {
+		return matchedFields;
+	}
+
+	public void setMatchedFields(List<String> matchedFields) {
+		this.matchedFields = matchedFields;
+	}
+}
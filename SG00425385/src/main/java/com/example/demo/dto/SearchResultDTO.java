@@ -0,0 +1,73 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of front desk search results, ranked
+ * by relevance.
+ */
+public class SearchResultDTO {
+	private String query; // The search text
+	private int total; // Number of matches over all pages
+	private int page; // Zero-based page number
+	private int size; // Maximum number of hits per page
+	private List<SearchHitDTO> hits; // Matches on this page
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public SearchResultDTO() {
+	}
+
+	/**
+	 * Creates a page of search results.
+	 */
+	public SearchResultDTO(String query, int total, int page, int size, List<SearchHitDTO> hits) {
+		this.query = query;
+		this.total = total;
+		this.page = page;
+		this.size = size;
+		this.hits = hits;
+	}
+
+	// Getters and setters
+	public String getQuery() {
+		return query;
+	}
+
+	public void setQuery(String query) {
+		this.query = query;
+	}
+
+	public int getTotal() {
+		return total;
+	}
+
+	public void setTotal(int total) {
+		this.total = total;
+	}
+
+	public int getPage() {
+		return page;
+	}
+
+	public void setPage(int page) {
+		this.page = page;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public List<SearchHitDTO> getHits() {
+		return hits;
+	}
+
+	public void setHits(List<SearchHitDTO> hits) {
+		this.hits = hits;
+	}
+}
@@ -1,5 +1,7 @@
 package com.example.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 /**
  * Data Transfer Object (DTO) for Vehicle entities. This class provides a
  * representation of Vehicle data including entities like Owner, Mechanic and
@@ -12,6 +14,8 @@ public class VehicleDTO {
 	private String model; // Vehicle model
 	private OwnerDTO owner; // Owner information (nested DTO)
 	private MechanicDTO mechanic; // Mechanic information (nested DTO)
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Long version; // Optimistic locking version, only set for single vehicles
 
 	/**
 	 * Default constructor required for JSON deserialization.
@@ -60,6 +64,14 @@ public class VehicleDTO {
 		this.mechanic = mechanic;
 	}
 
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
 	/**
 	 * Nested static class representing Owner data. Contains only the essential
 	 * customer fields needed for the vehicle view.
@@ -0,0 +1,81 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Typed request body of PUT /api/vehicle/{reg} and PUT
+ * /api/mechanic/{mid}/vehicles, which assign a mechanic by its mid. The mechanic
+ * attributes other than mid are not allowed; they are only recorded as present
+ * and their values are never bound. Other attributes are ignored.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class VehicleMechanicRequest {
+
+	private static final int MID = 1;
+	private static final int ID = 1 << 1;
+	private static final int NAME = 1 << 2;
+	private static final int SALARY = 1 << 3;
+	private static final int GARAGE = 1 << 4;
+	private static final int VEHICLES = 1 << 5;
+
+	/**
+	 * Required and not allowed attributes, in the order they are reported.
+	 */
+	private static final FieldRules RULES = FieldRules.builder()
+			.required(MID, "mid must be present in the request")
+			.forbidden(ID, "id attribute should not be provided in the request")
+			.forbidden(NAME, "name attribute should not be provided in the request")
+			.forbidden(SALARY, "salary attribute should not be provided in the request")
+			.forbidden(GARAGE, "garage attribute should not be provided in the request")
+			.forbidden(VEHICLES, "vehicles attribute should not be provided in the request")
+			.build();
+
+	private String mid; // Mechanic ID to assign
+	private int present; // Bit set of the attributes present in the body
+
+	/**
+	 * Checks the required and not allowed attributes.
+	 *
+	 * @return The error message of the first violation, or null if the request is
+	 *         valid
+	 */
+	public String violation() {
+		return RULES.check(present);
+	}
+
+	public String getMid() {
+		return mid;
+	}
+
+	@JsonProperty("mid")
+	public void setMid(String mid) {
+		this.mid = mid;
+		present |= MID;
+	}
+
+	@JsonProperty("id")
+	void setId(Object id) {
+		present |= ID;
+	}
+
+	@JsonProperty("name")
+	void setName(Object name) {
+		present |= NAME;
+	}
+
+	@JsonProperty("salary")
+	void setSalary(Object salary) {
+		present |= SALARY;
+	}
+
+	@JsonProperty("garage")
+	void setGarage(Object garage) {
+		present |= GARAGE;
+	}
+
+	@JsonProperty("vehicles")
+	void setVehicles(Object vehicles) {
+		present |= VEHICLES;
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) for one page of a cursor-paginated vehicle
+ * listing. The next cursor is an opaque token that the client passes back to
+ * fetch the following page; it is null once the last page has been returned.
+ */
+public class VehiclePageDTO {
+	private List<VehicleDTO> items; // Vehicles on this page
+	private String nextCursor; // Token for the next page, null on the last page
+	private int size; // Number of vehicles on this page
+
+	/**
+	 * Default constructor required for JSON deserialization.
+	 */
+	public VehiclePageDTO() {
+	}
+
+	/**
+	 * Creates a page from its items and the cursor of the following page.
+	 *
+	 * @param items      The vehicles on this page
+	 * @param nextCursor The opaque cursor of the next page, or null if this is the
+	 *                   last page
+	 */
+	public VehiclePageDTO(List<VehicleDTO> items, String nextCursor) {
+		this.items = items;
+		this.nextCursor = nextCursor;
+		this.size = items.size();
+	}
+
+	// Getters and setters
+	public List<VehicleDTO> getItems() {
+		return items;
+	}
+
+	public void setItems(List<VehicleDTO> items) {
+		this.items = items;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.demo.dto;
+
+/**
+ * Flat read-only projection of a vehicle joined with its owner, mechanic and
+ * garage. Instances are created directly by JPQL constructor expressions in
+ * VehicleRepository, so a whole listing is read with a single joined query
+ * without loading any entities or triggering their eager associations.
+ * Columns of missing associations are null.
+ */
+public class VehicleRow {
+	private final Integer id; // Vehicle database ID (used for keyset pagination)
+	private final String reg; // Vehicle registration number
+	private final String make; // Vehicle manufacturer
+	private final String model; // Vehicle model
+	private final String ownerCid; // Owner customer ID
+	private final String ownerName; // Owner name
+	private final String mechanicMid; // Mechanic ID
+	private final String mechanicName; // Mechanic name
+	private final Double mechanicSalary; // Mechanic salary
+	private final String garageGid; // Garage ID
+	private final String garageLocation; // Garage location
+	private final Integer garageBudget; // Garage budget
+
+	/**
+	 * Constructor used by the JPQL constructor expressions in VehicleRepository.
+	 * The parameter order must match the select list of those queries.
+	 */
+	public VehicleRow(Integer id, String reg, String make, String model, String ownerCid, String ownerName,
+			String mechanicMid, String mechanicName, Double mechanicSalary, String garageGid, String garageLocation,
+			Integer garageBudget) {
+		this.id = id;
+		this.reg = reg;
+		this.make = make;
+		this.model = model;
+		this.ownerCid = ownerCid;
+		this.ownerName = ownerName;
+		this.mechanicMid = mechanicMid;
+		this.mechanicName = mechanicName;
+		this.mechanicSalary = mechanicSalary;
+		this.garageGid = garageGid;
+		this.garageLocation = garageLocation;
+		this.garageBudget = garageBudget;
+	}
+
+	// Getters
+	public Integer getId() {
+		return id;
+	}
+
+	public String getReg() {
+		return reg;
+	}
+
+	public String getMake() {
+		return make;
+	}
+
+	public String getModel() {
+		return model;
+	}
+
+	public String getOwnerCid() {
+		return ownerCid;
+	}
+
+	public String getOwnerName() {
+		return ownerName;
+	}
+
+	public String getMechanicMid() {
+		return mechanicMid;
+	}
+
+	public String getMechanicName() {
+		return mechanicName;
+	}
+
+	public Double getMechanicSalary() {
+		return mechanicSalary;
+	}
+
+	public String getGarageGid() {
+		return garageGid;
+	}
+
+	public String getGarageLocation() {
+		return garageLocation;
+	}
+
+	public Integer getGarageBudget() {
+		return garageBudget;
+	}
+}
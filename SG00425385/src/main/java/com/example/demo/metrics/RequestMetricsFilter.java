@@ -0,0 +1,79 @@
+package com.example.demo.metrics;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filter recording where the time of each API request goes. Next to the
+ * latency histogram of http.server.requests, every request under /api records
+ * per endpoint:
+ *
+ * app.request.sql.statements - SQL statements run through Hibernate
+ * app.request.jdbc - time spent preparing and executing them
+ * app.request.connection.wait - time spent waiting for a pooled connection
+ * app.request.handler - time until the response body is written
+ * app.request.serialization - time spent writing the response body
+ *
+ * The meters are tagged with the method and the matched URI pattern and are
+ * available at /actuator/metrics.
+ */
+@Component
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+	/**
+	 * Registry the request meters are recorded in. Autowired by Spring.
+	 */
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !request.getRequestURI().startsWith(request.getContextPath() + "/api/");
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		RequestSqlStats stats = RequestSqlStats.start();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			RequestSqlStats.clear();
+			record(request, stats);
+		}
+	}
+
+	private void record(HttpServletRequest request, RequestSqlStats stats) {
+		Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+		Tags tags = Tags.of("method", request.getMethod(), "uri", pattern == null ? "UNKNOWN" : pattern.toString());
+
+		DistributionSummary.builder("app.request.sql.statements").tags(tags).register(meterRegistry)
+				.record(stats.getStatements());
+		timer("app.request.jdbc", tags).record(stats.getJdbcNanos(), TimeUnit.NANOSECONDS);
+		timer("app.request.connection.wait", tags).record(stats.getConnectionWaitNanos(), TimeUnit.NANOSECONDS);
+
+		long handlerNanos = stats.getHandlerNanos();
+		if (handlerNanos >= 0) {
+			timer("app.request.handler", tags).record(handlerNanos, TimeUnit.NANOSECONDS);
+			timer("app.request.serialization", tags).record(stats.getSerializationNanos(), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Timer timer(String name, Tags tags) {
+		return Timer.builder(name).tags(tags).register(meterRegistry);
+	}
+}
@@ -0,0 +1,103 @@
+package com.example.demo.metrics;
+
+/**
+ * SQL counters of the HTTP request being handled by the current thread. The
+ * counters are filled by {@link SqlStatsSessionListener} from the Hibernate
+ * session events and read by {@link RequestMetricsFilter} once the request is
+ * done.
+ *
+ * Statements run outside Hibernate, such as JdbcTemplate batches, are not
+ * counted.
+ */
+public class RequestSqlStats {
+
+	private static final ThreadLocal<RequestSqlStats> CURRENT = new ThreadLocal<>();
+
+	private final long startNanos = System.nanoTime();
+	private int statements; // Statements prepared
+	private long jdbcNanos; // Time spent preparing and executing statements
+	private long connectionWaitNanos; // Time spent waiting for a pooled connection
+	private long bodyWriteNanos; // Time the response body started to be written, 0 if not yet
+
+	/**
+	 * Starts collecting statistics for the current thread.
+	 *
+	 * @return The statistics of the new request
+	 */
+	public static RequestSqlStats start() {
+		RequestSqlStats stats = new RequestSqlStats();
+		CURRENT.set(stats);
+		return stats;
+	}
+
+	/**
+	 * Gets the statistics of the request handled by the current thread.
+	 *
+	 * @return The statistics, or null if the thread isn't handling a measured
+	 *         request
+	 */
+	public static RequestSqlStats current() {
+		return CURRENT.get();
+	}
+
+	/**
+	 * Stops collecting statistics for the current thread.
+	 */
+	public static void clear() {
+		CURRENT.remove();
+	}
+
+	void addStatement() {
+		statements++;
+	}
+
+	void addJdbcTime(long nanos) {
+		jdbcNanos += nanos;
+	}
+
+	void addConnectionWait(long nanos) {
+		connectionWaitNanos += nanos;
+	}
+
+	/**
+	 * Records that the handler is done and the response body is being written.
+	 */
+	void markBodyWrite() {
+		if (bodyWriteNanos == 0) {
+			bodyWriteNanos = System.nanoTime();
+		}
+	}
+
+	// Getters
+	public int getStatements() {
+		return statements;
+	}
+
+	public long getJdbcNanos() {
+		return jdbcNanos;
+	}
+
+	public long getConnectionWaitNanos() {
+		return connectionWaitNanos;
+	}
+
+	/**
+	 * Gets the time from the start of the request until the response body started
+	 * to be written, which covers the handler including its SQL.
+	 *
+	 * @return The handler time in nanoseconds, or -1 if no body was written
+	 */
+	public long getHandlerNanos() {
+		return bodyWriteNanos == 0 ? -1 : bodyWriteNanos - startNanos;
+	}
+
+	/**
+	 * Gets the time spent writing the response body so far, which is the
+	 * serialization of the returned DTOs.
+	 *
+	 * @return The serialization time in nanoseconds, or -1 if no body was written
+	 */
+	public long getSerializationNanos() {
+		return bodyWriteNanos == 0 ? -1 : System.nanoTime() - bodyWriteNanos;
+	}
+}
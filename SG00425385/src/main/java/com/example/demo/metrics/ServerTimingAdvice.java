@@ -0,0 +1,59 @@
+package com.example.demo.metrics;
+
+import java.util.Locale;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the point where a controller is done and its response body is about to
+ * be serialized, so the request metrics can tell handler time from
+ * serialization time. In debug mode (app.metrics.debug-headers=true) it also
+ * adds the SQL statistics of the request as response headers:
+ *
+ * Server-Timing: db;dur=1.20, pool;dur=0.05, handler;dur=3.40
+ * X-SQL-Statements: 2
+ *
+ * Durations are in milliseconds. Streamed responses such as the NDJSON export
+ * don't go through this advice and get no headers.
+ */
+@ControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+	/**
+	 * Whether to add the timing headers to every API response.
+	 */
+	@Value("${app.metrics.debug-headers:false}")
+	private boolean debugHeaders;
+
+	@Override
+	public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+		return true;
+	}
+
+	@Override
+	public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+			Class<? extends HttpMessageConverter<?>> selectedConverterType, ServerHttpRequest request,
+			ServerHttpResponse response) {
+		RequestSqlStats stats = RequestSqlStats.current();
+		if (stats != null) {
+			stats.markBodyWrite();
+			if (debugHeaders) {
+				response.getHeaders().add("Server-Timing", "db;dur=" + millis(stats.getJdbcNanos()) + ", pool;dur="
+						+ millis(stats.getConnectionWaitNanos()) + ", handler;dur=" + millis(stats.getHandlerNanos()));
+				response.getHeaders().add("X-SQL-Statements", Integer.toString(stats.getStatements()));
+			}
+		}
+		return body;
+	}
+
+	private static String millis(long nanos) {
+		return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+	}
+}
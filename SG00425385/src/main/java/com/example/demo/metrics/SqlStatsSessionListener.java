@@ -0,0 +1,72 @@
+package com.example.demo.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+
+/**
+ * Hibernate session listener adding the statements, JDBC time and connection
+ * wait of each session to the statistics of the current request. Registered
+ * for every session with the hibernate.session.events.auto property; sessions
+ * opened outside a measured request are ignored.
+ */
+public class SqlStatsSessionListener extends BaseSessionEventListener {
+
+	private static final long serialVersionUID = 1L;
+
+	private long connectionStart;
+	private long prepareStart;
+	private long executeStart;
+	private long batchStart;
+
+	@Override
+	public void jdbcConnectionAcquisitionStart() {
+		connectionStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcConnectionAcquisitionEnd() {
+		RequestSqlStats stats = RequestSqlStats.current();
+		if (stats != null) {
+			stats.addConnectionWait(System.nanoTime() - connectionStart);
+		}
+	}
+
+	@Override
+	public void jdbcPrepareStatementStart() {
+		prepareStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcPrepareStatementEnd() {
+		RequestSqlStats stats = RequestSqlStats.current();
+		if (stats != null) {
+			stats.addStatement();
+			stats.addJdbcTime(System.nanoTime() - prepareStart);
+		}
+	}
+
+	@Override
+	public void jdbcExecuteStatementStart() {
+		executeStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteStatementEnd() {
+		RequestSqlStats stats = RequestSqlStats.current();
+		if (stats != null) {
+			stats.addJdbcTime(System.nanoTime() - executeStart);
+		}
+	}
+
+	@Override
+	public void jdbcExecuteBatchStart() {
+		batchStart = System.nanoTime();
+	}
+
+	@Override
+	public void jdbcExecuteBatchEnd() {
+		RequestSqlStats stats = RequestSqlStats.current();
+		if (stats != null) {
+			stats.addJdbcTime(System.nanoTime() - batchStart);
+		}
+	}
+}
@@ -3,8 +3,12 @@ package com.example.demo.models;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -16,8 +20,13 @@ import jakarta.persistence.OneToMany;
  * Entity class representing a customer in the vehicle service system. Customers
  * can own multiple vehicles which are serviced by mechanics in garages. This
  * class manages customer data and the relationship with their vehicles.
+ *
+ * Customers are cached in the second-level cache; they are read as vehicle
+ * owners far more often than they change.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "customer")
 public class Customer {
 
 	/**
@@ -3,8 +3,12 @@ package com.example.demo.models;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -16,8 +20,13 @@ import jakarta.persistence.OneToMany;
  * Entity class representing a garage in the vehicle service system. Garages are
  * physical locations where mechanics work to service vehicles. Each garage has
  * a budget and can have multiple mechanics assigned to it.
+ *
+ * Garages are cached in the second-level cache; they are read with every
+ * mechanic and rarely change.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "garage")
 public class Garage {
 
 	/**
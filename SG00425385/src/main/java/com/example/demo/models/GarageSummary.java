@@ -0,0 +1,91 @@
+package com.example.demo.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.OneToOne;
+
+/**
+ * Entity class holding the running totals of a garage: its mechanics, their
+ * payroll and the vehicles they service. The totals are adjusted in the same
+ * transaction as every change to them, so dashboards read one row per garage
+ * instead of walking the garage's mechanics and vehicles.
+ */
+@Entity
+public class GarageSummary {
+
+	/**
+	 * The database ID of the garage, shared with it.
+	 */
+	@Id
+	@Column(name = "garage_id")
+	private Integer garageId;
+
+	/**
+	 * The garage these totals belong to, mapped read-only over the ID.
+	 */
+	@OneToOne(fetch = FetchType.LAZY)
+	@JoinColumn(name = "garage_id", insertable = false, updatable = false)
+	private Garage garage;
+
+	/**
+	 * Number of mechanics working at the garage.
+	 */
+	private int mechanicCount;
+
+	/**
+	 * Sum of the salaries of the garage's mechanics.
+	 */
+	private double payroll;
+
+	/**
+	 * Number of vehicles serviced by the garage's mechanics.
+	 */
+	private int vehicleCount;
+
+	/**
+	 * Default constructor required by JPA.
+	 */
+	public GarageSummary() {
+		super();
+	}
+
+	/**
+	 * Creates the totals of a garage.
+	 *
+	 * @param garage        The garage
+	 * @param mechanicCount The number of mechanics working at the garage
+	 * @param payroll       The sum of their salaries
+	 * @param vehicleCount  The number of vehicles they service
+	 */
+	public GarageSummary(Garage garage, int mechanicCount, double payroll, int vehicleCount) {
+		super();
+		this.garageId = garage.getId();
+		this.garage = garage;
+		this.mechanicCount = mechanicCount;
+		this.payroll = payroll;
+		this.vehicleCount = vehicleCount;
+	}
+
+	public Integer getGarageId() {
+		return garageId;
+	}
+
+	public Garage getGarage() {
+		return garage;
+	}
+
+	public int getMechanicCount() {
+		return mechanicCount;
+	}
+
+	public double getPayroll() {
+		return payroll;
+	}
+
+	public int getVehicleCount() {
+		return vehicleCount;
+	}
+}
@@ -2,8 +2,13 @@ package com.example.demo.models;
 
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -11,13 +16,20 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.Version;
 
 /**
  * Entity class representing a mechanic in the vehicle service system. Mechanics
  * work at garages and service vehicles for customers. This class manages
  * mechanic data and their relationships with garages and vehicles.
+ *
+ * Mechanics are cached in the second-level cache; they are read with every
+ * vehicle and rarely change. Updates are checked against the version, so a
+ * stale cached copy can't overwrite a newer change.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "mechanic")
 public class Mechanic {
 
 	/**
@@ -61,6 +73,15 @@ public class Mechanic {
 	@JsonBackReference("vehicle-mechanic")
 	private List<Vehicle> vehicles;
 
+	/**
+	 * Optimistic locking version, incremented by every update. Rows inserted
+	 * without it start at 0.
+	 */
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	/**
 	 * Default constructor required by JPA.
 	 */
@@ -191,4 +212,13 @@ public class Mechanic {
 	public void setVehicles(List<Vehicle> vehicles) {
 		this.vehicles = vehicles;
 	}
+
+	/**
+	 * Gets the optimistic locking version of the mechanic.
+	 * 
+	 * @return The version, or null before the mechanic is first saved
+	 */
+	public Long getVersion() {
+		return version;
+	}
 }
@@ -1,20 +1,39 @@
 package com.example.demo.models;
 
+import java.util.Locale;
+
+import org.hibernate.annotations.ColumnDefault;
+
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 
 /**
  * Entity class representing a vehicle in the garage service system. Vehicles
  * are owned by customers and serviced by mechanics. This class manages the
  * vehicle data and its relationships.
+ *
+ * Make and model are also stored lower-cased in makeKey and modelKey, which are
+ * indexed for case-insensitive exact and prefix search. The keys are kept in
+ * step by the setters; SQL that writes make or model must also write the keys.
+ *
+ * Updates are checked against the version, so a stale copy can't overwrite a
+ * newer change. Bulk UPDATE statements must increment the version themselves.
  */
 @Entity
+@Table(indexes = { @Index(name = "idx_vehicle_make", columnList = "make"),
+		@Index(name = "idx_vehicle_model", columnList = "model"),
+		@Index(name = "idx_vehicle_make_key", columnList = "make_key, model_key, reg"),
+		@Index(name = "idx_vehicle_model_key", columnList = "model_key, make_key, reg") })
 public class Vehicle {
 
 	/**
@@ -40,6 +59,20 @@ public class Vehicle {
 	 */
 	private String model;
 
+	/**
+	 * The make in lower case, used for case-insensitive search.
+	 */
+	@Column(name = "make_key")
+	@JsonIgnore
+	private String makeKey;
+
+	/**
+	 * The model in lower case, used for case-insensitive search.
+	 */
+	@Column(name = "model_key")
+	@JsonIgnore
+	private String modelKey;
+
 	/**
 	 * The customer who owns this vehicle. The @JsonBackReference annotation
 	 * prevents infinite recursion during JSON serialization by handling the
@@ -58,6 +91,15 @@ public class Vehicle {
 	@JsonBackReference(value = "vehicle-mechanic")
 	private Mechanic mechanic;
 
+	/**
+	 * Optimistic locking version, incremented by every update. Rows inserted
+	 * without it start at 0.
+	 */
+	@Version
+	@ColumnDefault("0")
+	@Column(nullable = false)
+	private Long version;
+
 	/**
 	 * Default constructor required by JPA.
 	 */
@@ -77,8 +119,8 @@ public class Vehicle {
 	public Vehicle(String reg, String make, String model, Customer owner, Mechanic mechanic) {
 		super();
 		this.reg = reg;
-		this.make = make;
-		this.model = model;
+		setMake(make);
+		setModel(model);
 		this.owner = owner;
 		this.mechanic = mechanic;
 	}
@@ -135,6 +177,7 @@ public class Vehicle {
 	 */
 	public void setMake(String make) {
 		this.make = make;
+		this.makeKey = searchKey(make);
 	}
 
 	/**
@@ -153,6 +196,35 @@ public class Vehicle {
 	 */
 	public void setModel(String model) {
 		this.model = model;
+		this.modelKey = searchKey(model);
+	}
+
+	/**
+	 * Gets the lower-cased make used for search.
+	 *
+	 * @return The make key
+	 */
+	public String getMakeKey() {
+		return makeKey;
+	}
+
+	/**
+	 * Gets the lower-cased model used for search.
+	 *
+	 * @return The model key
+	 */
+	public String getModelKey() {
+		return modelKey;
+	}
+
+	/**
+	 * Normalizes a make or model to the form stored in the search keys.
+	 *
+	 * @param value The make or model, may be null
+	 * @return The value in lower case, or null
+	 */
+	public static String searchKey(String value) {
+		return value == null ? null : value.toLowerCase(Locale.ROOT);
 	}
 
 	/**
@@ -190,4 +262,13 @@ public class Vehicle {
 	public void setMechanic(Mechanic mechanic) {
 		this.mechanic = mechanic;
 	}
+
+	/**
+	 * Gets the optimistic locking version of the vehicle.
+	 *
+	 * @return The version, or null before the vehicle is first saved
+	 */
+	public Long getVersion() {
+		return version;
+	}
 }
@@ -0,0 +1,13 @@
+package com.example.demo.repositories;
+
+import com.example.demo.models.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for Customer entity operations. Extends JpaRepository to
+ * inherit basic CRUD operations and pagination support.
+ */
+@Repository
+public interface CustomerRepository extends JpaRepository<Customer, Integer> {
+}
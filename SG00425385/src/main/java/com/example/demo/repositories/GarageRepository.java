@@ -0,0 +1,39 @@
+package com.example.demo.repositories;
+
+import com.example.demo.dto.GarageAnalyticsDTO;
+import com.example.demo.models.Garage;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for Garage entity operations. Extends JpaRepository to
+ * inherit basic CRUD operations and pagination support.
+ */
+@Repository
+public interface GarageRepository extends JpaRepository<Garage, Integer> {
+
+	/**
+	 * Checks whether a garage exists.
+	 * 
+	 * @param gid The garage's unique identifier code
+	 * @return true if the garage exists
+	 */
+	boolean existsByGid(String gid);
+
+	/**
+	 * Computes the payroll and workload figures of every garage in a single
+	 * statement. Each figure is a correlated aggregate over the foreign key of
+	 * the mechanics or vehicles, so no mechanic or vehicle rows are returned.
+	 * 
+	 * @return The figures of each garage, in gid order
+	 */
+	@Query("select new com.example.demo.dto.GarageAnalyticsDTO(g.gid, g.location, g.budget, "
+			+ "(select count(m) from Mechanic m where m.garage = g), "
+			+ "(select coalesce(sum(m.salary), 0.0) from Mechanic m where m.garage = g), "
+			+ "(select count(v) from Vehicle v where v.mechanic.garage = g)) from Garage g order by g.gid")
+	List<GarageAnalyticsDTO> computeAnalytics();
+}
@@ -0,0 +1,78 @@
+package com.example.demo.repositories;
+
+import com.example.demo.dto.GarageAnalyticsDTO;
+import com.example.demo.models.GarageSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for the running totals of the garages. The totals are
+ * only changed by relative UPDATE statements, so concurrent changes to the same
+ * garage add up instead of overwriting each other.
+ */
+@Repository
+public interface GarageSummaryRepository extends JpaRepository<GarageSummary, Integer> {
+
+	/**
+	 * Reads the figures of every garage from the running totals.
+	 * 
+	 * @return The figures of each garage, in gid order
+	 */
+	@Query("select new com.example.demo.dto.GarageAnalyticsDTO(g.gid, g.location, g.budget, s.mechanicCount, "
+			+ "s.payroll, s.vehicleCount) from GarageSummary s join s.garage g order by g.gid")
+	List<GarageAnalyticsDTO> findAllAnalytics();
+
+	/**
+	 * Adds to the vehicle count of a garage.
+	 * 
+	 * @param garageId The database ID of the garage
+	 * @param delta    The number of vehicles to add, negative to subtract
+	 * @return The number of summaries updated
+	 */
+	@Modifying
+	@Query("update GarageSummary s set s.vehicleCount = s.vehicleCount + :delta where s.garageId = :garageId")
+	int addVehicles(@Param("garageId") Integer garageId, @Param("delta") int delta);
+
+	/**
+	 * Takes mechanics out of the totals of their garages, using the salaries
+	 * stored in the database. Must run before the mechanics are deleted.
+	 * 
+	 * @param mids The unique identifier codes of the mechanics
+	 * @return The number of summaries updated
+	 */
+	@Modifying
+	@Query("update GarageSummary s set "
+			+ "s.mechanicCount = s.mechanicCount - cast((select count(m) from Mechanic m "
+			+ "where m.garage.id = s.garageId and m.mid in :mids) as Integer), "
+			+ "s.payroll = s.payroll - (select coalesce(sum(m.salary), 0.0) from Mechanic m "
+			+ "where m.garage.id = s.garageId and m.mid in :mids) "
+			+ "where s.garageId in (select m.garage.id from Mechanic m where m.mid in :mids)")
+	int removeMechanics(@Param("mids") Collection<String> mids);
+
+	/**
+	 * Deletes all running totals, before they are rebuilt.
+	 */
+	@Modifying
+	@Query("delete from GarageSummary")
+	void deleteAllSummaries();
+
+	/**
+	 * Recomputes the running totals of every garage from the mechanic and vehicle
+	 * tables in a single INSERT ... SELECT statement.
+	 * 
+	 * @return The number of garages summarized
+	 */
+	@Modifying
+	@Query("insert into GarageSummary (garageId, mechanicCount, payroll, vehicleCount) select g.id, "
+			+ "cast((select count(m) from Mechanic m where m.garage = g) as Integer), "
+			+ "(select coalesce(sum(m.salary), 0.0) from Mechanic m where m.garage = g), "
+			+ "cast((select count(v) from Vehicle v where v.mechanic.garage = g) as Integer) from Garage g")
+	int insertAllSummaries();
+}
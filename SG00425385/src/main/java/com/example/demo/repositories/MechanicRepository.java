@@ -1,9 +1,20 @@
 package com.example.demo.repositories;
 
+import com.example.demo.dto.MechanicWorkloadDTO;
 import com.example.demo.models.Mechanic;
+
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+
 /**
  * Repository interface for Mechanic entity operations. Extends JpaRepository to
  * inherit basic CRUD operations and pagination support. This repository manages
@@ -21,4 +32,53 @@ public interface MechanicRepository extends JpaRepository<Mechanic, Integer> {
 	 *         specified mid
 	 */
 	Mechanic findByMid(String mid);
+
+	/**
+	 * Locks the mechanics with the given identifiers until the end of the
+	 * transaction. Assigning a vehicle to a locked mechanic waits for the lock,
+	 * since the database checks the vehicle's foreign key against the mechanic
+	 * row, so the set of mechanics without vehicles can't change under the
+	 * caller.
+	 * 
+	 * @param mids The mechanics' unique identifier codes
+	 * @return The identifiers that exist
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select m.mid from Mechanic m where m.mid in :mids")
+	List<String> lockByMids(@Param("mids") Collection<String> mids);
+
+	/**
+	 * Finds which of the given mechanics service at least one vehicle, without
+	 * loading any vehicles.
+	 * 
+	 * @param mids The mechanics' unique identifier codes
+	 * @return The identifiers of the mechanics servicing vehicles
+	 */
+	@Query("select m.mid from Mechanic m where m.mid in :mids and exists "
+			+ "(select 1 from Vehicle v where v.mechanic = m)")
+	List<String> findMidsServicingVehicles(@Param("mids") Collection<String> mids);
+
+	/**
+	 * Deletes the given mechanics that don't service any vehicle, in a single
+	 * conditional DELETE statement. A mechanic that has vehicles is left in
+	 * place.
+	 * 
+	 * @param mids The mechanics' unique identifier codes
+	 * @return The number of mechanics deleted
+	 */
+	@Modifying
+	@Query("delete from Mechanic m where m.mid in :mids and not exists "
+			+ "(select 1 from Vehicle v where v.mechanic = m)")
+	int deleteIdleByMids(@Param("mids") Collection<String> mids);
+
+	/**
+	 * Counts the vehicles of each mechanic of a garage in a single statement.
+	 * 
+	 * @param gid The garage's unique identifier code
+	 * @return The workload of each mechanic of the garage, in mid order
+	 */
+	@Query("select new com.example.demo.dto.MechanicWorkloadDTO(m.mid, m.name, m.salary, "
+			+ "(select count(v) from Vehicle v where v.mechanic = m)) from Mechanic m where m.garage.gid = :gid "
+			+ "order by m.mid")
+	List<MechanicWorkloadDTO> findWorkloadByGarage(@Param("gid") String gid);
 }
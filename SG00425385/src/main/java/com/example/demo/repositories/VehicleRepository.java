@@ -1,12 +1,27 @@
 package com.example.demo.repositories;
 
+import com.example.demo.dto.VehicleRow;
+import com.example.demo.models.Mechanic;
 import com.example.demo.models.Vehicle;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository interface for Vehicle entity operations. Extends JpaRepository to
  * inherit basic CRUD operations and pagination support. This repository manages
@@ -34,4 +49,210 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
 	 *         specified registration
 	 */
 	Vehicle findByReg(String reg);
+
+	/**
+	 * Finds which of the given registration numbers are already taken, with a
+	 * single set-based query.
+	 * 
+	 * @param regs The registration numbers to check
+	 * @return The registration numbers that already exist in the database
+	 */
+	@Query("select v.reg from Vehicle v where v.reg in :regs")
+	List<String> findExistingRegs(@Param("regs") Collection<String> regs);
+
+	/**
+	 * Locks the vehicles with the given registration numbers until the end of the
+	 * transaction, so their mechanic can't change under a caller that is about to
+	 * reassign them.
+	 * 
+	 * @param regs The registration numbers of the vehicles to lock
+	 * @return The registration numbers that exist
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select v.reg from Vehicle v where v.reg in :regs")
+	List<String> lockByRegs(@Param("regs") Collection<String> regs);
+
+	/**
+	 * Finds the garage currently servicing each of the given vehicles.
+	 * 
+	 * @param regs The registration numbers of the vehicles
+	 * @return The database ID of the garage of each vehicle that has a mechanic
+	 *         working at a garage, once per vehicle
+	 */
+	@Query("select g.id from Vehicle v join v.mechanic m join m.garage g where v.reg in :regs")
+	List<Integer> findGarageIdsByRegs(@Param("regs") Collection<String> regs);
+
+	/**
+	 * Assigns a mechanic to all vehicles with the given registration numbers in a
+	 * single UPDATE statement, without loading the vehicles. The versions are
+	 * incremented, so concurrent optimistic updates of the vehicles fail.
+	 * 
+	 * @param regs     The registration numbers of the vehicles to update
+	 * @param mechanic The mechanic to assign
+	 * @return The number of vehicles updated
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Vehicle v set v.mechanic = :mechanic, v.version = v.version + 1 where v.reg in :regs")
+	int updateMechanicByRegs(@Param("regs") Collection<String> regs, @Param("mechanic") Mechanic mechanic);
+
+	/**
+	 * Moves all vehicles of one mechanic to another mechanic in a single UPDATE
+	 * statement, without loading the vehicles. The versions are incremented, so
+	 * concurrent optimistic updates of the vehicles fail.
+	 * 
+	 * @param from The mechanic currently servicing the vehicles
+	 * @param to   The mechanic to assign
+	 * @return The number of vehicles updated
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("update Vehicle v set v.mechanic = :to, v.version = v.version + 1 where v.mechanic = :from")
+	int updateMechanicByMechanic(@Param("from") Mechanic from, @Param("to") Mechanic to);
+
+	/**
+	 * Select list and joins shared by the projection queries below. Every
+	 * association is left-joined so vehicles without an owner or mechanic are
+	 * still returned, and the whole row is read in one statement.
+	 */
+	String ROW_SELECT = "select new com.example.demo.dto.VehicleRow(v.id, v.reg, v.make, v.model, "
+			+ "o.cid, o.name, m.mid, m.name, m.salary, g.gid, g.location, g.budget) "
+			+ "from Vehicle v left join v.owner o left join v.mechanic m left join m.garage g";
+
+	/**
+	 * Reads all vehicles with their owner, mechanic and garage columns in a single
+	 * joined query.
+	 * 
+	 * @return All vehicles as flat projection rows, in ID order
+	 */
+	@Query(ROW_SELECT + " order by v.id")
+	List<VehicleRow> findAllRows();
+
+	/**
+	 * Reads all vehicles with a specific make in a single joined query.
+	 * 
+	 * The rows are kept in the query cache until a write to the vehicle, customer,
+	 * mechanic or garage table, so a repeated call doesn't touch the database.
+	 * 
+	 * @param make The vehicle manufacturer to search for
+	 * @return Matching vehicles as flat projection rows, in ID order
+	 */
+	@Query(ROW_SELECT + " where v.make = :make order by v.id")
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+	List<VehicleRow> findRowsByMake(@Param("make") String make);
+
+	/**
+	 * Reads the next page of vehicles ordered by database ID. Used for keyset
+	 * pagination: the range condition on the primary key lets the database seek
+	 * straight to the first row of the page instead of scanning past an offset.
+	 * 
+	 * @param id    The ID of the last vehicle on the previous page
+	 * @param limit The maximum number of vehicles to return
+	 * @return Vehicles with an ID greater than the given one, in ID order
+	 */
+	@Query(ROW_SELECT + " where v.id > :id order by v.id")
+	List<VehicleRow> findRowsAfterId(@Param("id") Integer id, Limit limit);
+
+	/**
+	 * Reads the next page of vehicles ordered by registration number. Backed by
+	 * the unique index on reg.
+	 * 
+	 * @param reg   The registration of the last vehicle on the previous page
+	 * @param limit The maximum number of vehicles to return
+	 * @return Vehicles with a registration after the given one, in reg order
+	 */
+	@Query(ROW_SELECT + " where v.reg > :reg order by v.reg")
+	List<VehicleRow> findRowsAfterReg(@Param("reg") String reg, Limit limit);
+
+	/**
+	 * Reads the next page of vehicles with a specific make, ordered by database
+	 * ID.
+	 * 
+	 * @param make  The vehicle manufacturer to filter by
+	 * @param id    The ID of the last vehicle on the previous page
+	 * @param limit The maximum number of vehicles to return
+	 * @return Matching vehicles with an ID greater than the given one, in ID order
+	 */
+	@Query(ROW_SELECT + " where v.make = :make and v.id > :id order by v.id")
+	List<VehicleRow> findRowsByMakeAfterId(@Param("make") String make, @Param("id") Integer id, Limit limit);
+
+	/**
+	 * Reads the next page of vehicles with a specific make, ordered by
+	 * registration number.
+	 * 
+	 * @param make  The vehicle manufacturer to filter by
+	 * @param reg   The registration of the last vehicle on the previous page
+	 * @param limit The maximum number of vehicles to return
+	 * @return Matching vehicles with a registration after the given one, in reg
+	 *         order
+	 */
+	@Query(ROW_SELECT + " where v.make = :make and v.reg > :reg order by v.reg")
+	List<VehicleRow> findRowsByMakeAfterReg(@Param("make") String make, @Param("reg") String reg, Limit limit);
+
+	/**
+	 * Order of the search results: make, model and reg, ignoring case. Matches the
+	 * make key index, so a make search reads the index in order and stops at the
+	 * limit.
+	 */
+	String SEARCH_ORDER = " order by v.makeKey, v.modelKey, v.reg";
+
+	/**
+	 * Order of the model-only search results: model, make and reg, matching the
+	 * model key index. For an exact model this is the same as
+	 * {@link #SEARCH_ORDER}.
+	 */
+	String MODEL_SEARCH_ORDER = " order by v.modelKey, v.makeKey, v.reg";
+
+	/**
+	 * Searches vehicles by the lower-cased make. The pattern is a LIKE pattern
+	 * with '!' as escape character; without a wildcard it is an exact match.
+	 * 
+	 * @param make  The LIKE pattern for the make key
+	 * @param limit The maximum number of vehicles to return
+	 * @return Matching vehicles ordered by make, model and reg
+	 */
+	@Query(ROW_SELECT + " where v.makeKey like :make escape '!'" + SEARCH_ORDER)
+	List<VehicleRow> searchRowsByMake(@Param("make") String make, Limit limit);
+
+	/**
+	 * Searches vehicles by the lower-cased model.
+	 * 
+	 * @param model The LIKE pattern for the model key
+	 * @param limit The maximum number of vehicles to return
+	 * @return Matching vehicles ordered by model, make and reg
+	 */
+	@Query(ROW_SELECT + " where v.modelKey like :model escape '!'" + MODEL_SEARCH_ORDER)
+	List<VehicleRow> searchRowsByModel(@Param("model") String model, Limit limit);
+
+	/**
+	 * Searches vehicles by the lower-cased make and model.
+	 * 
+	 * @param make  The LIKE pattern for the make key
+	 * @param model The LIKE pattern for the model key
+	 * @param limit The maximum number of vehicles to return
+	 * @return Matching vehicles ordered by make, model and reg
+	 */
+	@Query(ROW_SELECT + " where v.makeKey like :make escape '!' and v.modelKey like :model escape '!'"
+			+ SEARCH_ORDER)
+	List<VehicleRow> searchRowsByMakeAndModel(@Param("make") String make, @Param("model") String model,
+			Limit limit);
+
+	/**
+	 * Number of rows the JDBC driver fetches per round trip when streaming
+	 * vehicles. Keeps the driver buffer bounded however large the table is.
+	 */
+	int STREAM_FETCH_SIZE = 500;
+
+	/**
+	 * Streams all vehicles with their owner, mechanic and garage fetched in the
+	 * same query. Rows are read forward-only in batches of
+	 * {@link #STREAM_FETCH_SIZE} as the stream is consumed, so the result set is
+	 * never held in memory as a whole. The returned entities are read-only and the
+	 * stream must be consumed and closed inside a transaction.
+	 * 
+	 * @return A stream of all vehicles, in ID order
+	 */
+	@QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+			@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+	@Query("select v from Vehicle v left join fetch v.owner left join fetch v.mechanic m "
+			+ "left join fetch m.garage order by v.id")
+	Stream<Vehicle> streamAllWithAssociations();
 }
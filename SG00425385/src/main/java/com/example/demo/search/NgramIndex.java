@@ -0,0 +1,429 @@
+package com.example.demo.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory trigram inverted index for substring search over short text fields
+ * such as registrations, names and phone numbers.
+ *
+ * Field values and queries are normalized to lower-case letters and digits, so
+ * "09-g 992" finds "09-G-992". Each query token is answered by intersecting the
+ * posting bitsets of its trigrams and then checking the candidates, so the cost
+ * depends on the number of candidates rather than on the number of documents.
+ * Tokens shorter than a trigram are checked against every document.
+ *
+ * Documents are identified by type and key and can be replaced or removed at
+ * any time. All methods are thread-safe.
+ */
+public class NgramIndex {
+
+	private static final int N = 3;
+
+	/**
+	 * A searchable entity with weighted text fields.
+	 */
+	public static final class Document {
+		private final String type;
+		private final String key;
+		private final String label;
+		private final String[] fieldNames;
+		private final String[] values;
+		private final double[] weights;
+
+		/**
+		 * Creates a document.
+		 *
+		 * @param type       The entity type, such as "vehicle"
+		 * @param key        The natural key of the entity, unique within its type
+		 * @param label      Short text shown for the entity in search results
+		 * @param fieldNames The names of the searchable fields
+		 * @param values     The values of the fields, may contain nulls
+		 * @param weights    The weight of a match in each field
+		 */
+		public Document(String type, String key, String label, String[] fieldNames, String[] values,
+				double[] weights) {
+			this.type = type;
+			this.key = key;
+			this.label = label;
+			this.fieldNames = fieldNames;
+			this.values = new String[values.length];
+			for (int i = 0; i < values.length; i++) {
+				this.values[i] = normalize(values[i]);
+			}
+			this.weights = weights;
+		}
+	}
+
+	/**
+	 * A document matching a query.
+	 */
+	public static final class Hit {
+		private final Document document;
+		private final double score;
+		private final List<String> matchedFields;
+
+		private Hit(Document document, double score, List<String> matchedFields) {
+			this.document = document;
+			this.score = score;
+			this.matchedFields = matchedFields;
+		}
+
+		public String getType() {
+			return document.type;
+		}
+
+		public String getKey() {
+			return document.key;
+		}
+
+		public String getLabel() {
+			return document.label;
+		}
+
+		public double getScore() {
+			return score;
+		}
+
+		public List<String> getMatchedFields() {
+			return matchedFields;
+		}
+	}
+
+	/**
+	 * The best hits for a query together with the number of all matches.
+	 */
+	public static final class Result {
+		private final int total;
+		private final List<Hit> hits;
+
+		private Result(int total, List<Hit> hits) {
+			this.total = total;
+			this.hits = hits;
+		}
+
+		public int getTotal() {
+			return total;
+		}
+
+		public List<Hit> getHits() {
+			return hits;
+		}
+	}
+
+	/**
+	 * Ranking of the hits: best score first, then by label.
+	 */
+	private static final Comparator<Hit> RANKING = Comparator.comparingDouble(Hit::getScore).reversed()
+			.thenComparing(Hit::getLabel);
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/**
+	 * Documents by internal id. A replaced document keeps its id; a removed one
+	 * leaves a null slot until a new document reuses it, so the list never holds
+	 * more slots than the most documents indexed at once. Guarded by lock.
+	 */
+	private final List<Document> documents = new ArrayList<>();
+
+	/**
+	 * Ids of the null slots in documents, reused before the list grows. Guarded
+	 * by lock.
+	 */
+	private final Deque<Integer> freeIds = new ArrayDeque<>();
+
+	/**
+	 * Internal id of each document by type and key. Guarded by lock.
+	 */
+	private final Map<String, Integer> ids = new HashMap<>();
+
+	/**
+	 * Ids of the documents containing each trigram. Guarded by lock.
+	 */
+	private final Map<String, BitSet> postings = new HashMap<>();
+
+	/**
+	 * Ids of all live documents. Guarded by lock.
+	 */
+	private final BitSet live = new BitSet();
+
+	/**
+	 * Adds a document, replacing the document with the same type and key.
+	 *
+	 * @param document The document to index
+	 */
+	public void put(Document document) {
+		lock.writeLock().lock();
+		try {
+			// A replaced document's id was freed last, so the document keeps it
+			removeLocked(document.type, document.key);
+			int id;
+			if (freeIds.isEmpty()) {
+				id = documents.size();
+				documents.add(document);
+			} else {
+				id = freeIds.pop();
+				documents.set(id, document);
+			}
+			ids.put(document.type + ':' + document.key, id);
+			live.set(id);
+			for (String value : document.values) {
+				forEachGram(value, gram -> postings.computeIfAbsent(gram, g -> new BitSet()).set(id));
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a document if it is indexed.
+	 *
+	 * @param type The entity type
+	 * @param key  The natural key of the entity
+	 */
+	public void remove(String type, String key) {
+		lock.writeLock().lock();
+		try {
+			removeLocked(type, key);
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes all documents.
+	 */
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			documents.clear();
+			freeIds.clear();
+			ids.clear();
+			postings.clear();
+			live.clear();
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Finds the documents containing every token of the query in one of their
+	 * fields. A token matching a whole field scores three times its field weight,
+	 * a token matching the start of a field twice, and any other match once; the
+	 * score of a document is the sum over the tokens of their best match.
+	 *
+	 * Only the best hits up to the limit are kept and sorted, so a broad query
+	 * costs one pass over its matches rather than a sort of all of them.
+	 *
+	 * @param query The search text, split into tokens at whitespace
+	 * @param limit The maximum number of hits to return
+	 * @return The best hits, best first and then by label, and the number of all
+	 *         matches
+	 */
+	public Result search(String query, int limit) {
+		List<String> tokens = new ArrayList<>();
+		for (String part : query.trim().split("\\s+")) {
+			String token = normalize(part);
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		if (tokens.isEmpty() || limit < 1) {
+			return new Result(0, new ArrayList<>());
+		}
+
+		// Worst of the kept hits at the head, so it is the one replaced
+		PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024), RANKING.reversed());
+		int total = 0;
+		lock.readLock().lock();
+		try {
+			BitSet candidates = (BitSet) live.clone();
+			for (String token : tokens) {
+				forEachGram(token, gram -> {
+					BitSet posting = postings.get(gram);
+					if (posting == null) {
+						candidates.clear();
+					} else {
+						candidates.and(posting);
+					}
+				});
+			}
+
+			for (int id = candidates.nextSetBit(0); id >= 0; id = candidates.nextSetBit(id + 1)) {
+				Document document = documents.get(id);
+				double score = score(document, tokens);
+				if (score < 0) {
+					continue;
+				}
+				total++;
+				if (best.size() < limit) {
+					best.add(hit(document, score, tokens));
+				} else if (outranks(score, document.label, best.peek())) {
+					best.poll();
+					best.add(hit(document, score, tokens));
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		List<Hit> hits = new ArrayList<>(best);
+		hits.sort(RANKING);
+		return new Result(total, hits);
+	}
+
+	/**
+	 * Checks whether a match ranks before a kept hit, without building its Hit.
+	 */
+	private static boolean outranks(double score, String label, Hit hit) {
+		return score > hit.score || (score == hit.score && label.compareTo(hit.getLabel()) < 0);
+	}
+
+	/**
+	 * Gets the number of indexed documents.
+	 *
+	 * @return The document count
+	 */
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return live.cardinality();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Gets the number of document slots, live or free. The slots are only
+	 * released by {@link #clear()}.
+	 *
+	 * @return The slot count
+	 */
+	int slots() {
+		lock.readLock().lock();
+		try {
+			return documents.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Removes a document and its postings, freeing its id.
+	 *
+	 * @return The internal id the document had, or null if it wasn't indexed
+	 */
+	private Integer removeLocked(String type, String key) {
+		Integer id = ids.remove(type + ':' + key);
+		if (id == null) {
+			return null;
+		}
+		for (String value : documents.get(id).values) {
+			forEachGram(value, gram -> {
+				BitSet posting = postings.get(gram);
+				if (posting != null) {
+					posting.clear(id);
+					if (posting.isEmpty()) {
+						postings.remove(gram);
+					}
+				}
+			});
+		}
+		documents.set(id, null);
+		freeIds.push(id);
+		live.clear(id);
+		return id;
+	}
+
+	/**
+	 * Checks that every token occurs in the document and scores it. Needed because
+	 * sharing all trigrams doesn't guarantee the token occurs as a whole.
+	 *
+	 * @return The score, or a negative value if a token doesn't occur
+	 */
+	private static double score(Document document, List<String> tokens) {
+		double score = 0;
+		for (String token : tokens) {
+			int field = bestField(document, token);
+			if (field < 0) {
+				return -1;
+			}
+			score += fieldScore(document, field, token);
+		}
+		return score;
+	}
+
+	/**
+	 * Builds the hit of a matching document, listing the fields the tokens matched.
+	 */
+	private static Hit hit(Document document, double score, List<String> tokens) {
+		List<String> matched = new ArrayList<>();
+		for (String token : tokens) {
+			String field = document.fieldNames[bestField(document, token)];
+			if (!matched.contains(field)) {
+				matched.add(field);
+			}
+		}
+		return new Hit(document, score, matched);
+	}
+
+	private static int bestField(Document document, String token) {
+		double best = 0;
+		int bestField = -1;
+		for (int i = 0; i < document.values.length; i++) {
+			double fieldScore = fieldScore(document, i, token);
+			if (fieldScore > best) {
+				best = fieldScore;
+				bestField = i;
+			}
+		}
+		return bestField;
+	}
+
+	private static double fieldScore(Document document, int field, String token) {
+		String value = document.values[field];
+		if (value == null || !value.contains(token)) {
+			return 0;
+		}
+		return document.weights[field] * (value.equals(token) ? 3 : value.startsWith(token) ? 2 : 1);
+	}
+
+	private static void forEachGram(String value, Consumer<String> action) {
+		if (value == null) {
+			return;
+		}
+		for (int i = 0; i + N <= value.length(); i++) {
+			action.accept(value.substring(i, i + N));
+		}
+	}
+
+	/**
+	 * Reduces text to its lower-case letters and digits.
+	 *
+	 * @param text The text, may be null
+	 * @return The normalized text, or null
+	 */
+	static String normalize(String text) {
+		if (text == null) {
+			return null;
+		}
+		StringBuilder normalized = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (Character.isLetterOrDigit(c)) {
+				normalized.append(Character.toLowerCase(c));
+			}
+		}
+		return normalized.toString();
+	}
+}
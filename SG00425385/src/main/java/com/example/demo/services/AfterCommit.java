@@ -0,0 +1,34 @@
+package com.example.demo.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs side effects of a write, such as cache invalidation, once the write is
+ * visible to other transactions.
+ */
+public final class AfterCommit {
+
+	private AfterCommit() {
+	}
+
+	/**
+	 * Runs the action after the current transaction commits, or straight away if
+	 * there is no transaction. The action is skipped if the transaction rolls
+	 * back.
+	 *
+	 * @param action The action to run
+	 */
+	public static void run(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		} else {
+			action.run();
+		}
+	}
+}
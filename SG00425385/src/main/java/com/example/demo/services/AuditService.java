@@ -0,0 +1,334 @@
+package com.example.demo.services;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.audit.AuditEvent;
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.audit.AuditLog;
+import com.example.demo.dto.AuditEventDTO;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service that records vehicle creations, mechanic assignments and mechanic
+ * deletions in the audit log. Services report each change here; the event is
+ * queued once the transaction commits and written by a background thread in
+ * batches, so requests never wait for the log. If the queue is full, which
+ * only happens when the disk can't keep up, requests wait for room rather than
+ * losing events.
+ *
+ * With durability "interval" the log is forced to disk at most
+ * flush-interval-ms after an event is written; with "batch" every batch is
+ * forced before the next one is taken. In both modes, events still queued are
+ * lost if the process dies; written events survive a process crash, and
+ * forced events also survive a machine crash.
+ */
+@Service
+public class AuditService {
+
+	private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
+	/**
+	 * Maximum number of events written between two checks for forcing the log.
+	 */
+	private static final int MAX_BATCH = 1024;
+
+	/**
+	 * Maximum number of events returned by one query.
+	 */
+	public static final int MAX_QUERY_LIMIT = 1000;
+
+	/**
+	 * When written events are forced to disk.
+	 */
+	public enum Durability {
+		/**
+		 * Force at most flush-interval-ms after writing.
+		 */
+		INTERVAL,
+
+		/**
+		 * Force every batch before taking the next one.
+		 */
+		BATCH
+	}
+
+	/**
+	 * Directory of the log segments.
+	 */
+	@Value("${app.audit.dir:audit}")
+	private String directory;
+
+	/**
+	 * Size of each segment file in megabytes.
+	 */
+	@Value("${app.audit.segment-size-mb:16}")
+	private int segmentSizeMb;
+
+	/**
+	 * Number of segments kept, or 0 to keep all.
+	 */
+	@Value("${app.audit.max-segments:0}")
+	private int maxSegments;
+
+	/**
+	 * When written events are forced to disk.
+	 */
+	@Value("${app.audit.durability:interval}")
+	private Durability durability;
+
+	/**
+	 * Maximum time in milliseconds between writing an event and forcing it to
+	 * disk in interval mode.
+	 */
+	@Value("${app.audit.flush-interval-ms:1000}")
+	private long flushIntervalMillis;
+
+	/**
+	 * Number of events that can wait for the writer.
+	 */
+	@Value("${app.audit.queue-capacity:65536}")
+	private int queueCapacity;
+
+	/**
+	 * Registry of the queue size gauge.
+	 */
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private AuditLog auditLog;
+	private BlockingQueue<AuditEvent> queue;
+	private Thread writer;
+	private volatile boolean running;
+
+	/**
+	 * Number of events queued so far, counted just before they enter the queue.
+	 */
+	private final AtomicLong queued = new AtomicLong();
+
+	/**
+	 * Number of events written and forced so far. Guarded by this.
+	 */
+	private long forced;
+
+	/**
+	 * Set by {@link #flush()} to have the writer force the log straight away.
+	 */
+	private volatile boolean flushRequested;
+
+	/**
+	 * Opens the log and starts the writer thread.
+	 */
+	@PostConstruct
+	void start() throws IOException {
+		auditLog = new AuditLog(Path.of(directory), segmentSizeMb * 1024 * 1024, maxSegments);
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+		Gauge.builder("app.audit.queue", queue, BlockingQueue::size)
+				.description("Audit events waiting to be written").register(meterRegistry);
+		running = true;
+		writer = new Thread(this::writeLoop, "audit-writer");
+		writer.start();
+	}
+
+	/**
+	 * Writes the events still queued and closes the log.
+	 */
+	@PreDestroy
+	void stop() throws InterruptedException {
+		running = false;
+		writer.join();
+	}
+
+	/**
+	 * Records that a vehicle was created.
+	 *
+	 * @param reg The registration of the vehicle
+	 */
+	public void vehicleCreated(String reg) {
+		record(AuditEventType.VEHICLE_CREATED, reg, null, null);
+	}
+
+	/**
+	 * Records that a mechanic was assigned to a vehicle.
+	 *
+	 * @param reg         The registration of the vehicle
+	 * @param mid         The mechanic assigned
+	 * @param previousMid The mechanic previously assigned, or null if none or
+	 *                    unknown
+	 */
+	public void mechanicAssigned(String reg, String mid, String previousMid) {
+		record(AuditEventType.MECHANIC_ASSIGNED, reg, mid, previousMid);
+	}
+
+	/**
+	 * Records that a mechanic was assigned to vehicles whose previous mechanics
+	 * aren't known.
+	 *
+	 * @param regs The registrations of the vehicles
+	 * @param mid  The mechanic assigned
+	 */
+	public void mechanicAssigned(Collection<String> regs, String mid) {
+		regs.forEach(reg -> mechanicAssigned(reg, mid, null));
+	}
+
+	/**
+	 * Records that all vehicles of one mechanic were moved to another.
+	 *
+	 * @param fromMid The mechanic that serviced the vehicles
+	 * @param toMid   The mechanic now servicing them
+	 */
+	public void vehiclesMoved(String fromMid, String toMid) {
+		record(AuditEventType.VEHICLES_MOVED, null, toMid, fromMid);
+	}
+
+	/**
+	 * Records that mechanics were deleted.
+	 *
+	 * @param mids The identifiers of the deleted mechanics
+	 */
+	public void mechanicsDeleted(Collection<String> mids) {
+		mids.forEach(mid -> record(AuditEventType.MECHANIC_DELETED, null, mid, null));
+	}
+
+	/**
+	 * Finds recorded events. Events still waiting to be written are not found.
+	 *
+	 * @param reg   The registration to match, or null for any
+	 * @param mid   The mechanic to match, as the assigned or the previous one, or
+	 *              null for any
+	 * @param from  The earliest time to match, or null for any
+	 * @param to    The latest time to match, or null for any
+	 * @param limit The maximum number of events, defaults to
+	 *              {@link VehicleService#DEFAULT_PAGE_SIZE}
+	 * @return The matching events, oldest first
+	 * @throws IllegalArgumentException if the limit isn't between 1 and
+	 *                                  {@link #MAX_QUERY_LIMIT} or the time range
+	 *                                  is empty
+	 */
+	public List<AuditEventDTO> query(String reg, String mid, Instant from, Instant to, Integer limit) {
+		int max = limit == null ? VehicleService.DEFAULT_PAGE_SIZE : limit;
+		if (max < 1 || max > MAX_QUERY_LIMIT) {
+			throw new IllegalArgumentException("limit must be between 1 and " + MAX_QUERY_LIMIT);
+		}
+		long fromMillis = from == null ? Long.MIN_VALUE : from.toEpochMilli();
+		long toMillis = to == null ? Long.MAX_VALUE : to.toEpochMilli();
+		if (fromMillis > toMillis) {
+			throw new IllegalArgumentException("from must not be after to");
+		}
+		return auditLog.query(reg, mid, fromMillis, toMillis, max).stream().map(AuditEventDTO::new)
+				.collect(Collectors.toList());
+	}
+
+	/**
+	 * Waits until every event queued so far is written and forced to disk.
+	 *
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	public void flush() throws InterruptedException {
+		synchronized (this) {
+			long target = queued.get();
+			flushRequested = true;
+			while (forced < target && writer.isAlive()) {
+				wait(100);
+			}
+		}
+	}
+
+	/**
+	 * Queues an event once the current transaction commits, so changes that are
+	 * rolled back are never recorded.
+	 */
+	private void record(AuditEventType type, String reg, String mid, String previousMid) {
+		AfterCommit.run(() -> enqueue(new AuditEvent(System.currentTimeMillis(), type, reg, mid, previousMid)));
+	}
+
+	private void enqueue(AuditEvent event) {
+		if (!running) {
+			log.warn("Audit log closed, {} event for {} not recorded", event.getType(),
+					event.getReg() != null ? event.getReg() : event.getMid());
+			return;
+		}
+		queued.incrementAndGet();
+		try {
+			queue.put(event);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			queued.decrementAndGet();
+			log.warn("Interrupted while queueing {} event, not recorded", event.getType());
+		}
+	}
+
+	/**
+	 * Takes events off the queue in batches and appends them to the log until the
+	 * service is stopped and the queue is empty.
+	 */
+	private void writeLoop() {
+		List<AuditEvent> batch = new ArrayList<>(MAX_BATCH);
+		long pollMillis = Math.min(flushIntervalMillis, 100);
+		long lastForce = System.nanoTime();
+		long written = 0;
+		while (running || !queue.isEmpty()) {
+			try {
+				AuditEvent first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+				if (first != null) {
+					batch.add(first);
+					queue.drainTo(batch, MAX_BATCH - 1);
+				}
+				for (AuditEvent event : batch) {
+					try {
+						auditLog.append(event);
+					} catch (IOException | RuntimeException e) {
+						log.error("Could not write {} audit event of {} at {}", event.getType(), event.getReg(),
+								event.getTime(), e);
+					}
+				}
+				written += batch.size();
+
+				boolean due = durability == Durability.BATCH ? !batch.isEmpty()
+						: System.nanoTime() - lastForce >= TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+				if (due || flushRequested) {
+					flushRequested = false;
+					auditLog.force();
+					lastForce = System.nanoTime();
+					markForced(written);
+				}
+			} catch (InterruptedException e) {
+				// Only stop() ends the loop, after the queue is drained
+			} catch (RuntimeException e) {
+				log.error("Could not force the audit log", e);
+			}
+			batch.clear();
+		}
+
+		try {
+			auditLog.close();
+		} catch (IOException e) {
+			log.error("Could not close the audit log", e);
+		}
+		markForced(written);
+	}
+
+	private synchronized void markForced(long written) {
+		forced = Math.max(forced, written);
+		notifyAll();
+	}
+}
@@ -0,0 +1,455 @@
+package com.example.demo.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.csv.CsvReader;
+import com.example.demo.dto.ImportResultDTO;
+import com.example.demo.models.Vehicle;
+
+/**
+ * Service that imports garages, mechanics, customers and vehicles from CSV
+ * files. The file is parsed one record at a time, so its size is only bounded
+ * by the database. Rows are validated with the same rules as the API,
+ * collected into batches, checked against the database with one IN query per
+ * batch and inserted with JDBC batch statements. Each batch commits in its own
+ * transaction, so a file that fails halfway leaves the earlier batches in
+ * place; importing the same file again only reports those rows as existing.
+ *
+ * References to garages, customers and mechanics are given by their natural
+ * keys (gid, cid, mid) and resolved through maps of every key to its database
+ * id, loaded once per import. The garage summaries are rebuilt when the import
+ * ends, so the analytics lag behind the imported mechanics and vehicles while
+ * it runs.
+ */
+@Service
+public class CsvImportService {
+
+	private static final Logger log = LoggerFactory.getLogger(CsvImportService.class);
+
+	/**
+	 * Minimum time in milliseconds between two progress messages in the log.
+	 */
+	private static final long PROGRESS_INTERVAL_MILLIS = 5000;
+
+	/**
+	 * The kinds of entity that can be imported, with their table, natural key and
+	 * columns. The key column and the required columns must be in the header.
+	 */
+	private enum Target {
+		GARAGE("garage", "gid", "Garage", List.of("gid", "location", "budget"), List.of("gid", "budget")),
+		MECHANIC("mechanic", "mid", "Mechanic", List.of("mid", "name", "salary", "gid"), List.of("mid")),
+		CUSTOMER("customer", "cid", "Customer", List.of("cid", "name", "phone"), List.of("cid")),
+		VEHICLE("vehicle", "reg", "Registration", List.of("reg", "make", "model", "cid", "mid"),
+				List.of("reg", "make", "model"));
+
+		private final String table;
+		private final String key;
+		private final String label;
+		private final List<String> columns;
+		private final List<String> required;
+
+		Target(String table, String key, String label, List<String> columns, List<String> required) {
+			this.table = table;
+			this.key = key;
+			this.label = label;
+			this.columns = columns;
+			this.required = required;
+		}
+
+		static Target of(String entity) {
+			for (Target target : values()) {
+				if (target.table.equalsIgnoreCase(entity)) {
+					return target;
+				}
+			}
+			throw new IllegalArgumentException("Entity must be one of garage, mechanic, customer or vehicle");
+		}
+	}
+
+	/**
+	 * A validated row waiting in a batch.
+	 */
+	private static final class Row {
+		private final int line;
+		private final String key;
+		private final Object[] values;
+
+		Row(int line, String key, Object[] values) {
+			this.line = line;
+			this.key = key;
+			this.values = values;
+		}
+	}
+
+	/**
+	 * Number of rows inserted per transaction and JDBC batch.
+	 */
+	@Value("${app.import.batch-size:1000}")
+	private int batchSize;
+
+	/**
+	 * JDBC access used for the key lookups and batched inserts.
+	 */
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Runs each batch in its own transaction.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * Search index updated with the imported vehicles, customers and mechanics.
+	 */
+	@Autowired
+	private SearchService searchService;
+
+	/**
+	 * Lookup caches of vehicles and mechanics.
+	 */
+	@Autowired
+	private LookupCacheService lookupCacheService;
+
+	/**
+	 * Hibernate's query cache, which doesn't see the JDBC batch inserts.
+	 */
+	@Autowired
+	private SecondLevelCacheService secondLevelCacheService;
+
+	/**
+	 * Running totals of the garages, rebuilt after the import.
+	 */
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	/**
+	 * Version of the vehicle listings, bumped by every batch.
+	 */
+	@Autowired
+	private DataVersionService dataVersionService;
+
+	/**
+	 * Audit log of vehicle creations.
+	 */
+	@Autowired
+	private AuditService auditService;
+
+	/**
+	 * Imports a CSV file. The first record must be a header naming the columns,
+	 * in any order:
+	 * <ul>
+	 * <li>garage: gid, location, budget</li>
+	 * <li>mechanic: mid, name, salary, gid (the garage)</li>
+	 * <li>customer: cid, name, phone</li>
+	 * <li>vehicle: reg, make, model, cid (the owner), mid (the mechanic)</li>
+	 * </ul>
+	 * Empty values are imported as null. Rows whose key already exists, appears
+	 * earlier in the file or refers to a missing garage, customer or mechanic
+	 * are rejected and reported.
+	 *
+	 * @param entity The kind of entity in the file: garage, mechanic, customer or
+	 *               vehicle
+	 * @param in     The CSV file, encoded in UTF-8
+	 * @return The number of rows read, imported and rejected, with the first row
+	 *         errors
+	 * @throws IOException              if the file can't be read
+	 * @throws IllegalArgumentException if the entity is unknown, the header is
+	 *                                  invalid or the file is malformed; batches
+	 *                                  before the malformed record stay imported
+	 */
+	public ImportResultDTO importCsv(String entity, InputStream in) throws IOException {
+		Target target = Target.of(entity);
+		long start = System.currentTimeMillis();
+		ImportResultDTO result = new ImportResultDTO(target.table);
+
+		try (CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			List<String> header = reader.readRecord();
+			if (header == null) {
+				throw new IllegalArgumentException("The file is empty");
+			}
+			int[] positions = positions(target, header);
+
+			Map<String, Integer> garageIds = target == Target.MECHANIC ? loadIds("garage", "gid") : Map.of();
+			Map<String, Integer> customerIds = target == Target.VEHICLE ? loadIds("customer", "cid") : Map.of();
+			Map<String, Integer> mechanicIds = target == Target.VEHICLE ? loadIds("mechanic", "mid") : Map.of();
+
+			List<Row> batch = new ArrayList<>(batchSize);
+			Set<String> batchKeys = new HashSet<>();
+			long lastProgress = start;
+			List<String> record;
+			while (true) {
+				try {
+					record = reader.readRecord();
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException(
+							e.getMessage() + "; " + result.getImported() + " rows were imported before it");
+				}
+				if (record == null) {
+					break;
+				}
+				result.setRows(result.getRows() + 1);
+				int line = reader.getRecordLine();
+
+				String key = record.size() > positions[0] ? value(record, positions[0]) : null;
+				if (record.size() != header.size()) {
+					result.addError(line, key,
+							"Expected " + header.size() + " fields but found " + record.size());
+					continue;
+				}
+				Object[] values;
+				try {
+					values = switch (target) {
+					case GARAGE -> garage(record, positions);
+					case MECHANIC -> mechanic(record, positions, garageIds);
+					case CUSTOMER -> customer(record, positions);
+					case VEHICLE -> vehicle(record, positions, customerIds, mechanicIds);
+					};
+				} catch (IllegalArgumentException e) {
+					result.addError(line, key, e.getMessage());
+					continue;
+				}
+				if (!batchKeys.add(key)) {
+					result.addError(line, key, target.label + " " + key + " is duplicated in the file");
+					continue;
+				}
+				batch.add(new Row(line, key, values));
+
+				if (batch.size() == batchSize) {
+					insertBatch(target, batch, result);
+					batch.clear();
+					batchKeys.clear();
+					long now = System.currentTimeMillis();
+					if (now - lastProgress >= PROGRESS_INTERVAL_MILLIS) {
+						lastProgress = now;
+						log.info("Importing {} rows: {} read, {} imported, {} rejected in {} ms", target.table,
+								result.getRows(), result.getImported(), result.getFailed(), now - start);
+					}
+				}
+			}
+			insertBatch(target, batch, result);
+		} finally {
+			if (result.getImported() > 0 && target != Target.CUSTOMER) {
+				garageAnalyticsService.rebuild();
+			}
+		}
+
+		result.sortErrors();
+		result.setMillis(System.currentTimeMillis() - start);
+		log.info("Imported {} rows: {} read, {} imported, {} rejected in {} ms", target.table, result.getRows(),
+				result.getImported(), result.getFailed(), result.getMillis());
+		return result;
+	}
+
+	/**
+	 * Finds the position of each column of the target in the header, or -1 for
+	 * optional columns that are missing. The key column comes first.
+	 */
+	private static int[] positions(Target target, List<String> header) {
+		List<String> names = header.stream().map(name -> name.trim().toLowerCase(Locale.ROOT))
+				.collect(Collectors.toList());
+		for (String name : names) {
+			if (!target.columns.contains(name)) {
+				throw new IllegalArgumentException("Unknown column " + name + ", expected "
+						+ String.join(", ", target.columns));
+			}
+			if (Collections.frequency(names, name) > 1) {
+				throw new IllegalArgumentException("Column " + name + " appears more than once");
+			}
+		}
+		for (String column : target.required) {
+			if (!names.contains(column)) {
+				throw new IllegalArgumentException("Column " + column + " is missing");
+			}
+		}
+		return target.columns.stream().mapToInt(names::indexOf).toArray();
+	}
+
+	/**
+	 * Loads the database id of every row of a table by its natural key.
+	 */
+	private Map<String, Integer> loadIds(String table, String key) {
+		Map<String, Integer> ids = new HashMap<>();
+		jdbcTemplate.query("SELECT " + key + ", id FROM " + table,
+				rs -> {
+					ids.put(rs.getString(1), rs.getInt(2));
+				});
+		return ids;
+	}
+
+	private static Object[] garage(List<String> record, int[] positions) {
+		String gid = value(record, positions[0]);
+		if (gid == null) {
+			throw new IllegalArgumentException("Garage ID (gid) must be provided");
+		}
+		String budget = value(record, positions[2]);
+		if (budget == null) {
+			throw new IllegalArgumentException("Budget must be provided");
+		}
+		try {
+			return new Object[] { gid, value(record, positions[1]), Integer.parseInt(budget) };
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Budget must be a whole number");
+		}
+	}
+
+	private static Object[] mechanic(List<String> record, int[] positions, Map<String, Integer> garageIds) {
+		String mid = value(record, positions[0]);
+		if (mid == null) {
+			throw new IllegalArgumentException("Mechanic ID (mid) must be provided");
+		}
+		String salary = value(record, positions[2]);
+		Double salaryValue;
+		try {
+			salaryValue = salary == null ? null : Double.valueOf(salary);
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("Salary must be a number");
+		}
+		return new Object[] { mid, value(record, positions[1]), salaryValue,
+				resolve(value(record, positions[3]), garageIds, "Garage") };
+	}
+
+	private static Object[] customer(List<String> record, int[] positions) {
+		String cid = value(record, positions[0]);
+		if (cid == null) {
+			throw new IllegalArgumentException("Customer ID (cid) must be provided");
+		}
+		return new Object[] { cid, value(record, positions[1]), value(record, positions[2]) };
+	}
+
+	private static Object[] vehicle(List<String> record, int[] positions, Map<String, Integer> customerIds,
+			Map<String, Integer> mechanicIds) {
+		String reg = value(record, positions[0]);
+		String make = value(record, positions[1]);
+		String model = value(record, positions[2]);
+		if (reg == null) {
+			throw new IllegalArgumentException("Registration (reg) must be provided");
+		}
+		if (make == null) {
+			throw new IllegalArgumentException("Make must be provided");
+		}
+		if (model == null) {
+			throw new IllegalArgumentException("Model must be provided");
+		}
+		return new Object[] { reg, make, model, Vehicle.searchKey(make), Vehicle.searchKey(model),
+				resolve(value(record, positions[3]), customerIds, "Customer"),
+				resolve(value(record, positions[4]), mechanicIds, "Mechanic") };
+	}
+
+	/**
+	 * Gets the database id of a referenced row.
+	 *
+	 * @return The id, or null if no key is given
+	 * @throws IllegalArgumentException if the key doesn't exist
+	 */
+	private static Integer resolve(String key, Map<String, Integer> ids, String label) {
+		if (key == null) {
+			return null;
+		}
+		Integer id = ids.get(key);
+		if (id == null) {
+			throw new IllegalArgumentException(label + " " + key + " doesn't exist");
+		}
+		return id;
+	}
+
+	/**
+	 * Gets a trimmed value, or null if the column is missing or the value empty.
+	 */
+	private static String value(List<String> record, int position) {
+		if (position < 0) {
+			return null;
+		}
+		String value = record.get(position).trim();
+		return value.isEmpty() ? null : value;
+	}
+
+	/**
+	 * Inserts a batch in one transaction, skipping rows whose key already exists.
+	 * If a concurrent insert takes a key between the check and the insert, the
+	 * batch is rolled back and tried once more.
+	 */
+	private void insertBatch(Target target, List<Row> batch, ImportResultDTO result) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		List<Row> inserted;
+		try {
+			inserted = transactionTemplate.execute(status -> insert(target, batch, result));
+		} catch (DuplicateKeyException e) {
+			inserted = transactionTemplate.execute(status -> insert(target, batch, result));
+		}
+		result.setImported(result.getImported() + inserted.size());
+	}
+
+	private List<Row> insert(Target target, List<Row> batch, ImportResultDTO result) {
+		List<String> keys = batch.stream().map(row -> row.key).collect(Collectors.toList());
+		Set<String> existing = new HashSet<>(jdbcTemplate.queryForList("SELECT " + target.key + " FROM "
+				+ target.table + " WHERE " + target.key + " IN ("
+				+ String.join(", ", Collections.nCopies(keys.size(), "?")) + ")", String.class, keys.toArray()));
+
+		List<Row> rows = batch;
+		if (!existing.isEmpty()) {
+			rows = batch.stream().filter(row -> !existing.contains(row.key)).collect(Collectors.toList());
+		}
+		jdbcTemplate.batchUpdate(insertSql(target),
+				rows.stream().map(row -> row.values).collect(Collectors.toList()));
+
+		// Report rejected rows only once the batch is certain to commit
+		AfterCommit.run(() -> batch.stream().filter(row -> existing.contains(row.key))
+				.forEach(row -> result.addError(row.line, row.key, target.label + " " + row.key + " already exists")));
+
+		for (Row row : rows) {
+			Object[] values = row.values;
+			switch (target) {
+			case MECHANIC -> {
+				searchService.indexMechanic(row.key, (String) values[1]);
+				lookupCacheService.evictMechanic(row.key);
+			}
+			case CUSTOMER -> searchService.indexCustomer(row.key, (String) values[1], (String) values[2]);
+			case VEHICLE -> {
+				searchService.indexVehicle(row.key, (String) values[1], (String) values[2]);
+				auditService.vehicleCreated(row.key);
+			}
+			default -> {
+			}
+			}
+		}
+		if (target == Target.VEHICLE) {
+			secondLevelCacheService.evictVehicleQueries();
+		}
+		dataVersionService.changed();
+		return rows;
+	}
+
+	private static String insertSql(Target target) {
+		return switch (target) {
+		case GARAGE -> "INSERT INTO garage (gid, location, budget) VALUES (?, ?, ?)";
+		case MECHANIC -> "INSERT INTO mechanic (mid, name, salary, garage_id) VALUES (?, ?, ?, ?)";
+		case CUSTOMER -> "INSERT INTO customer (cid, name, phone) VALUES (?, ?, ?)";
+		case VEHICLE -> "INSERT INTO vehicle (reg, make, model, make_key, model_key, owner_id, mechanic_id) "
+				+ "VALUES (?, ?, ?, ?, ?, ?, ?)";
+		};
+	}
+}
@@ -0,0 +1,42 @@
+package com.example.demo.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Service;
+
+/**
+ * Service that keeps a version number of the vehicle data, used as the ETag of
+ * the vehicle listings. Every service method that changes vehicles, or the
+ * mechanics, garages or owners shown with them, must call {@link #changed()}.
+ *
+ * The version starts with the startup time of this instance, so ETags handed
+ * out before a restart don't match afterwards. The counter is kept in memory,
+ * so it only sees writes made through this instance.
+ */
+@Service
+public class DataVersionService {
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+	private final AtomicLong counter = new AtomicLong();
+
+	/**
+	 * Gets the current version. Callers must read the version before reading the
+	 * data, so a concurrent write can only make the returned data newer than its
+	 * version, never older.
+	 *
+	 * @return The version, sent as a weak ETag since the bodies of one version
+	 *         differ by negotiated format
+	 */
+	public String getVersion() {
+		return epoch + "-" + counter.get();
+	}
+
+	/**
+	 * Records that the vehicle data changed. Inside a transaction the version is
+	 * bumped after commit, so a reader can't pair the new version with the old
+	 * data.
+	 */
+	public void changed() {
+		AfterCommit.run(counter::incrementAndGet);
+	}
+}
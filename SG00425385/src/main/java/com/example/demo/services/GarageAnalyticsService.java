@@ -0,0 +1,213 @@
+package com.example.demo.services;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.GarageAnalyticsDTO;
+import com.example.demo.dto.MechanicWorkloadDTO;
+import com.example.demo.models.Mechanic;
+import com.example.demo.repositories.GarageRepository;
+import com.example.demo.repositories.GarageSummaryRepository;
+import com.example.demo.repositories.MechanicRepository;
+import com.example.demo.repositories.VehicleRepository;
+
+/**
+ * Service behind the garage payroll and workload analytics. The figures are
+ * read from a summary row per garage, which services that move vehicles
+ * between garages or remove mechanics must keep up to date through this
+ * service, in the same transaction as the change. Creating a vehicle doesn't
+ * change any garage, since new vehicles have no mechanic yet.
+ *
+ * The summaries are rebuilt from the mechanic and vehicle tables at startup
+ * when app.analytics.rebuild-on-startup is set, for a database that was just
+ * created and seeded, and can be rebuilt on demand after changes made outside
+ * the application.
+ */
+@Service
+public class GarageAnalyticsService {
+
+	/**
+	 * Repository for accessing garage data in the database. Autowired by Spring to
+	 * inject the repository implementation.
+	 */
+	@Autowired
+	private GarageRepository garageRepository;
+
+	/**
+	 * Repository for accessing the garage summaries in the database. Autowired by
+	 * Spring to inject the repository implementation.
+	 */
+	@Autowired
+	private GarageSummaryRepository garageSummaryRepository;
+
+	/**
+	 * Repository for accessing mechanic data in the database. Autowired by Spring
+	 * to inject the repository implementation.
+	 */
+	@Autowired
+	private MechanicRepository mechanicRepository;
+
+	/**
+	 * Repository for accessing vehicle data in the database. Autowired by Spring to
+	 * inject the repository implementation.
+	 */
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	/**
+	 * Whether to rebuild the summaries once the application has started. Off for
+	 * instances joining a running database, whose summaries are already kept up
+	 * to date and shared with the other instances.
+	 */
+	@Value("${app.analytics.rebuild-on-startup:false}")
+	private boolean rebuildOnStartup;
+
+	/**
+	 * Gets the payroll and workload figures of every garage from the summaries,
+	 * reading one row per garage.
+	 *
+	 * @return The figures of each garage, in gid order
+	 */
+	@Transactional(readOnly = true)
+	public List<GarageAnalyticsDTO> getAnalytics() {
+		return garageSummaryRepository.findAllAnalytics();
+	}
+
+	/**
+	 * Computes the payroll and workload figures of every garage with aggregate
+	 * queries over the mechanic and vehicle tables, bypassing the summaries.
+	 *
+	 * @return The figures of each garage, in gid order
+	 */
+	@Transactional(readOnly = true)
+	public List<GarageAnalyticsDTO> computeAnalytics() {
+		return garageRepository.computeAnalytics();
+	}
+
+	/**
+	 * Counts the vehicles of each mechanic of a garage.
+	 *
+	 * @param gid The garage's unique identifier code
+	 * @return The workload of each mechanic of the garage, in mid order
+	 * @throws IllegalArgumentException if the garage doesn't exist
+	 */
+	@Transactional(readOnly = true)
+	public List<MechanicWorkloadDTO> getWorkload(String gid) {
+		if (!garageRepository.existsByGid(gid)) {
+			throw new IllegalArgumentException("Garage " + gid + " doesn't exist");
+		}
+		return mechanicRepository.findWorkloadByGarage(gid);
+	}
+
+	/**
+	 * Recomputes the summaries of all garages once the application has started,
+	 * if enabled.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional
+	public void rebuildOnStartup() {
+		if (rebuildOnStartup) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Recomputes the summaries of all garages.
+	 *
+	 * @return The number of garages summarized
+	 */
+	@Transactional
+	public int rebuild() {
+		garageSummaryRepository.deleteAllSummaries();
+		return garageSummaryRepository.insertAllSummaries();
+	}
+
+	/**
+	 * Locks vehicles that are about to be assigned to another mechanic and finds
+	 * the garages currently servicing them. The locks are held until the
+	 * transaction ends, so the garages can't change before
+	 * {@link #vehiclesAssigned} is called.
+	 *
+	 * @param regs The registration numbers of the vehicles
+	 * @return The garage of each vehicle that has one, once per vehicle
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public List<Integer> lockCurrentGarages(Collection<String> regs) {
+		vehicleRepository.lockByRegs(regs);
+		return vehicleRepository.findGarageIdsByRegs(regs);
+	}
+
+	/**
+	 * Moves vehicles in the summaries after they were assigned to a mechanic.
+	 *
+	 * @param previousGarages The garages returned by {@link #lockCurrentGarages},
+	 *                        or read with vehicles whose versions the update
+	 *                        checked
+	 * @param mechanic        The mechanic the vehicles were assigned to
+	 * @param count           The number of vehicles assigned
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void vehiclesAssigned(List<Integer> previousGarages, Mechanic mechanic, int count) {
+		Map<Integer, Integer> deltas = new TreeMap<>();
+		for (Integer garageId : previousGarages) {
+			deltas.merge(garageId, -1, Integer::sum);
+		}
+		if (mechanic.getGarage() != null) {
+			deltas.merge(mechanic.getGarage().getId(), count, Integer::sum);
+		}
+		applyVehicleDeltas(deltas);
+	}
+
+	/**
+	 * Moves vehicles in the summaries after all vehicles of one mechanic were
+	 * assigned to another.
+	 *
+	 * @param from  The mechanic that serviced the vehicles
+	 * @param to    The mechanic now servicing them
+	 * @param count The number of vehicles moved
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void vehiclesMoved(Mechanic from, Mechanic to, int count) {
+		Map<Integer, Integer> deltas = new TreeMap<>();
+		if (from.getGarage() != null) {
+			deltas.merge(from.getGarage().getId(), -count, Integer::sum);
+		}
+		if (to.getGarage() != null) {
+			deltas.merge(to.getGarage().getId(), count, Integer::sum);
+		}
+		applyVehicleDeltas(deltas);
+	}
+
+	/**
+	 * Takes mechanics out of the summaries of their garages. Must be called
+	 * before the mechanics are deleted, with only the mechanics that will be.
+	 *
+	 * @param mids The identifiers of the mechanics about to be deleted
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void mechanicsRemoved(Collection<String> mids) {
+		garageSummaryRepository.removeMechanics(mids);
+	}
+
+	/**
+	 * Applies the changes in garage order, so concurrent transactions lock the
+	 * summaries in the same order.
+	 */
+	private void applyVehicleDeltas(Map<Integer, Integer> deltas) {
+		deltas.forEach((garageId, delta) -> {
+			if (delta != 0) {
+				garageSummaryRepository.addVehicles(garageId, delta);
+			}
+		});
+	}
+}
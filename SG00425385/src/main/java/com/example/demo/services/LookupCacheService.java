@@ -0,0 +1,92 @@
+package com.example.demo.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.cache.LookupCache;
+import com.example.demo.dto.CacheStatsDTO;
+import com.example.demo.models.Mechanic;
+import com.example.demo.repositories.MechanicRepository;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Service that puts a bounded read-through cache in front of the lookups of
+ * mechanics by mid. Services that change or delete mechanics must evict the
+ * affected keys through this service.
+ *
+ * Vehicles are not cached: their reads need the current version for the ETag
+ * and conditional updates, which a per-instance cache can't guarantee.
+ *
+ * Cached entities are detached, so only their own columns and eager
+ * associations may be used; lazy collections are not available. They are also
+ * shared by every reader, so they must never be changed: writes load the
+ * entity in their own transaction and evict the key instead.
+ */
+@Service
+public class LookupCacheService {
+
+	/**
+	 * Repository for accessing mechanic data in the database. Autowired by Spring
+	 * to inject the repository implementation.
+	 */
+	@Autowired
+	private MechanicRepository mechanicRepository;
+
+	/**
+	 * Maximum number of entries in the cache.
+	 */
+	@Value("${app.cache.lookup.max-size:10000}")
+	private int maxSize;
+
+	/**
+	 * Time in seconds after which a cached entry is reloaded.
+	 */
+	@Value("${app.cache.lookup.ttl-seconds:300}")
+	private long ttlSeconds;
+
+	private LookupCache<String, Mechanic> mechanics;
+
+	/**
+	 * Creates the cache once the configuration has been injected.
+	 */
+	@PostConstruct
+	void init() {
+		mechanics = new LookupCache<>("mechanicsByMid", maxSize, ttlSeconds);
+	}
+
+	/**
+	 * Finds a mechanic by their unique identifier, from the cache if possible.
+	 *
+	 * @param mid The mechanic's unique identifier code
+	 * @return The Mechanic entity if found, or null if no mechanic exists with the
+	 *         specified mid
+	 */
+	public Mechanic findMechanicByMid(String mid) {
+		return mechanics.get(mid, mechanicRepository::findByMid);
+	}
+
+	/**
+	 * Evicts a mechanic after it has been changed or deleted. Inside a transaction
+	 * the entry is evicted again after commit, so a lookup running before the
+	 * commit can't leave the old state cached.
+	 *
+	 * @param mid The identifier of the changed mechanic
+	 */
+	public void evictMechanic(String mid) {
+		mechanics.invalidate(mid);
+		AfterCommit.run(() -> mechanics.invalidate(mid));
+	}
+
+	/**
+	 * Gets the hit, miss and eviction counters of the lookup cache.
+	 *
+	 * @return The statistics of the cache
+	 */
+	public List<CacheStatsDTO> getStats() {
+		return List.of(mechanics.getStats());
+	}
+}
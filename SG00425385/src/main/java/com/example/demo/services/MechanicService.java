@@ -1,10 +1,19 @@
 package com.example.demo.services;
 
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.demo.dto.BulkDeleteResultDTO;
 import com.example.demo.models.Mechanic;
 import com.example.demo.repositories.MechanicRepository;
+import com.example.demo.repositories.VehicleRepository;
 
 /**
  * Service class that handles the logic for mechanic operations.
@@ -19,6 +28,44 @@ public class MechanicService {
 	@Autowired
 	private MechanicRepository mechanicRepository;
 
+	/**
+	 * Repository for accessing vehicle data in the database. Autowired by Spring to
+	 * inject the repository implementation.
+	 */
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	/**
+	 * Cached lookups of mechanics by mid.
+	 */
+	@Autowired
+	private LookupCacheService lookupCacheService;
+
+	/**
+	 * Version of the vehicle data, which includes the mechanics.
+	 */
+	@Autowired
+	private DataVersionService dataVersionService;
+
+	/**
+	 * Front desk search index, updated when mechanics are deleted.
+	 */
+	@Autowired
+	private SearchService searchService;
+
+	/**
+	 * Running totals of the garages, updated when mechanics are deleted or their
+	 * vehicles move.
+	 */
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	/**
+	 * Audit log of mechanic deletions and reassignments.
+	 */
+	@Autowired
+	private AuditService auditService;
+
 	/**
 	 * Deletes a mechanic from the system by their unique identifier. This method
 	 * enforces rules such as preventing deletion of mechanics who are currently
@@ -28,22 +75,119 @@ public class MechanicService {
 	 * @throws IllegalArgumentException if the mechanic doesn't exist or is
 	 *                                  servicing vehicles
 	 */
+	@Transactional
 	public void deleteMechanic(String mid) {
-		// Find the mechanic by mid
-		Mechanic mechanic = mechanicRepository.findByMid(mid);
+		BulkDeleteResultDTO result = deleteMechanics(List.of(mid));
 
-		// Check if mechanic exists
-		if (mechanic == null) {
+		// Nothing was deleted in either case, so there is nothing to roll back
+		if (!result.getMissing().isEmpty()) {
 			throw new IllegalArgumentException("Mechanic " + mid + " doesn't exist");
 		}
-
-		// Check if mechanic is servicing any vehicles
-		if (mechanic.getVehicles() != null && !mechanic.getVehicles().isEmpty()) {
+		if (!result.getBlocked().isEmpty()) {
 			throw new IllegalArgumentException("Mechanic " + mid + " is still servicing vehicles");
+		}
+	}
+
+	/**
+	 * Deletes the given mechanics that don't service any vehicle, with set-based
+	 * statements whatever the number of mechanics. The mechanics are locked
+	 * first, so a vehicle can't be assigned to one of them between the check and
+	 * the conditional DELETE, which also re-checks the vehicles itself.
+	 *
+	 * @param mids The unique identifiers of the mechanics to delete
+	 * @return The mechanics deleted, blocked because they service vehicles and
+	 *         missing, in request order
+	 * @throws IllegalArgumentException if the list is empty, contains a null
+	 *                                  identifier or has more than
+	 *                                  {@link VehicleService#MAX_BULK_SIZE}
+	 *                                  mechanics
+	 */
+	@Transactional
+	public BulkDeleteResultDTO deleteMechanics(Collection<String> mids) {
+		Set<String> uniqueMids = new LinkedHashSet<>(mids);
+		if (uniqueMids.isEmpty()) {
+			throw new IllegalArgumentException("mids must contain at least one mechanic");
+		}
+		if (uniqueMids.contains(null)) {
+			throw new IllegalArgumentException("mids must not contain null");
+		}
+		if (uniqueMids.size() > VehicleService.MAX_BULK_SIZE) {
+			throw new IllegalArgumentException(
+					"At most " + VehicleService.MAX_BULK_SIZE + " mechanics can be deleted at once");
+		}
+
+		// Lock the existing mechanics and sort the request out without loading any
+		// entity or collection
+		Set<String> existing = new HashSet<>(mechanicRepository.lockByMids(uniqueMids));
+		Set<String> busy = existing.isEmpty() ? Set.of()
+				: new HashSet<>(mechanicRepository.findMidsServicingVehicles(existing));
+
+		BulkDeleteResultDTO result = new BulkDeleteResultDTO();
+		for (String mid : uniqueMids) {
+			if (!existing.contains(mid)) {
+				result.getMissing().add(mid);
+			} else if (busy.contains(mid)) {
+				result.getBlocked().add(mid);
+			} else {
+				result.getDeleted().add(mid);
+			}
+		}
+		if (result.getDeleted().isEmpty()) {
+			return result;
+		}
 
+		garageAnalyticsService.mechanicsRemoved(result.getDeleted());
+		int deleted = mechanicRepository.deleteIdleByMids(result.getDeleted());
+		if (deleted != result.getDeleted().size()) {
+			// Can't happen while the mechanics are locked, but the summaries must not
+			// drift if it does
+			throw new IllegalStateException(
+					"Expected to delete " + result.getDeleted().size() + " mechanics but deleted " + deleted);
 		}
 
-		// Delete the mechanic if all checks pass
-		mechanicRepository.delete(mechanic);
+		for (String mid : result.getDeleted()) {
+			lookupCacheService.evictMechanic(mid);
+			searchService.removeMechanic(mid);
+		}
+		auditService.mechanicsDeleted(result.getDeleted());
+		dataVersionService.changed();
+		return result;
+	}
+
+	/**
+	 * Moves all vehicles serviced by one mechanic to another mechanic, for example
+	 * when a mechanic goes on leave. Both mechanics are checked once and the
+	 * vehicles are moved by a single UPDATE statement.
+	 *
+	 * @param fromMid The identifier of the mechanic currently servicing the
+	 *                vehicles
+	 * @param toMid   The identifier of the mechanic to assign
+	 * @return The number of vehicles moved
+	 * @throws IllegalArgumentException if either mechanic doesn't exist or both
+	 *                                  are the same
+	 */
+	@Transactional
+	public int reassignAllVehicles(String fromMid, String toMid) {
+		if (fromMid.equals(toMid)) {
+			throw new IllegalArgumentException(
+					"Vehicles of mechanic " + fromMid + " can't be reassigned to the same mechanic");
+		}
+
+		Mechanic from = lookupCacheService.findMechanicByMid(fromMid);
+		if (from == null) {
+			throw new IllegalArgumentException("Mechanic " + fromMid + " doesn't exist");
+		}
+		Mechanic to = lookupCacheService.findMechanicByMid(toMid);
+		if (to == null) {
+			throw new IllegalArgumentException("Mechanic " + toMid + " doesn't exist");
+		}
+
+		int updated = vehicleRepository.updateMechanicByMechanic(from, to);
+		garageAnalyticsService.vehiclesMoved(from, to, updated);
+		if (updated > 0) {
+			auditService.vehiclesMoved(fromMid, toMid);
+		}
+		dataVersionService.changed();
+		return updated;
 	}
 }
@@ -0,0 +1,89 @@
+package com.example.demo.services;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.dto.VehicleRow;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Service that reads vehicles over R2DBC for the reactive read API. It runs the
+ * same joined query as the listings of {@link VehicleService} and builds the
+ * same DTOs, but no thread waits for the database: rows are emitted as the
+ * driver receives them, and only as fast as the subscriber requests them, so a
+ * slow consumer of a large listing holds back the query instead of buffering
+ * it.
+ *
+ * Reads bypass JPA, so they don't see the Hibernate caches and don't take part
+ * in JDBC transactions or the read replica routing.
+ */
+@Service
+public class ReactiveVehicleService {
+
+	private static final String ROW_SELECT = "SELECT v.id, v.reg, v.make, v.model, v.version, c.cid, "
+			+ "c.name AS owner_name, m.mid, m.name AS mechanic_name, m.salary, g.gid, g.location, g.budget "
+			+ "FROM vehicle v "
+			+ "LEFT JOIN customer c ON c.id = v.owner_id LEFT JOIN mechanic m ON m.id = v.mechanic_id "
+			+ "LEFT JOIN garage g ON g.id = m.garage_id";
+
+	/**
+	 * Non-blocking client of the reactive connection pool.
+	 */
+	@Autowired
+	private DatabaseClient reactiveDatabaseClient;
+
+	/**
+	 * Service whose row conversion keeps the DTOs identical to the servlet API.
+	 */
+	@Autowired
+	private VehicleService vehicleService;
+
+	/**
+	 * Reads all vehicles with their owner, mechanic and garage.
+	 *
+	 * @return The vehicles as DTOs, in ID order
+	 */
+	public Flux<VehicleDTO> getAllVehiclesDTO() {
+		return reactiveDatabaseClient.sql(ROW_SELECT + " ORDER BY v.id").map(this::toDTO).all();
+	}
+
+	/**
+	 * Reads the vehicles of one make with their owner, mechanic and garage.
+	 *
+	 * @param make The vehicle manufacturer to filter by
+	 * @return The vehicles as DTOs, in ID order
+	 */
+	public Flux<VehicleDTO> getVehiclesDTOByMake(String make) {
+		return reactiveDatabaseClient.sql(ROW_SELECT + " WHERE v.make = :make ORDER BY v.id").bind("make", make)
+				.map(this::toDTO).all();
+	}
+
+	/**
+	 * Reads a single vehicle with its version.
+	 *
+	 * @param reg The registration number of the vehicle
+	 * @return The vehicle as a DTO, including its version, or an
+	 *         IllegalArgumentException if it doesn't exist
+	 */
+	public Mono<VehicleDTO> getVehicleDTO(String reg) {
+		return reactiveDatabaseClient.sql(ROW_SELECT + " WHERE v.reg = :reg").bind("reg", reg).map(row -> {
+			VehicleDTO dto = toDTO(row);
+			dto.setVersion(row.get("version", Long.class));
+			return dto;
+		}).one().switchIfEmpty(
+				Mono.error(() -> new IllegalArgumentException("Vehicle " + reg + " doesn't exist")));
+	}
+
+	private VehicleDTO toDTO(Readable row) {
+		return vehicleService.convertToDTO(new VehicleRow(row.get("id", Integer.class), row.get("reg", String.class),
+				row.get("make", String.class), row.get("model", String.class), row.get("cid", String.class),
+				row.get("owner_name", String.class), row.get("mid", String.class),
+				row.get("mechanic_name", String.class), row.get("salary", Double.class), row.get("gid", String.class),
+				row.get("location", String.class), row.get("budget", Integer.class)));
+	}
+}
@@ -0,0 +1,195 @@
+package com.example.demo.services;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.SearchHitDTO;
+import com.example.demo.dto.SearchResultDTO;
+import com.example.demo.dto.VehicleRow;
+import com.example.demo.models.Customer;
+import com.example.demo.models.Mechanic;
+import com.example.demo.repositories.CustomerRepository;
+import com.example.demo.repositories.MechanicRepository;
+import com.example.demo.repositories.VehicleRepository;
+import com.example.demo.search.NgramIndex;
+
+/**
+ * Service behind the front desk search. Keeps an in-memory n-gram index of
+ * vehicles (reg, make, model), customers (cid, name, phone) and mechanics (mid,
+ * name), so partial matches such as "992" or "jon" are answered without LIKE
+ * scans against the database.
+ *
+ * The index is built from the database once the application has started.
+ * Services that create or delete indexed entities, or change their indexed
+ * fields, must update it through this service; assigning mechanics to
+ * vehicles doesn't change any indexed field.
+ */
+@Service
+public class SearchService {
+
+	public static final String VEHICLE = "vehicle";
+	public static final String CUSTOMER = "customer";
+	public static final String MECHANIC = "mechanic";
+
+	private static final String[] VEHICLE_FIELDS = { "reg", "make", "model" };
+	private static final double[] VEHICLE_WEIGHTS = { 3, 1, 1.5 };
+	private static final String[] CUSTOMER_FIELDS = { "cid", "name", "phone" };
+	private static final double[] CUSTOMER_WEIGHTS = { 2, 2, 2 };
+	private static final String[] MECHANIC_FIELDS = { "mid", "name" };
+	private static final double[] MECHANIC_WEIGHTS = { 2, 2 };
+
+	/**
+	 * Repository for accessing vehicle data in the database. Autowired by Spring to
+	 * inject the repository implementation.
+	 */
+	@Autowired
+	private VehicleRepository vehicleRepository;
+
+	/**
+	 * Repository for accessing customer data in the database. Autowired by Spring
+	 * to inject the repository implementation.
+	 */
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	/**
+	 * Repository for accessing mechanic data in the database. Autowired by Spring
+	 * to inject the repository implementation.
+	 */
+	@Autowired
+	private MechanicRepository mechanicRepository;
+
+	private final NgramIndex index = new NgramIndex();
+
+	/**
+	 * Builds the index from the database. Incremental updates wait until the build
+	 * is done, so a write racing with the build is applied after it.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Transactional(readOnly = true)
+	public synchronized void rebuild() {
+		index.clear();
+		for (VehicleRow row : vehicleRepository.findAllRows()) {
+			index.put(vehicleDocument(row.getReg(), row.getMake(), row.getModel()));
+		}
+		for (Customer customer : customerRepository.findAll()) {
+			index.put(customerDocument(customer.getCid(), customer.getName(), customer.getPhone()));
+		}
+		for (Mechanic mechanic : mechanicRepository.findAll()) {
+			index.put(mechanicDocument(mechanic.getMid(), mechanic.getName()));
+		}
+	}
+
+	/**
+	 * Adds a created vehicle to the index once the transaction commits.
+	 *
+	 * @param reg   The registration of the vehicle
+	 * @param make  The make of the vehicle
+	 * @param model The model of the vehicle
+	 */
+	public void indexVehicle(String reg, String make, String model) {
+		NgramIndex.Document document = vehicleDocument(reg, make, model);
+		AfterCommit.run(() -> put(document));
+	}
+
+	/**
+	 * Adds a created customer to the index once the transaction commits.
+	 *
+	 * @param cid   The identifier of the customer
+	 * @param name  The name of the customer
+	 * @param phone The phone number of the customer
+	 */
+	public void indexCustomer(String cid, String name, String phone) {
+		NgramIndex.Document document = customerDocument(cid, name, phone);
+		AfterCommit.run(() -> put(document));
+	}
+
+	/**
+	 * Adds a created mechanic to the index once the transaction commits.
+	 *
+	 * @param mid  The identifier of the mechanic
+	 * @param name The name of the mechanic
+	 */
+	public void indexMechanic(String mid, String name) {
+		NgramIndex.Document document = mechanicDocument(mid, name);
+		AfterCommit.run(() -> put(document));
+	}
+
+	/**
+	 * Removes a deleted mechanic from the index once the transaction commits.
+	 *
+	 * @param mid The identifier of the deleted mechanic
+	 */
+	public void removeMechanic(String mid) {
+		AfterCommit.run(() -> remove(MECHANIC, mid));
+	}
+
+	/**
+	 * Searches vehicles, customers and mechanics. Every word of the query must
+	 * occur in one of the indexed fields of an entity, ignoring case, spaces and
+	 * punctuation. Results are ranked by how well the words match, whole field
+	 * and prefix matches first.
+	 *
+	 * @param query The search text
+	 * @param page  The zero-based page number, or null for the first page
+	 * @param size  The page size, or null for the default; capped at
+	 *              {@link VehicleService#MAX_PAGE_SIZE}
+	 * @return The requested page of ranked results
+	 * @throws IllegalArgumentException if the query is empty or the paging
+	 *                                  parameters are invalid
+	 */
+	public SearchResultDTO search(String query, Integer page, Integer size) {
+		if (query == null || query.trim().isEmpty()) {
+			throw new IllegalArgumentException("q must be provided");
+		}
+		int pageNumber = page == null ? 0 : page;
+		if (pageNumber < 0) {
+			throw new IllegalArgumentException("Page must not be negative");
+		}
+		int pageSize = size == null ? VehicleService.DEFAULT_PAGE_SIZE : size;
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be at least 1");
+		}
+		pageSize = Math.min(pageSize, VehicleService.MAX_PAGE_SIZE);
+
+		// Only the hits up to the end of the requested page are ranked
+		long end = Math.min((long) (pageNumber + 1) * pageSize, Integer.MAX_VALUE);
+		NgramIndex.Result result = index.search(query, (int) end);
+		List<NgramIndex.Hit> hits = result.getHits();
+		int from = (int) Math.min((long) pageNumber * pageSize, hits.size());
+		List<SearchHitDTO> pageHits = hits.subList(from, hits.size()).stream()
+				.map(hit -> new SearchHitDTO(hit.getType(), hit.getKey(), hit.getLabel(), hit.getScore(),
+						hit.getMatchedFields()))
+				.collect(Collectors.toList());
+		return new SearchResultDTO(query, result.getTotal(), pageNumber, pageSize, pageHits);
+	}
+
+	private synchronized void put(NgramIndex.Document document) {
+		index.put(document);
+	}
+
+	private synchronized void remove(String type, String key) {
+		index.remove(type, key);
+	}
+
+	private static NgramIndex.Document vehicleDocument(String reg, String make, String model) {
+		return new NgramIndex.Document(VEHICLE, reg, reg + " " + make + " " + model, VEHICLE_FIELDS,
+				new String[] { reg, make, model }, VEHICLE_WEIGHTS);
+	}
+
+	private static NgramIndex.Document customerDocument(String cid, String name, String phone) {
+		return new NgramIndex.Document(CUSTOMER, cid, name + ", " + phone, CUSTOMER_FIELDS,
+				new String[] { cid, name, phone }, CUSTOMER_WEIGHTS);
+	}
+
+	private static NgramIndex.Document mechanicDocument(String mid, String name) {
+		return new NgramIndex.Document(MECHANIC, mid, name + " (" + mid + ")", MECHANIC_FIELDS,
+				new String[] { mid, name }, MECHANIC_WEIGHTS);
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.demo.services;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.config.SecondLevelCacheConfig;
+import com.example.demo.dto.CacheStatsDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Service for Hibernate's second-level and query caches. Hibernate keeps them
+ * in step with every write made through JPA, including bulk JPQL updates;
+ * writes made through plain JDBC must evict the cached queries through this
+ * service.
+ */
+@Service
+public class SecondLevelCacheService {
+
+	/**
+	 * Factory of the application's entity managers, owner of the caches.
+	 */
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	/**
+	 * Maximum number of entries per region.
+	 */
+	@Value("${app.cache.hibernate.max-entries:10000}")
+	private int maxEntries;
+
+	/**
+	 * Evicts the cached query results after vehicles were written without going
+	 * through Hibernate. Evicted now and again after commit, so a query run in
+	 * between can't leave the old result behind.
+	 */
+	public void evictVehicleQueries() {
+		evictQueries();
+		AfterCommit.run(this::evictQueries);
+	}
+
+	/**
+	 * Gets the hit and miss counters of the entity and query regions. The caches
+	 * don't report their size, so it is given as -1.
+	 *
+	 * @return The statistics of each region
+	 */
+	public List<CacheStatsDTO> getStats() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		return SecondLevelCacheConfig.REGIONS.stream().map(region -> {
+			CacheRegionStatistics statistics = sessionFactory.getStatistics().getCacheRegionStatistics(region);
+			if (statistics == null) {
+				return new CacheStatsDTO(region, -1, maxEntries, 0, 0, 0, 0);
+			}
+			return new CacheStatsDTO(region, -1, maxEntries, statistics.getHitCount(), statistics.getMissCount(), 0,
+					0);
+		}).collect(Collectors.toList());
+	}
+
+	private void evictQueries() {
+		entityManagerFactory.unwrap(SessionFactory.class).getCache().evictDefaultQueryRegion();
+	}
+}
@@ -0,0 +1,119 @@
+package com.example.demo.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset pagination cursor for vehicle listings. A cursor records the column
+ * the listing is ordered by (id or reg) and the value of that column for the
+ * last vehicle on the previous page, so the next page can be fetched with a
+ * range condition on an indexed column instead of an offset scan.
+ *
+ * Cursors are handed to clients as opaque URL-safe Base64 tokens.
+ */
+public class VehicleCursor {
+
+	/**
+	 * Column the listing is ordered and paged by.
+	 */
+	public enum SortKey {
+		ID, REG
+	}
+
+	private final SortKey sortKey;
+	private final String value;
+
+	/**
+	 * Creates a cursor positioned after the given value of the sort column.
+	 *
+	 * @param sortKey The column the listing is ordered by
+	 * @param value   The sort column value of the last vehicle already returned
+	 */
+	public VehicleCursor(SortKey sortKey, String value) {
+		this.sortKey = sortKey;
+		this.value = value;
+	}
+
+	/**
+	 * Creates a cursor positioned before the first vehicle.
+	 *
+	 * @param sort The name of the sort column ("id" or "reg"), defaults to id when
+	 *             null
+	 * @return A cursor for the first page
+	 * @throws IllegalArgumentException if the sort column is not supported
+	 */
+	public static VehicleCursor first(String sort) {
+		SortKey key = parseSortKey(sort == null ? "id" : sort);
+		return new VehicleCursor(key, key == SortKey.ID ? "0" : "");
+	}
+
+	/**
+	 * Decodes a cursor token previously produced by {@link #encode()}.
+	 *
+	 * @param token The opaque cursor token
+	 * @return The decoded cursor
+	 * @throws IllegalArgumentException if the token is malformed
+	 */
+	public static VehicleCursor decode(String token) {
+		String decoded;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor " + token);
+		}
+
+		int separator = decoded.indexOf(':');
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor " + token);
+		}
+
+		SortKey key = parseSortKey(decoded.substring(0, separator));
+		String value = decoded.substring(separator + 1);
+		if (key == SortKey.ID) {
+			try {
+				Integer.parseInt(value);
+			} catch (NumberFormatException e) {
+				throw new IllegalArgumentException("Invalid cursor " + token);
+			}
+		}
+		return new VehicleCursor(key, value);
+	}
+
+	/**
+	 * Encodes this cursor as an opaque URL-safe token.
+	 *
+	 * @return The cursor token
+	 */
+	public String encode() {
+		String raw = sortKey.name().toLowerCase() + ":" + value;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static SortKey parseSortKey(String sort) {
+		switch (sort) {
+		case "id":
+			return SortKey.ID;
+		case "reg":
+			return SortKey.REG;
+		default:
+			throw new IllegalArgumentException("Unsupported sort " + sort + ", expected id or reg");
+		}
+	}
+
+	public SortKey getSortKey() {
+		return sortKey;
+	}
+
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the cursor value as a vehicle id. Only valid for id-ordered cursors.
+	 *
+	 * @return The id of the last vehicle already returned
+	 */
+	public Integer getIdValue() {
+		return Integer.valueOf(value);
+	}
+}
@@ -0,0 +1,255 @@
+package com.example.demo.services;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.csv.CsvWriter;
+import com.example.demo.dto.ExportResultDTO;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Service that exports every vehicle with its owner, mechanic and garage as
+ * gzip-compressed CSV. The vehicle id range is split into chunks that worker
+ * threads read and compress in parallel, each over its own connection in a
+ * read-only transaction, so a read replica is used when configured. Every
+ * chunk is compressed as a separate gzip member; concatenated members form one
+ * valid gzip file, which the calling thread writes in id order.
+ *
+ * At most twice as many chunks as there are workers are in flight, so memory
+ * use is bounded by the compressed size of those chunks, not by the number of
+ * vehicles. Chunks are read in separate transactions, so the export is not a
+ * snapshot: a vehicle changed while the export runs may appear in its old or
+ * new state, and vehicles created after it started are left out.
+ */
+@Service
+public class VehicleExportService {
+
+	/**
+	 * Columns of the export, in order.
+	 */
+	private static final String[] HEADER = { "reg", "make", "model", "owner_cid", "owner_name", "owner_phone",
+			"mechanic_mid", "mechanic_name", "mechanic_salary", "garage_gid", "garage_location", "garage_budget" };
+
+	private static final String CHUNK_SQL = "SELECT v.reg, v.make, v.model, c.cid, c.name, c.phone, "
+			+ "m.mid, m.name, m.salary, g.gid, g.location, g.budget FROM vehicle v "
+			+ "LEFT JOIN customer c ON c.id = v.owner_id LEFT JOIN mechanic m ON m.id = v.mechanic_id "
+			+ "LEFT JOIN garage g ON g.id = m.garage_id WHERE v.id BETWEEN ? AND ? ORDER BY v.id";
+
+	private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+	/**
+	 * Number of vehicle ids per chunk.
+	 */
+	@Value("${app.export.chunk-size:10000}")
+	private int chunkSize;
+
+	/**
+	 * Number of worker threads, and so of connections, used by exports.
+	 */
+	@Value("${app.export.parallelism:4}")
+	private int parallelism;
+
+	/**
+	 * Directory of the files written by {@link #exportCsvToFile()}.
+	 */
+	@Value("${app.export.dir:export}")
+	private String directory;
+
+	/**
+	 * JDBC access used to read the chunks.
+	 */
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Transaction manager of the read-only chunk transactions.
+	 */
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private TransactionTemplate readOnlyTransaction;
+	private ExecutorService workers;
+
+	/**
+	 * One part of the export, already compressed.
+	 */
+	private static final class Chunk {
+		private final int rows;
+		private final byte[] gzip;
+
+		Chunk(int rows, byte[] gzip) {
+			this.rows = rows;
+			this.gzip = gzip;
+		}
+	}
+
+	/**
+	 * Starts the worker threads once the configuration has been injected.
+	 */
+	@PostConstruct
+	void start() {
+		readOnlyTransaction = new TransactionTemplate(transactionManager);
+		readOnlyTransaction.setReadOnly(true);
+		AtomicInteger count = new AtomicInteger();
+		workers = Executors.newFixedThreadPool(parallelism, runnable -> {
+			Thread thread = new Thread(runnable, "vehicle-export-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Stops the worker threads, interrupting running exports.
+	 */
+	@PreDestroy
+	void stop() {
+		workers.shutdownNow();
+	}
+
+	/**
+	 * Writes all vehicles as gzip-compressed CSV, with a header line and one line
+	 * per vehicle in id order. Nothing is written after a chunk fails, so a
+	 * truncated file can be told apart by its missing gzip trailer.
+	 *
+	 * @param out Where to write the compressed file; not closed
+	 * @return The number of vehicles written
+	 * @throws IOException if the output can't be written or the thread is
+	 *                     interrupted
+	 */
+	public long exportCsv(OutputStream out) throws IOException {
+		long[] range = jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM vehicle",
+				(rs, rowNum) -> new long[] { rs.getLong(1), rs.wasNull() ? -1 : rs.getLong(2) });
+
+		out.write(compress(csv -> csv.writeRecord((Object[]) HEADER)));
+		long rows = 0;
+		long next = range[0];
+		Deque<Future<Chunk>> pending = new ArrayDeque<>();
+		try {
+			while (next <= range[1] || !pending.isEmpty()) {
+				while (next <= range[1] && pending.size() < 2 * parallelism) {
+					long from = next;
+					long to = Math.min(range[1], from + chunkSize - 1);
+					pending.add(workers.submit(() -> readChunk(from, to)));
+					next = to + 1;
+				}
+				Chunk chunk = await(pending.poll());
+				out.write(chunk.gzip);
+				rows += chunk.rows;
+			}
+		} finally {
+			pending.forEach(future -> future.cancel(true));
+		}
+		out.flush();
+		return rows;
+	}
+
+	/**
+	 * Writes all vehicles like {@link #exportCsv(OutputStream)} to a new file in
+	 * the export directory. The file only appears under its final name once it
+	 * is complete.
+	 *
+	 * @return The file written, with the number of vehicles and bytes
+	 * @throws IOException if the file can't be written
+	 */
+	public ExportResultDTO exportCsvToFile() throws IOException {
+		long start = System.currentTimeMillis();
+		Path dir = Files.createDirectories(Path.of(directory));
+		Path file = dir.resolve("vehicles-" + LocalDateTime.now().format(FILE_TIME) + ".csv.gz");
+		Path temp = Files.createTempFile(dir, "vehicles-", ".csv.gz.tmp");
+		try {
+			long rows;
+			try (OutputStream out = Files.newOutputStream(temp)) {
+				rows = exportCsv(out);
+			}
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			return new ExportResultDTO(file.toString(), rows, Files.size(file), System.currentTimeMillis() - start);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/**
+	 * Reads and compresses the vehicles with ids in a range. Empty ranges give no
+	 * bytes at all.
+	 */
+	private Chunk readChunk(long from, long to) {
+		int[] rows = new int[1];
+		byte[] gzip = readOnlyTransaction.execute(status -> compress(csv -> jdbcTemplate.query(CHUNK_SQL, rs -> {
+			try {
+				csv.writeRecord(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+						rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8), rs.getObject(9),
+						rs.getString(10), rs.getString(11), rs.getObject(12));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			rows[0]++;
+		}, from, to)));
+		return new Chunk(rows[0], rows[0] == 0 ? new byte[0] : gzip);
+	}
+
+	/**
+	 * Something that writes CSV records.
+	 */
+	private interface CsvContent {
+		void writeTo(CsvWriter csv) throws IOException;
+	}
+
+	/**
+	 * Writes CSV records into a gzip member held in memory.
+	 */
+	private static byte[] compress(CsvContent content) {
+		ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+		try (CsvWriter csv = new CsvWriter(new BufferedWriter(
+				new OutputStreamWriter(new GZIPOutputStream(buffer, 8192), StandardCharsets.UTF_8), 8192))) {
+			content.writeTo(csv);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return buffer.toByteArray();
+	}
+
+	private static Chunk await(Future<Chunk> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting for the export");
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof UncheckedIOException io) {
+				throw io.getCause();
+			}
+			if (e.getCause() instanceof RuntimeException runtime) {
+				throw runtime;
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+}
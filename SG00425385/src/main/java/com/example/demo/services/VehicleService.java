@@ -1,15 +1,40 @@
 package com.example.demo.services;
 
+import com.example.demo.dto.BulkCreateResultDTO;
 import com.example.demo.dto.VehicleDTO;
+import com.example.demo.dto.VehiclePageDTO;
+import com.example.demo.dto.VehicleRow;
 import com.example.demo.models.Mechanic;
 import com.example.demo.models.Vehicle;
 import com.example.demo.repositories.MechanicRepository;
 import com.example.demo.repositories.VehicleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class that handles the logic for vehicle operations. This class acts
@@ -18,6 +43,28 @@ import java.util.stream.Collectors;
 @Service
 public class VehicleService {
 
+	/**
+	 * Number of vehicles returned per page when the client doesn't ask for a
+	 * specific page size.
+	 */
+	public static final int DEFAULT_PAGE_SIZE = 20;
+
+	/**
+	 * Upper bound on the page size so a single request can't pull the whole table
+	 * into memory.
+	 */
+	public static final int MAX_PAGE_SIZE = 100;
+
+	/**
+	 * Maximum number of vehicles accepted by one bulk creation request.
+	 */
+	public static final int MAX_BULK_SIZE = 10000;
+
+	/**
+	 * Number of rows per JDBC batch and per registration lookup in bulk creation.
+	 */
+	public static final int BULK_BATCH_SIZE = 500;
+
 	/**
 	 * Repository for accessing vehicle data in the database. Autowired by Spring to
 	 * inject the repository implementation.
@@ -32,6 +79,81 @@ public class VehicleService {
 	@Autowired
 	private MechanicRepository mechanicRepository;
 
+	/**
+	 * Cached lookups of vehicles by reg and mechanics by mid.
+	 */
+	@Autowired
+	private LookupCacheService lookupCacheService;
+
+	/**
+	 * Version of the vehicle data, bumped on every write.
+	 */
+	@Autowired
+	private DataVersionService dataVersionService;
+
+	/**
+	 * Front desk search index, updated when vehicles are created.
+	 */
+	@Autowired
+	private SearchService searchService;
+
+	/**
+	 * Hibernate's query cache, which doesn't see the JDBC batch inserts.
+	 */
+	@Autowired
+	private SecondLevelCacheService secondLevelCacheService;
+
+	/**
+	 * Running totals of the garages, updated when vehicles change mechanic.
+	 */
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	/**
+	 * Audit log of vehicle creations and mechanic assignments.
+	 */
+	@Autowired
+	private AuditService auditService;
+
+	/**
+	 * Runs each attempt of an optimistic update in its own transaction.
+	 */
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	/**
+	 * Maximum number of attempts of an update that keeps losing races with
+	 * concurrent updates of the same vehicle.
+	 */
+	@Value("${app.vehicle.update.max-attempts:5}")
+	private int updateMaxAttempts;
+
+	/**
+	 * Upper bound in milliseconds of the wait before the second attempt, doubled
+	 * for every further attempt.
+	 */
+	@Value("${app.vehicle.update.backoff-ms:10}")
+	private long updateBackoffMillis;
+
+	/**
+	 * Entity manager of the current transaction, used to detach streamed vehicles
+	 * once they have been written.
+	 */
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * JDBC access used for batched inserts.
+	 */
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	/**
+	 * Shared JSON mapper configured by Spring Boot.
+	 */
+	@Autowired
+	private ObjectMapper objectMapper;
+
 	/**
 	 * Retrieves all vehicles from the database.
 	 * 
@@ -43,12 +165,32 @@ public class VehicleService {
 
 	/**
 	 * Retrieves all vehicles from the database and converts them to DTOs. This
-	 * method prevents circular references in JSON serialization.
+	 * method prevents circular references in JSON serialization. The DTOs are
+	 * built from a single joined projection query, so no entities are loaded and
+	 * the number of SQL statements doesn't depend on the number of vehicles.
 	 * 
 	 * @return A list of VehicleDTO objects representing all vehicles
 	 */
+	@Transactional(readOnly = true)
 	public List<VehicleDTO> getAllVehiclesDTO() {
-		return vehicleRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+		return vehicleRepository.findAllRows().stream().map(this::convertToDTO).collect(Collectors.toList());
+	}
+
+	/**
+	 * Retrieves a single vehicle with its version, which clients pass back to
+	 * update the vehicle only if nobody changed it in the meantime.
+	 * 
+	 * @param reg The registration number of the vehicle
+	 * @return The vehicle as a DTO, including its version
+	 * @throws IllegalArgumentException if the vehicle doesn't exist
+	 */
+	@Transactional(readOnly = true)
+	public VehicleDTO getVehicleDTO(String reg) {
+		Vehicle vehicle = vehicleRepository.findByReg(reg);
+		if (vehicle == null) {
+			throw new IllegalArgumentException("Vehicle " + reg + " doesn't exist");
+		}
+		return convertToDTO(vehicle);
 	}
 
 	/**
@@ -63,12 +205,158 @@ public class VehicleService {
 
 	/**
 	 * Retrieves vehicles that match a specific make and converts them to DTOs.
+	 * Like {@link #getAllVehiclesDTO()} this reads a single joined projection
+	 * query, whose result is kept in the query cache.
 	 * 
 	 * @param make The vehicle manufacturer to filter by
 	 * @return A list of VehicleDTO objects with the specified make
 	 */
+	@Transactional(readOnly = true)
 	public List<VehicleDTO> getVehiclesDTOByMake(String make) {
-		return vehicleRepository.findByMake(make).stream().map(this::convertToDTO).collect(Collectors.toList());
+		return vehicleRepository.findRowsByMake(make).stream().map(this::convertToDTO).collect(Collectors.toList());
+	}
+
+	/**
+	 * Retrieves one page of vehicles using keyset pagination and converts them to
+	 * DTOs. Pages are ordered by id or reg and each page is fetched with a range
+	 * condition on that column, so the cost of a page doesn't grow with its
+	 * position in the table.
+	 * 
+	 * @param make   The vehicle manufacturer to filter by, or null for all vehicles
+	 * @param sort   The column to order by ("id" or "reg") when starting a new
+	 *               listing; ignored when a cursor is given
+	 * @param cursor The opaque cursor returned with the previous page, or null for
+	 *               the first page
+	 * @param size   The requested page size, or null for the default; capped at
+	 *               {@link #MAX_PAGE_SIZE}
+	 * @return The page of vehicles together with the cursor of the next page
+	 * @throws IllegalArgumentException if the cursor, sort or size is invalid
+	 */
+	@Transactional(readOnly = true)
+	public VehiclePageDTO getVehiclesPageDTO(String make, String sort, String cursor, Integer size) {
+		int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+		if (pageSize < 1) {
+			throw new IllegalArgumentException("Page size must be at least 1");
+		}
+		pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+
+		VehicleCursor position = cursor == null ? VehicleCursor.first(sort) : VehicleCursor.decode(cursor);
+
+		// Fetch one extra row to find out whether there is a next page
+		Limit limit = Limit.of(pageSize + 1);
+		List<VehicleRow> rows;
+		if (position.getSortKey() == VehicleCursor.SortKey.ID) {
+			rows = make == null ? vehicleRepository.findRowsAfterId(position.getIdValue(), limit)
+					: vehicleRepository.findRowsByMakeAfterId(make, position.getIdValue(), limit);
+		} else {
+			rows = make == null ? vehicleRepository.findRowsAfterReg(position.getValue(), limit)
+					: vehicleRepository.findRowsByMakeAfterReg(make, position.getValue(), limit);
+		}
+
+		String nextCursor = null;
+		if (rows.size() > pageSize) {
+			rows = rows.subList(0, pageSize);
+			VehicleRow last = rows.get(pageSize - 1);
+			String lastValue = position.getSortKey() == VehicleCursor.SortKey.ID ? last.getId().toString()
+					: last.getReg();
+			nextCursor = new VehicleCursor(position.getSortKey(), lastValue).encode();
+		}
+
+		return new VehiclePageDTO(rows.stream().map(this::convertToDTO).collect(Collectors.toList()), nextCursor);
+	}
+
+	/**
+	 * Searches vehicles by make and/or model, ignoring case. With prefix matching
+	 * "toy" finds Toyota; with exact matching only the whole make or model
+	 * matches. The search uses the indexed lower-cased keys, so its cost depends
+	 * on the number of matches read rather than the size of the table.
+	 * 
+	 * @param make   The make to search for, or null to search by model only
+	 * @param model  The model to search for, or null to search by make only
+	 * @param prefix Whether to match values starting with the terms instead of
+	 *               equal to them
+	 * @param limit  The maximum number of results, or null for the default;
+	 *               capped at {@link #MAX_PAGE_SIZE}
+	 * @return Matching vehicles as DTOs, ordered by make, model and reg, or by
+	 *         model, make and reg when searching by model only
+	 * @throws IllegalArgumentException if neither make nor model is given or the
+	 *                                  limit is invalid
+	 */
+	@Transactional(readOnly = true)
+	public List<VehicleDTO> searchVehiclesDTO(String make, String model, boolean prefix, Integer limit) {
+		String makePattern = searchPattern(make, prefix);
+		String modelPattern = searchPattern(model, prefix);
+		if (makePattern == null && modelPattern == null) {
+			throw new IllegalArgumentException("make or model must be provided");
+		}
+
+		int maxResults = limit == null ? DEFAULT_PAGE_SIZE : limit;
+		if (maxResults < 1) {
+			throw new IllegalArgumentException("Limit must be at least 1");
+		}
+		Limit rowLimit = Limit.of(Math.min(maxResults, MAX_PAGE_SIZE));
+
+		List<VehicleRow> rows;
+		if (modelPattern == null) {
+			rows = vehicleRepository.searchRowsByMake(makePattern, rowLimit);
+		} else if (makePattern == null) {
+			rows = vehicleRepository.searchRowsByModel(modelPattern, rowLimit);
+		} else {
+			rows = vehicleRepository.searchRowsByMakeAndModel(makePattern, modelPattern, rowLimit);
+		}
+		return rows.stream().map(this::convertToDTO).collect(Collectors.toList());
+	}
+
+	/**
+	 * Turns a search term into a LIKE pattern on the lower-cased keys, escaping
+	 * the LIKE wildcards in the term with '!'.
+	 * 
+	 * @param term   The search term, may be null or blank
+	 * @param prefix Whether to append a trailing wildcard
+	 * @return The pattern, or null if there is no term
+	 */
+	private static String searchPattern(String term, boolean prefix) {
+		if (term == null || term.trim().isEmpty()) {
+			return null;
+		}
+		String escaped = Vehicle.searchKey(term.trim()).replace("!", "!!").replace("%", "!%").replace("_", "!_");
+		return prefix ? escaped + "%" : escaped;
+	}
+
+	/**
+	 * Writes all vehicles to the given stream as newline-delimited JSON, one
+	 * VehicleDTO per line. Vehicles are read from a forward-only database cursor
+	 * and each one is detached after it has been written, so memory use doesn't
+	 * depend on the number of vehicles. The output is flushed after the first
+	 * vehicle and then after every fetched batch, so the client starts receiving
+	 * data straight away.
+	 * 
+	 * @param out The stream to write to
+	 * @throws IOException if writing to the stream fails
+	 */
+	@Transactional(readOnly = true)
+	public void exportVehicles(OutputStream out) throws IOException {
+		try (Stream<Vehicle> vehicles = vehicleRepository.streamAllWithAssociations()) {
+			Iterator<Vehicle> iterator = vehicles.iterator();
+			long count = 0;
+			while (iterator.hasNext()) {
+				Vehicle vehicle = iterator.next();
+				out.write(objectMapper.writeValueAsBytes(convertToDTO(vehicle)));
+				out.write('\n');
+				entityManager.detach(vehicle);
+				count++;
+
+				// Owners, mechanics and garages are shared between rows, so they are
+				// released in bulk once per fetched batch rather than per vehicle
+				if (count % VehicleRepository.STREAM_FETCH_SIZE == 0) {
+					entityManager.clear();
+				}
+				if (count == 1 || count % VehicleRepository.STREAM_FETCH_SIZE == 0) {
+					out.flush();
+				}
+			}
+		}
+		out.flush();
 	}
 
 	/**
@@ -84,6 +372,7 @@ public class VehicleService {
 		dto.setReg(vehicle.getReg());
 		dto.setMake(vehicle.getMake());
 		dto.setModel(vehicle.getModel());
+		dto.setVersion(vehicle.getVersion());
 
 		// Handle null checks for owner
 		if (vehicle.getOwner() != null) {
@@ -114,6 +403,49 @@ public class VehicleService {
 		return dto;
 	}
 
+	/**
+	 * Converts a joined projection row to a VehicleDTO. Produces the same structure
+	 * as {@link #convertToDTO(Vehicle)} but works on plain column values, so no
+	 * associations are navigated.
+	 * 
+	 * @param row The projection row to convert
+	 * @return A VehicleDTO containing the vehicle data and related entities
+	 */
+	public VehicleDTO convertToDTO(VehicleRow row) {
+		VehicleDTO dto = new VehicleDTO();
+		dto.setReg(row.getReg());
+		dto.setMake(row.getMake());
+		dto.setModel(row.getModel());
+
+		// Owner columns are null when the vehicle has no owner
+		if (row.getOwnerCid() != null) {
+			VehicleDTO.OwnerDTO ownerDTO = new VehicleDTO.OwnerDTO();
+			ownerDTO.setCid(row.getOwnerCid());
+			ownerDTO.setName(row.getOwnerName());
+			dto.setOwner(ownerDTO);
+		}
+
+		// Mechanic and garage columns are null when there is no mechanic or garage
+		if (row.getMechanicMid() != null) {
+			VehicleDTO.MechanicDTO mechanicDTO = new VehicleDTO.MechanicDTO();
+			mechanicDTO.setMid(row.getMechanicMid());
+			mechanicDTO.setName(row.getMechanicName());
+			mechanicDTO.setSalary(row.getMechanicSalary());
+
+			if (row.getGarageGid() != null) {
+				VehicleDTO.GarageDTO garageDTO = new VehicleDTO.GarageDTO();
+				garageDTO.setGid(row.getGarageGid());
+				garageDTO.setLocation(row.getGarageLocation());
+				garageDTO.setBudget(row.getGarageBudget());
+				mechanicDTO.setGarage(garageDTO);
+			}
+
+			dto.setMechanic(mechanicDTO);
+		}
+
+		return dto;
+	}
+
 	/**
 	 * Creates a new vehicle in the database from DTO data.
 	 * 
@@ -123,6 +455,118 @@ public class VehicleService {
 	 * @throws IllegalArgumentException if validation fails or rules are violated
 	 */
 	public Vehicle createVehicle(VehicleDTO vehicleDTO) {
+		validateNewVehicle(vehicleDTO);
+
+		// Check if a vehicle with this reg already exists
+		if (vehicleRepository.findByReg(vehicleDTO.getReg()) != null) {
+			throw new IllegalArgumentException("Registration " + vehicleDTO.getReg() + " already exists");
+		}
+
+		// Create and save the new vehicle
+		Vehicle vehicle = new Vehicle();
+		vehicle.setReg(vehicleDTO.getReg());
+		vehicle.setMake(vehicleDTO.getMake());
+		vehicle.setModel(vehicleDTO.getModel());
+
+		Vehicle saved = vehicleRepository.save(vehicle);
+		searchService.indexVehicle(saved.getReg(), saved.getMake(), saved.getModel());
+		auditService.vehicleCreated(saved.getReg());
+		dataVersionService.changed();
+		return saved;
+	}
+
+	/**
+	 * Creates many vehicles at once. Every item is validated with the same rules
+	 * as {@link #createVehicle(VehicleDTO)}; registrations are checked against the
+	 * database with one set-based query per chunk, and the valid vehicles are
+	 * inserted with JDBC batch statements. Invalid items are skipped and reported
+	 * in the result.
+	 * 
+	 * @param vehicleDTOs The vehicles to create, with null entries for items that
+	 *                    were already rejected while reading the request
+	 * @param result      The result to add the created count and item errors to
+	 * @return The result of the bulk creation
+	 * @throws IllegalArgumentException if the request has more than
+	 *                                  {@link #MAX_BULK_SIZE} items
+	 */
+	@Transactional
+	public BulkCreateResultDTO createVehicles(List<VehicleDTO> vehicleDTOs, BulkCreateResultDTO result) {
+		if (vehicleDTOs.size() > MAX_BULK_SIZE) {
+			throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " vehicles can be created at once");
+		}
+
+		// Validate each item on its own and drop duplicates within the request
+		Map<Integer, VehicleDTO> valid = new LinkedHashMap<>();
+		Set<String> regs = new HashSet<>();
+		for (int i = 0; i < vehicleDTOs.size(); i++) {
+			VehicleDTO vehicleDTO = vehicleDTOs.get(i);
+			if (vehicleDTO == null) {
+				continue;
+			}
+			try {
+				validateNewVehicle(vehicleDTO);
+			} catch (IllegalArgumentException e) {
+				result.addError(i, vehicleDTO.getReg(), e.getMessage());
+				continue;
+			}
+			if (!regs.add(vehicleDTO.getReg())) {
+				result.addError(i, vehicleDTO.getReg(),
+						"Registration " + vehicleDTO.getReg() + " is duplicated in the request");
+				continue;
+			}
+			valid.put(i, vehicleDTO);
+		}
+
+		// Check all registrations against the database in chunks of IN-list queries
+		Set<String> existing = new HashSet<>();
+		List<String> regList = new ArrayList<>(regs);
+		for (int from = 0; from < regList.size(); from += BULK_BATCH_SIZE) {
+			existing.addAll(vehicleRepository
+					.findExistingRegs(regList.subList(from, Math.min(from + BULK_BATCH_SIZE, regList.size()))));
+		}
+
+		List<VehicleDTO> toInsert = new ArrayList<>(valid.size());
+		for (Map.Entry<Integer, VehicleDTO> entry : valid.entrySet()) {
+			String reg = entry.getValue().getReg();
+			if (existing.contains(reg)) {
+				result.addError(entry.getKey(), reg, "Registration " + reg + " already exists");
+			} else {
+				toInsert.add(entry.getValue());
+			}
+		}
+
+		// Insert through JDBC batches; the ids are generated by the database
+		jdbcTemplate.batchUpdate(
+				"INSERT INTO vehicle (reg, make, model, make_key, model_key) VALUES (?, ?, ?, ?, ?)", toInsert,
+				BULK_BATCH_SIZE, (ps, vehicleDTO) -> {
+					ps.setString(1, vehicleDTO.getReg());
+					ps.setString(2, vehicleDTO.getMake());
+					ps.setString(3, vehicleDTO.getModel());
+					ps.setString(4, Vehicle.searchKey(vehicleDTO.getMake()));
+					ps.setString(5, Vehicle.searchKey(vehicleDTO.getModel()));
+				});
+
+		for (VehicleDTO vehicleDTO : toInsert) {
+			searchService.indexVehicle(vehicleDTO.getReg(), vehicleDTO.getMake(), vehicleDTO.getModel());
+			auditService.vehicleCreated(vehicleDTO.getReg());
+		}
+		if (!toInsert.isEmpty()) {
+			secondLevelCacheService.evictVehicleQueries();
+			dataVersionService.changed();
+		}
+		result.setCreated(toInsert.size());
+		result.sortErrors();
+		return result;
+	}
+
+	/**
+	 * Validates the data of a vehicle that is about to be created. Doesn't check
+	 * whether the registration is already taken.
+	 * 
+	 * @param vehicleDTO The vehicle data transfer object to validate
+	 * @throws IllegalArgumentException if validation fails or rules are violated
+	 */
+	private void validateNewVehicle(VehicleDTO vehicleDTO) {
 		// Check for not allowed attributes
 		if (vehicleDTO.getOwner() != null) {
 			throw new IllegalArgumentException("Owner should not be provided in the request");
@@ -145,19 +589,6 @@ public class VehicleService {
 		if (vehicleDTO.getModel() == null || vehicleDTO.getModel().trim().isEmpty()) {
 			throw new IllegalArgumentException("Model must be provided");
 		}
-
-		// Check if a vehicle with this reg already exists
-		if (vehicleRepository.findByReg(vehicleDTO.getReg()) != null) {
-			throw new IllegalArgumentException("Registration " + vehicleDTO.getReg() + " already exists");
-		}
-
-		// Create and save the new vehicle
-		Vehicle vehicle = new Vehicle();
-		vehicle.setReg(vehicleDTO.getReg());
-		vehicle.setMake(vehicleDTO.getMake());
-		vehicle.setModel(vehicleDTO.getModel());
-
-		return vehicleRepository.save(vehicle);
 	}
 
 	/**
@@ -167,23 +598,135 @@ public class VehicleService {
 	 * @param reg The registration number of the vehicle to update
 	 * @param mid The mechanic ID to assign to the vehicle
 	 * @return The updated Vehicle entity
-	 * @throws IllegalArgumentException if the vehicle or mechanic doesn't exist
+	 * @throws IllegalArgumentException    if the vehicle or mechanic doesn't exist
+	 * @throws ConcurrencyFailureException if the vehicle kept changing under every
+	 *                                     attempt
 	 */
 	public Vehicle updateVehicleMechanic(String reg, String mid) {
-	    // Check if vehicle with specified reg exists
-	    Vehicle vehicle = vehicleRepository.findByReg(reg);
-	    if (vehicle == null) {
-	        throw new IllegalArgumentException("Vehicle " + reg + " doesn't exist");
-	    }
-
-	    // Get the mechanic by mid
-	    Mechanic mechanic = mechanicRepository.findByMid(mid);
-	    if (mechanic == null) {
-	        throw new IllegalArgumentException("Mechanic " + mid + " doesn't exist");
-	    }
-
-	    // Update the vehicle's mechanic
-	    vehicle.setMechanic(mechanic);
-	    return vehicleRepository.save(vehicle);
+		return updateVehicleMechanic(reg, mid, null);
+	}
+
+	/**
+	 * Updates a vehicle's assigned mechanic, optionally only if the vehicle is
+	 * still at the version the client read. No row lock is held between reading
+	 * and writing the vehicle; the UPDATE checks the version instead, and an
+	 * update that lost a race is retried in a new transaction after a short
+	 * randomized backoff, at most {@link #updateMaxAttempts} times.
+	 * 
+	 * @param reg             The registration number of the vehicle to update
+	 * @param mid             The mechanic ID to assign to the vehicle
+	 * @param expectedVersion The version the client read, or null to update
+	 *                        whatever the current version
+	 * @return The updated Vehicle entity
+	 * @throws IllegalArgumentException    if the vehicle or mechanic doesn't exist
+	 * @throws VersionConflictException    if the vehicle is no longer at the
+	 *                                     expected version
+	 * @throws ConcurrencyFailureException if the vehicle kept changing under every
+	 *                                     attempt
+	 */
+	public Vehicle updateVehicleMechanic(String reg, String mid, Long expectedVersion) {
+		for (int attempt = 1;; attempt++) {
+			try {
+				return transactionTemplate.execute(status -> assignMechanic(reg, mid, expectedVersion));
+			} catch (ConcurrencyFailureException e) {
+				if (attempt >= updateMaxAttempts) {
+					throw e;
+				}
+				backOff(attempt, e);
+			}
+		}
+	}
+
+	/**
+	 * Makes one attempt at assigning a mechanic, in the caller's transaction.
+	 */
+	private Vehicle assignMechanic(String reg, String mid, Long expectedVersion) {
+		// Read the vehicle in this transaction, so the version checked by the UPDATE
+		// is the one its current garage was read with
+		Vehicle vehicle = vehicleRepository.findByReg(reg);
+		if (vehicle == null) {
+			throw new IllegalArgumentException("Vehicle " + reg + " doesn't exist");
+		}
+		if (expectedVersion != null && !expectedVersion.equals(vehicle.getVersion())) {
+			throw new VersionConflictException("Vehicle " + reg + " is at version " + vehicle.getVersion()
+					+ ", not " + expectedVersion);
+		}
+
+		// Get the mechanic by mid
+		Mechanic mechanic = lookupCacheService.findMechanicByMid(mid);
+		if (mechanic == null) {
+			throw new IllegalArgumentException("Mechanic " + mid + " doesn't exist");
+		}
+
+		Mechanic previous = vehicle.getMechanic();
+		List<Integer> previousGarages = previous == null || previous.getGarage() == null ? List.of()
+				: List.of(previous.getGarage().getId());
+		vehicle.setMechanic(mechanic);
+
+		// Write the vehicle before the summaries, which is the order bulk updates
+		// lock them in; a concurrent change shows up here as a failed version check
+		vehicleRepository.flush();
+		garageAnalyticsService.vehiclesAssigned(previousGarages, mechanic, 1);
+		auditService.mechanicAssigned(reg, mid, previous == null ? null : previous.getMid());
+		dataVersionService.changed();
+		return vehicle;
+	}
+
+	/**
+	 * Waits before the next attempt of an update that lost a race. The wait grows
+	 * exponentially and is randomized, so competing requests spread out instead of
+	 * colliding again.
+	 */
+	private void backOff(int attempt, ConcurrencyFailureException cause) {
+		long maxMillis = updateBackoffMillis << Math.min(attempt - 1, 10);
+		try {
+			Thread.sleep(ThreadLocalRandom.current().nextLong(maxMillis + 1));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw cause;
+		}
+	}
+
+	/**
+	 * Assigns a mechanic to many vehicles at once. The mechanic and all vehicles
+	 * are checked with one query each, then every vehicle is updated by a single
+	 * UPDATE statement in the same transaction. Nothing is changed if any of the
+	 * vehicles or the mechanic doesn't exist.
+	 * 
+	 * @param regs The registration numbers of the vehicles to update
+	 * @param mid  The mechanic ID to assign to the vehicles
+	 * @return The number of vehicles updated
+	 * @throws IllegalArgumentException if the list is empty or too large, or a
+	 *                                  vehicle or the mechanic doesn't exist
+	 */
+	@Transactional
+	public int reassignVehicles(List<String> regs, String mid) {
+		Set<String> uniqueRegs = new LinkedHashSet<>(regs);
+		if (uniqueRegs.isEmpty()) {
+			throw new IllegalArgumentException("regs must contain at least one registration");
+		}
+		if (uniqueRegs.size() > MAX_BULK_SIZE) {
+			throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " vehicles can be reassigned at once");
+		}
+
+		// Get the mechanic by mid
+		Mechanic mechanic = lookupCacheService.findMechanicByMid(mid);
+		if (mechanic == null) {
+			throw new IllegalArgumentException("Mechanic " + mid + " doesn't exist");
+		}
+
+		// Check that every vehicle exists with one set-based query
+		Set<String> missing = new LinkedHashSet<>(uniqueRegs);
+		missing.removeAll(vehicleRepository.findExistingRegs(uniqueRegs));
+		if (!missing.isEmpty()) {
+			throw new IllegalArgumentException("Vehicles " + String.join(", ", missing) + " don't exist");
+		}
+
+		List<Integer> previousGarages = garageAnalyticsService.lockCurrentGarages(uniqueRegs);
+		int updated = vehicleRepository.updateMechanicByRegs(uniqueRegs, mechanic);
+		garageAnalyticsService.vehiclesAssigned(previousGarages, mechanic, updated);
+		auditService.mechanicAssigned(uniqueRegs, mid);
+		dataVersionService.changed();
+		return updated;
 	}
 }
@@ -0,0 +1,20 @@
+package com.example.demo.services;
+
+/**
+ * Thrown when a conditional update names a version that is no longer the
+ * current one, because another request changed the data in the meantime. The
+ * client should read the data again and decide whether to repeat its change.
+ */
+public class VersionConflictException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * Creates the exception.
+	 *
+	 * @param message The message returned to the client
+	 */
+	public VersionConflictException(String message) {
+		super(message);
+	}
+}
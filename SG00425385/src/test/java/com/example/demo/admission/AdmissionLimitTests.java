@@ -0,0 +1,88 @@
+package com.example.demo.admission;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the token buckets and the adaptive concurrency limit on a simulated
+ * clock.
+ */
+class AdmissionLimitTests {
+
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void bucketsAllowBurstsThenRefillAtTheRate() {
+		ClientRateLimiter limiter = new ClientRateLimiter(10, 5, 100);
+		long now = System.nanoTime();
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(limiter.tryAcquire("a", 1, now)).isZero();
+		}
+		assertThat(limiter.tryAcquire("a", 1, now)).isEqualTo(SECOND / 10);
+		// Other clients have their own bucket
+		assertThat(limiter.tryAcquire("b", 5, now)).isZero();
+
+		// A tenth of a second refills one token, a rejected request takes none
+		assertThat(limiter.tryAcquire("a", 1, now + SECOND / 10)).isZero();
+		assertThat(limiter.tryAcquire("a", 1, now + SECOND / 10)).isPositive();
+		assertThat(limiter.tryAcquire("a", 3, now + SECOND / 10)).isEqualTo(3 * SECOND / 10);
+		assertThat(limiter.tryAcquire("a", 3, now + 4 * SECOND / 10)).isZero();
+		// Idle time beyond a full bucket isn't saved up
+		assertThat(limiter.tryAcquire("a", 5, now + 60 * SECOND)).isZero();
+		assertThat(limiter.tryAcquire("a", 1, now + 60 * SECOND)).isPositive();
+	}
+
+	@Test
+	void idleClientsAreDroppedAndNewOnesShareABucketWhenFull() {
+		ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 2);
+		long now = System.nanoTime() + 2 * SECOND;
+
+		assertThat(limiter.tryAcquire("a", 1, now)).isZero();
+		assertThat(limiter.tryAcquire("b", 1, now)).isZero();
+		// Both tracked clients are active, so new clients share the overflow bucket
+		assertThat(limiter.tryAcquire("c", 1, now)).isZero();
+		assertThat(limiter.tryAcquire("d", 1, now)).isPositive();
+
+		// Once the buckets are full again the idle clients make room
+		assertThat(limiter.tryAcquire("e", 1, now + 2 * SECOND)).isZero();
+		assertThat(limiter.getClients()).isLessThanOrEqualTo(2);
+	}
+
+	@Test
+	void concurrencyLimitFallsWithSlowStatementsAndRecovers() {
+		AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 20, 50, 0.5);
+
+		int[] slots = new int[10];
+		for (int i = 0; i < 10; i++) {
+			slots[i] = limit.tryAcquire(1);
+			assertThat(slots[i]).isEqualTo(i + 1);
+		}
+		assertThat(limit.tryAcquire(1)).isZero();
+
+		// Two slow requests halve the limit twice, the floor stops a third
+		limit.release(slots[9], 80_000_000);
+		limit.release(slots[8], 80_000_000);
+		assertThat(limit.getLimit()).isEqualTo(2.5);
+		limit.release(slots[7], 80_000_000);
+		assertThat(limit.getLimit()).isEqualTo(2);
+		assertThat(limit.getInFlight()).isEqualTo(7);
+		assertThat(limit.tryAcquire(1)).isZero();
+
+		// Requests without SQL don't move it, fast requests near the limit raise it
+		for (int i = 6; i >= 0; i--) {
+			limit.release(slots[i], i == 0 ? -1 : 1_000_000);
+		}
+		assertThat(limit.getLimit()).isGreaterThan(2);
+		assertThat(limit.getInFlight()).isZero();
+
+		// Reads only get their share of the limit
+		AdaptiveConcurrencyLimit shared = new AdaptiveConcurrencyLimit(10, 2, 20, 50, 0.5);
+		for (int i = 0; i < 8; i++) {
+			assertThat(shared.tryAcquire(0.8)).isPositive();
+		}
+		assertThat(shared.tryAcquire(0.8)).isZero();
+		assertThat(shared.tryAcquire(1)).isPositive();
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.demo.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Checks appending, querying, rotation and crash recovery of the segment log.
+ */
+class AuditLogTests {
+
+	private static final int SEGMENT_SIZE = 1024;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void queriesFilterByRegMidAndTime() throws IOException {
+		try (AuditLog log = new AuditLog(directory, SEGMENT_SIZE, 0)) {
+			log.append(new AuditEvent(100, AuditEventType.VEHICLE_CREATED, "R1", null, null));
+			log.append(new AuditEvent(200, AuditEventType.MECHANIC_ASSIGNED, "R1", "M1", null));
+			log.append(new AuditEvent(300, AuditEventType.MECHANIC_ASSIGNED, "R1", "M2", "M1"));
+			log.append(new AuditEvent(400, AuditEventType.MECHANIC_DELETED, null, "M1", null));
+
+			assertThat(log.query("R1", null, Long.MIN_VALUE, Long.MAX_VALUE, 10)).extracting(AuditEvent::getTime)
+					.containsExactly(100L, 200L, 300L);
+			assertThat(log.query(null, "M1", Long.MIN_VALUE, Long.MAX_VALUE, 10)).extracting(AuditEvent::getTime)
+					.containsExactly(200L, 300L, 400L);
+			assertThat(log.query(null, "M1", 250, 350, 10)).singleElement().satisfies(event -> {
+				assertThat(event.getType()).isEqualTo(AuditEventType.MECHANIC_ASSIGNED);
+				assertThat(event.getMid()).isEqualTo("M2");
+				assertThat(event.getPreviousMid()).isEqualTo("M1");
+			});
+			assertThat(log.query(null, null, Long.MIN_VALUE, Long.MAX_VALUE, 2)).hasSize(2);
+		}
+	}
+
+	@Test
+	void fullSegmentsRotateAndOldOnesAreDropped() throws IOException {
+		try (AuditLog log = new AuditLog(directory, SEGMENT_SIZE, 3)) {
+			for (int i = 0; i < 200; i++) {
+				log.append(new AuditEvent(i, AuditEventType.MECHANIC_ASSIGNED, "REG-" + i, "M1", "M2"));
+			}
+			assertThat(log.getSegmentCount()).isEqualTo(3);
+			assertThat(segmentFiles()).hasSize(3);
+
+			// Only the newest events are kept, in order
+			List<AuditEvent> events = log.query(null, null, Long.MIN_VALUE, Long.MAX_VALUE, 1000);
+			assertThat(events).isNotEmpty().hasSizeLessThan(200);
+			assertThat(events.get(events.size() - 1).getReg()).isEqualTo("REG-199");
+			assertThat(events).extracting(AuditEvent::getTime).isSorted();
+			assertThat(log.query(null, null, 0, 10, 1000)).isEmpty();
+		}
+	}
+
+	@Test
+	void reopenedLogKeepsEventsAndDropsTornRecord() throws IOException {
+		try (AuditLog log = new AuditLog(directory, SEGMENT_SIZE, 0)) {
+			log.append(new AuditEvent(1, AuditEventType.VEHICLE_CREATED, "R1", null, null));
+			log.append(new AuditEvent(2, AuditEventType.VEHICLE_CREATED, "R2", null, null));
+		}
+
+		// Simulate a crash in the middle of a record: a length with no valid data
+		Path segment = segmentFiles().get(0);
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			long end = 2 * (8 + 8 + 1 + 3 * 2 + 2);
+			file.seek(end);
+			file.writeInt(40);
+			file.writeInt(12345);
+		}
+
+		try (AuditLog log = new AuditLog(directory, SEGMENT_SIZE, 0)) {
+			log.append(new AuditEvent(3, AuditEventType.VEHICLE_CREATED, "R3", null, null));
+			assertThat(log.query(null, null, Long.MIN_VALUE, Long.MAX_VALUE, 10)).extracting(AuditEvent::getReg)
+					.containsExactly("R1", "R2", "R3");
+		}
+	}
+
+	@Test
+	void directoryCanOnlyBeOpenedOnce() throws IOException {
+		try (AuditLog log = new AuditLog(directory, SEGMENT_SIZE, 0)) {
+			assertThatThrownBy(() -> new AuditLog(directory, SEGMENT_SIZE, 0))
+					.isInstanceOf(IllegalStateException.class);
+		}
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(path -> path.getFileName().toString().endsWith(".log")).sorted().toList();
+		}
+	}
+}
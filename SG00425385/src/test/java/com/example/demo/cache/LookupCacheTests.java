@@ -0,0 +1,88 @@
+package com.example.demo.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.dto.CacheStatsDTO;
+
+/**
+ * Checks the read-through lookup cache: hits, least-recently-used and
+ * time-to-live eviction, absent keys and loads racing with invalidations.
+ */
+class LookupCacheTests {
+
+	@Test
+	void leastRecentlyUsedEntriesAreEvicted() {
+		LookupCache<String, String> cache = new LookupCache<>("test", 2, 300);
+		AtomicInteger loads = new AtomicInteger();
+
+		cache.get("a", key -> key + loads.incrementAndGet());
+		cache.get("b", key -> key + loads.incrementAndGet());
+		// Reading a makes b the least recently used entry
+		assertThat(cache.get("a", key -> "reloaded")).isEqualTo("a1");
+		cache.get("c", key -> key + loads.incrementAndGet());
+
+		assertThat(cache.get("a", key -> "reloaded")).isEqualTo("a1");
+		assertThat(cache.get("c", key -> "reloaded")).isEqualTo("c3");
+		assertThat(cache.get("b", key -> "reloaded")).isEqualTo("reloaded");
+
+		CacheStatsDTO stats = cache.getStats();
+		assertThat(stats.getSize()).isEqualTo(2);
+		assertThat(stats.getMaxSize()).isEqualTo(2);
+		assertThat(stats.getHits()).isEqualTo(3);
+		assertThat(stats.getMisses()).isEqualTo(4);
+		assertThat(stats.getEvictions()).isEqualTo(2);
+	}
+
+	@Test
+	void expiredEntriesAreReloaded() {
+		LookupCache<String, String> cache = new LookupCache<>("test", 10, 0);
+
+		cache.get("a", key -> "first");
+		assertThat(cache.get("a", key -> "second")).isEqualTo("second");
+		assertThat(cache.getStats().getHits()).isZero();
+		assertThat(cache.getStats().getSize()).isZero();
+	}
+
+	@Test
+	void absentValuesAreNotCached() {
+		LookupCache<String, String> cache = new LookupCache<>("test", 10, 300);
+
+		assertThat(cache.get("a", key -> null)).isNull();
+		assertThat(cache.get("a", key -> "created")).isEqualTo("created");
+		assertThat(cache.get("a", key -> "reloaded")).isEqualTo("created");
+	}
+
+	@Test
+	void invalidatedEntriesAreReloaded() {
+		LookupCache<String, String> cache = new LookupCache<>("test", 10, 300);
+
+		cache.get("a", key -> "old");
+		cache.get("b", key -> "old");
+		cache.invalidate("a");
+		assertThat(cache.get("a", key -> "new")).isEqualTo("new");
+		assertThat(cache.get("b", key -> "new")).isEqualTo("old");
+
+		cache.invalidateAll();
+		assertThat(cache.getStats().getSize()).isZero();
+		assertThat(cache.getStats().getInvalidations()).isEqualTo(3);
+		assertThat(cache.get("b", key -> "new")).isEqualTo("new");
+	}
+
+	@Test
+	void loadOverlappingAnInvalidationIsNotCached() {
+		LookupCache<String, String> cache = new LookupCache<>("test", 10, 300);
+
+		// A reader loads the old value while a writer changes and evicts the key
+		String loaded = cache.get("a", key -> {
+			cache.invalidate("a");
+			return "stale";
+		});
+
+		assertThat(loaded).isEqualTo("stale");
+		assertThat(cache.get("a", key -> "fresh")).isEqualTo("fresh");
+	}
+}
@@ -0,0 +1,62 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Checks that clients are limited by their own read and write budgets, with
+ * per-endpoint costs.
+ */
+@SpringBootTest(properties = { "app.admission.read.rate=0.01", "app.admission.read.burst=20",
+		"app.admission.write.rate=0.01", "app.admission.write.burst=20",
+		"app.admission.endpoints[VehicleController.getVehicle].cost=19",
+		"app.admission.endpoints[VehicleController.updateVehicleMechanic].cost=20" })
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class AdmissionControlConfigTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void clientsOverBudgetGetTooManyRequests() throws Exception {
+		assertThat(status(get("/api/vehicle").param("make", "Admission"), "adm-a")).isEqualTo(200);
+		assertThat(status(get("/api/vehicle/ADM-1"), "adm-a")).isEqualTo(500);
+
+		MockHttpServletResponse limited = perform(get("/api/vehicle").param("make", "Admission"), "adm-a");
+		assertThat(limited.getStatus()).isEqualTo(429);
+		assertThat(Long.parseLong(limited.getHeader(HttpHeaders.RETRY_AFTER))).isBetween(90L, 100L);
+		assertThat(limited.getContentAsString()).startsWith("Too many read requests");
+
+		// Other clients and the write budget are unaffected
+		assertThat(status(get("/api/vehicle").param("make", "Admission"), "adm-b")).isEqualTo(200);
+		assertThat(status(assignMechanic(), "adm-a")).isEqualTo(500);
+		assertThat(status(assignMechanic(), "adm-a")).isEqualTo(429);
+		// Other APIs aren't limited
+		assertThat(status(get("/api/cache/stats"), "adm-a")).isEqualTo(200);
+	}
+
+	private static MockHttpServletRequestBuilder assignMechanic() {
+		return put("/api/vehicle/ADM-1").contentType(MediaType.APPLICATION_JSON).content("{\"mid\":\"M001\"}");
+	}
+
+	private int status(MockHttpServletRequestBuilder request, String client) throws Exception {
+		return perform(request, client).getStatus();
+	}
+
+	private MockHttpServletResponse perform(MockHttpServletRequestBuilder request, String client) throws Exception {
+		return mockMvc.perform(request.header("X-Client-Id", client)).andReturn().getResponse();
+	}
+}
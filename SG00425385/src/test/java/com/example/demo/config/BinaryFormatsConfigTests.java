@@ -0,0 +1,123 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.demo.dto.VehicleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+/**
+ * Checks that the vehicle endpoints read and write CBOR and Smile when asked
+ * to, and JSON otherwise, with one weak ETag for all formats, and that
+ * messages of any controller are sent as plain text.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class BinaryFormatsConfigTests {
+
+	private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+	private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper json = new ObjectMapper();
+	private final ObjectMapper cbor = new CBORMapper();
+	private final ObjectMapper smile = new SmileMapper();
+
+	@Test
+	void vehiclesAreReadAndWrittenInTheRequestedFormat() throws Exception {
+		// Created from a CBOR body, answered in Smile
+		MockHttpServletResponse created = mockMvc.perform(post("/api/vehicle").contentType(CBOR).accept(SMILE)
+				.content(cbor.writeValueAsBytes(Map.of("reg", "BF-1", "make", "Bfmake", "model", "Bfmodel"))))
+				.andReturn().getResponse();
+		assertThat(created.getStatus()).isEqualTo(200);
+		assertThat(created.getContentType()).isEqualTo(SMILE.toString());
+		assertThat(smile.readValue(created.getContentAsByteArray(), VehicleDTO.class).getMake()).isEqualTo("Bfmake");
+
+		MockHttpServletResponse vehicle = mockMvc.perform(get("/api/vehicle/BF-1").accept(CBOR)).andReturn()
+				.getResponse();
+		assertThat(vehicle.getContentType()).isEqualTo(CBOR.toString());
+		assertThat(vehicle.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+		assertThat(cbor.readValue(vehicle.getContentAsByteArray(), VehicleDTO.class).getModel())
+				.isEqualTo("Bfmodel");
+
+		// JSON stays the default, and every format holds the same listing
+		MockHttpServletResponse listing = mockMvc.perform(get("/api/vehicle").param("make", "Bfmake")
+				.header(HttpHeaders.ACCEPT, "*/*")).andReturn().getResponse();
+		assertThat(listing.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+		MockHttpServletResponse cborListing = mockMvc.perform(get("/api/vehicle").param("make", "Bfmake")
+				.accept(CBOR)).andReturn().getResponse();
+		assertThat(cborListing.getContentAsByteArray().length).isLessThan(listing.getContentAsByteArray().length);
+		assertThat(cbor.readTree(cborListing.getContentAsByteArray()))
+				.isEqualTo(json.readTree(listing.getContentAsByteArray()));
+	}
+
+	@Test
+	void formatsShareAWeakEtag() throws Exception {
+		MockHttpServletResponse listing = mockMvc.perform(get("/api/vehicle/all")).andReturn().getResponse();
+		MockHttpServletResponse cborListing = mockMvc.perform(get("/api/vehicle/all").accept(CBOR)).andReturn()
+				.getResponse();
+		String etag = listing.getHeader(HttpHeaders.ETAG);
+		assertThat(etag).startsWith("W/\"");
+		assertThat(cborListing.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+
+		// A copy cached in one format is revalidated in another
+		assertThat(mockMvc.perform(get("/api/vehicle/all").accept(SMILE).header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andReturn().getResponse().getStatus()).isEqualTo(304);
+
+		MockHttpServletResponse vehicle = mockMvc.perform(get("/api/vehicle/09-G-992").accept(CBOR)).andReturn()
+				.getResponse();
+		Long version = cbor.readValue(vehicle.getContentAsByteArray(), VehicleDTO.class).getVersion();
+		assertThat(vehicle.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"" + version + "\"");
+	}
+
+	@Test
+	void errorsArePlainTextInAnyFormat() throws Exception {
+		MockHttpServletResponse missing = mockMvc.perform(get("/api/vehicle/BF-404").accept(CBOR)).andReturn()
+				.getResponse();
+
+		assertThat(missing.getStatus()).isEqualTo(500);
+		assertThat(missing.getContentType()).startsWith(MediaType.TEXT_PLAIN_VALUE);
+		assertThat(missing.getContentAsString()).isEqualTo("Vehicle BF-404 doesn't exist");
+	}
+
+	@Test
+	void mechanicMessagesArePlainTextInAnyFormat() throws Exception {
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) VALUES ('BFM1', 'Name', 100, 1)");
+
+		MockHttpServletResponse blocked = mockMvc.perform(delete("/api/mechanic/M001").accept(CBOR)
+				.header("X-Client-Id", UUID.randomUUID().toString())).andReturn().getResponse();
+		assertThat(blocked.getStatus()).isEqualTo(500);
+		assertThat(blocked.getContentType()).startsWith(MediaType.TEXT_PLAIN_VALUE);
+		assertThat(blocked.getContentAsString()).isEqualTo("Mechanic M001 is still servicing vehicles");
+
+		MockHttpServletResponse deleted = mockMvc.perform(delete("/api/mechanic/BFM1").accept(SMILE)
+				.header("X-Client-Id", UUID.randomUUID().toString())).andReturn().getResponse();
+		assertThat(deleted.getStatus()).isEqualTo(200);
+		assertThat(deleted.getContentType()).startsWith(MediaType.TEXT_PLAIN_VALUE);
+		assertThat(deleted.getContentAsString()).isEqualTo("Mechanic BFM1 successfully deleted");
+	}
+}
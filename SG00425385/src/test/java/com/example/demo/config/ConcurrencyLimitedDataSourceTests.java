@@ -0,0 +1,125 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Checks that the concurrency-limited DataSource hands out at most its number
+ * of connections at once, and returns each permit exactly once.
+ */
+class ConcurrencyLimitedDataSourceTests {
+
+	@Test
+	void connectionsBeyondTheLimitTimeOut() throws SQLException {
+		StubDataSource target = new StubDataSource();
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 2, 50);
+
+		Connection first = dataSource.getConnection();
+		Connection second = dataSource.getConnection();
+		assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class)
+				.hasMessage("No database connection available within 50ms");
+		assertThat(target.opened.get()).isEqualTo(2);
+
+		// Closing twice returns only one permit
+		first.close();
+		first.close();
+		assertThat(target.closed.get()).isEqualTo(1);
+		Connection third = dataSource.getConnection();
+		assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+		second.close();
+		third.close();
+	}
+
+	@Test
+	void waitingCallersGetTheNextFreedConnection() throws Exception {
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(new StubDataSource(), 1, 10_000);
+		Connection held = dataSource.getConnection();
+
+		CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() -> {
+			try {
+				return dataSource.getConnection();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		});
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (dataSource.getWaiting() == 0 && System.nanoTime() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(dataSource.getWaiting()).isEqualTo(1);
+		assertThat(waiting).isNotDone();
+
+		held.close();
+		waiting.get(10, TimeUnit.SECONDS).close();
+		assertThat(dataSource.getWaiting()).isZero();
+	}
+
+	@Test
+	void failedConnectionsReturnTheirPermit() throws SQLException {
+		StubDataSource target = new StubDataSource();
+		ConcurrencyLimitedDataSource dataSource = new ConcurrencyLimitedDataSource(target, 1, 50);
+
+		target.failing = true;
+		assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class).hasMessage("Database down");
+		target.failing = false;
+		dataSource.getConnection().close();
+	}
+
+	@Test
+	void closingTheDataSourceClosesThePool() throws Exception {
+		StubDataSource target = new StubDataSource();
+		new ConcurrencyLimitedDataSource(target, 1, 50).close();
+
+		assertThat(target.shutDown).isTrue();
+	}
+
+	/**
+	 * DataSource handing out connections that only count how often they are
+	 * opened and closed.
+	 */
+	private static final class StubDataSource extends AbstractDataSource implements AutoCloseable {
+		private final AtomicInteger opened = new AtomicInteger();
+		private final AtomicInteger closed = new AtomicInteger();
+		private volatile boolean failing;
+		private volatile boolean shutDown;
+
+		@Override
+		public Connection getConnection() throws SQLException {
+			if (failing) {
+				throw new SQLException("Database down");
+			}
+			opened.incrementAndGet();
+			AtomicBoolean open = new AtomicBoolean(true);
+			return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+					new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+						if (method.getName().equals("close") && open.compareAndSet(true, false)) {
+							closed.incrementAndGet();
+						}
+						return method.getName().equals("isClosed") ? !open.get() : null;
+					});
+		}
+
+		@Override
+		public Connection getConnection(String username, String password) throws SQLException {
+			return getConnection();
+		}
+
+		@Override
+		public void close() {
+			shutDown = true;
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.example.demo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.services.VehicleService;
+
+/**
+ * Checks the read replica routing against two embedded databases. The replica
+ * starts as a copy of the primary plus one vehicle of its own, so a listing
+ * shows which database it was read from. The replica URL only opens an
+ * existing database, so shutting it down makes it unavailable.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver", "spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"app.datasource.replica.url=" + ReadReplicaRoutingTests.REPLICA_URL + ";IFEXISTS=TRUE",
+		"app.datasource.replica.username=sa", "app.datasource.replica.password=",
+		"app.datasource.replica.hikari.connection-timeout=250",
+		"app.datasource.replica.primary-after-write-ms=0", "app.datasource.replica.retry-ms=0" })
+@DirtiesContext
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadReplicaRoutingTests {
+
+	static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+	private static final String REPLICA_MAKE = "ReplicaOnly";
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private ReadReplicaRoutingDataSource dataSource;
+
+	private JdbcTemplate primary;
+	private JdbcTemplate replica;
+
+	@BeforeEach
+	void setUp() {
+		ReadReplicaRoutingDataSource.endRequest();
+		primary = new JdbcTemplate(dataSource.getPrimary());
+		replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+		if (replica.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'VEHICLE'",
+				Integer.class) == 0) {
+			for (String statement : primary.queryForList("SCRIPT", String.class)) {
+				replica.execute(statement);
+			}
+			replica.update("INSERT INTO vehicle (reg, make, model, make_key, model_key) VALUES (?, ?, ?, ?, ?)",
+					"R-1", REPLICA_MAKE, "Copy", "replicaonly", "copy");
+		}
+	}
+
+	@AfterEach
+	void tearDown() {
+		ReadReplicaRoutingDataSource.endRequest();
+	}
+
+	@Test
+	@Order(1)
+	void readOnlyTransactionsReadFromTheReplica() {
+		assertThat(findReplicaMake()).extracting(VehicleDTO::getReg)
+				.containsExactly("R-1");
+	}
+
+	@Test
+	@Order(2)
+	void writesGoToThePrimaryAndTheRequestKeepsReadingFromIt() {
+		vehicleService.createVehicle(vehicle("P-1", REPLICA_MAKE));
+
+		assertThat(primary.queryForObject("SELECT COUNT(*) FROM vehicle WHERE reg = 'P-1'", Integer.class))
+				.isEqualTo(1);
+		assertThat(replica.queryForObject("SELECT COUNT(*) FROM vehicle WHERE reg = 'P-1'", Integer.class))
+				.isZero();
+		assertThat(findReplicaMake()).extracting(VehicleDTO::getReg)
+				.containsExactly("P-1");
+
+		ReadReplicaRoutingDataSource.endRequest();
+		assertThat(findReplicaMake()).extracting(VehicleDTO::getReg)
+				.containsExactly("R-1");
+	}
+
+	@Test
+	@Order(3)
+	void readsFallBackToThePrimaryWhenTheReplicaIsDown() {
+		replica.execute("SHUTDOWN");
+		// The pool only revalidates connections idle for a while; drop them now
+		dataSource.getReplica().getHikariPoolMXBean().softEvictConnections();
+
+		assertThat(findReplicaMake()).extracting(VehicleDTO::getReg)
+				.containsExactly("P-1");
+	}
+
+	/**
+	 * Reads the vehicles of the replica-only make with the search, which unlike
+	 * the make listing isn't answered from the query cache.
+	 */
+	private List<VehicleDTO> findReplicaMake() {
+		return vehicleService.searchVehiclesDTO(REPLICA_MAKE, null, false, null);
+	}
+
+	private static VehicleDTO vehicle(String reg, String make) {
+		VehicleDTO vehicle = new VehicleDTO();
+		vehicle.setReg(reg);
+		vehicle.setMake(make);
+		vehicle.setModel("Original");
+		return vehicle;
+	}
+}
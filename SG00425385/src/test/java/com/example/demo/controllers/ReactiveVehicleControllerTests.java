@@ -0,0 +1,90 @@
+package com.example.demo.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that the reactive read API returns the same vehicles as the servlet
+ * endpoints. JDBC and R2DBC open the same named in-memory database.
+ */
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:reactive;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver", "spring.datasource.username=sa",
+		"spring.datasource.password=", "app.r2dbc.url=r2dbc:h2:mem:///reactive;DB_CLOSE_DELAY=-1",
+		"app.r2dbc.username=sa", "app.r2dbc.password=" })
+@AutoConfigureMockMvc
+@DirtiesContext
+class ReactiveVehicleControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final ObjectMapper json = new ObjectMapper();
+
+	@Test
+	void vehiclesMatchTheServletEndpoints() throws Exception {
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, owner_id, mechanic_id) VALUES "
+				+ "('RX-1', 'Rxmake', 'Rxmodel', (SELECT MIN(id) FROM customer), "
+				+ "(SELECT id FROM mechanic WHERE mid = 'M001'))");
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model) VALUES ('RX-2', 'Rxmake', 'Bare')");
+
+		MockHttpServletResponse all = perform(get("/api/reactive/vehicle/all"));
+		assertThat(all.getHeader(HttpHeaders.ETAG)).isNotNull();
+		assertThat(json.readTree(all.getContentAsByteArray()))
+				.isEqualTo(json.readTree(perform(get("/api/vehicle/all")).getContentAsByteArray()));
+
+		MockHttpServletResponse byMake = perform(get("/api/reactive/vehicle").param("make", "Rxmake"));
+		assertThat(json.readTree(byMake.getContentAsByteArray())).isEqualTo(json
+				.readTree(perform(get("/api/vehicle").param("make", "Rxmake")).getContentAsByteArray()));
+
+		MockHttpServletResponse vehicle = perform(get("/api/reactive/vehicle/RX-1"));
+		assertThat(vehicle.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"0\"");
+		assertThat(json.readTree(vehicle.getContentAsByteArray()))
+				.isEqualTo(json.readTree(perform(get("/api/vehicle/RX-1")).getContentAsByteArray()));
+
+		MockHttpServletResponse missing = perform(get("/api/reactive/vehicle/RX-404"));
+		assertThat(missing.getStatus()).isEqualTo(500);
+		assertThat(missing.getContentType()).startsWith(MediaType.TEXT_PLAIN_VALUE);
+		assertThat(missing.getContentAsString()).isEqualTo("Vehicle RX-404 doesn't exist");
+	}
+
+	@Test
+	void listingIsStreamedAsNdjson() throws Exception {
+		MockHttpServletResponse stream = perform(
+				get("/api/reactive/vehicle/all").accept(MediaType.APPLICATION_NDJSON));
+		assertThat(stream.getContentType()).startsWith(MediaType.APPLICATION_NDJSON_VALUE);
+		String[] lines = stream.getContentAsString().split("\n");
+		assertThat(lines).hasSize(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle", Integer.class));
+		assertThat(json.readTree(lines[0]).get("reg").asText())
+				.isEqualTo(jdbcTemplate.queryForObject("SELECT reg FROM vehicle ORDER BY id LIMIT 1", String.class));
+	}
+
+	/**
+	 * Performs a request, completing it if the handler went asynchronous.
+	 */
+	private MockHttpServletResponse perform(RequestBuilder request) throws Exception {
+		MvcResult result = mockMvc.perform(request).andReturn();
+		if (result.getRequest().isAsyncStarted()) {
+			result = mockMvc.perform(asyncDispatch(result)).andReturn();
+		}
+		return result.getResponse();
+	}
+}
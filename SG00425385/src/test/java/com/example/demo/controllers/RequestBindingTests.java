@@ -0,0 +1,128 @@
+package com.example.demo.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.dto.VehicleDTO;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks that the typed request objects of the vehicle and mechanic write
+ * endpoints reject the same bodies with the same error messages as the
+ * map-based binding they replaced. None of the requests changes any data.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class RequestBindingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void createRejectsNotAllowedAttributesInOrder() throws Exception {
+		assertError(post("/api/vehicle"), "{\"id\": 1, \"reg\": \"RB-1\", \"owner\": {\"cid\": \"C0001\"}}",
+				"id should not be provided in the request");
+		assertError(post("/api/vehicle"), "{\"reg\": \"RB-1\", \"colour\": \"red\", \"owner\": {}}",
+				"Unrecognized field \"colour\" (class " + VehicleDTO.class.getName() + "), not marked as ignorable");
+		assertError(post("/api/vehicle"), "{\"reg\": \"RB-1\", \"owner\": {}, \"mechanic\": {}}",
+				"Owner should not be provided in the request");
+		assertError(post("/api/vehicle"), "{\"reg\": \"RB-1\", \"mechanic\": {\"mid\": \"M001\"}}",
+				"Mechanic should not be provided in the request");
+		assertError(post("/api/vehicle"), "{\"make\": \"Make\", \"model\": \"Model\"}",
+				"Registration (reg) must be provided");
+		assertError(post("/api/vehicle"), "{\"reg\": \"09-G-992\", \"make\": \"Make\", \"model\": \"Model\"}",
+				"Registration 09-G-992 already exists");
+	}
+
+	@Test
+	void bulkCreateReportsEachItemsFirstViolation() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(request(post("/api/vehicle/bulk"),
+				"[{\"id\": 1, \"reg\": \"RB-2\"}, {\"reg\": \"RB-3\", \"colour\": \"red\"}, "
+						+ "{\"reg\": \"RB-4\", \"mechanic\": {}}, {\"reg\": \"RB-5\", \"make\": \"Make\"}]"))
+				.andReturn().getResponse();
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		JsonNode result = objectMapper.readTree(response.getContentAsString());
+		assertThat(result.get("created").asInt()).isZero();
+		assertThat(result.get("errors")).extracting(error -> error.get("message").asText()).containsExactly(
+				"id should not be provided in the request",
+				"Unrecognized field \"colour\" (class " + VehicleDTO.class.getName() + "), not marked as ignorable",
+				"Mechanic should not be provided in the request", "Model must be provided");
+		assertThat(result.get("errors")).extracting(error -> error.get("reg").asText()).containsExactly("RB-2",
+				"RB-3", "RB-4", "RB-5");
+	}
+
+	@Test
+	void bulkCreateReportsNullItems() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(request(post("/api/vehicle/bulk"),
+				"[null, {\"reg\": \"RB-6\", \"make\": \"Make\"}, null]")).andReturn().getResponse();
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		JsonNode result = objectMapper.readTree(response.getContentAsString());
+		assertThat(result.get("created").asInt()).isZero();
+		assertThat(result.get("errors")).extracting(error -> error.get("index").asInt()).containsExactly(0, 1, 2);
+		assertThat(result.get("errors")).extracting(error -> error.get("message").asText())
+				.containsExactly("Vehicle must be provided", "Model must be provided", "Vehicle must be provided");
+		assertThat(result.get("errors").get(0).get("reg").isNull()).isTrue();
+	}
+
+	@Test
+	void mechanicAssignmentRequiresMidBeforeNotAllowedAttributes() throws Exception {
+		assertError(put("/api/vehicle/09-G-992"), "{\"id\": 1, \"name\": \"Name\"}",
+				"mid must be present in the request");
+		assertError(put("/api/vehicle/09-G-992"), "{\"mid\": \"M001\", \"name\": \"Name\", \"salary\": 1}",
+				"name attribute should not be provided in the request");
+		assertError(put("/api/vehicle/09-G-992"), "{\"mid\": \"M001\", \"id\": 1, \"name\": \"Name\"}",
+				"id attribute should not be provided in the request");
+		assertError(put("/api/vehicle/09-G-992"), "{\"mid\": \"M001\", \"salary\": null}",
+				"salary attribute should not be provided in the request");
+		assertError(put("/api/vehicle/09-G-992"), "{\"mid\": \"M001\", \"garage\": {}, \"vehicles\": []}",
+				"garage attribute should not be provided in the request");
+		assertError(put("/api/vehicle/09-G-992"), "{\"mid\": \"M001\", \"vehicles\": []}",
+				"vehicles attribute should not be provided in the request");
+		assertError(put("/api/vehicle/NO-SUCH-REG"), "{\"mid\": \"M001\", \"colour\": \"red\"}",
+				"Vehicle NO-SUCH-REG doesn't exist");
+	}
+
+	@Test
+	void reassignmentsRequireTheirAttributes() throws Exception {
+		assertError(put("/api/vehicle/mechanic"), "{\"mid\": \"M001\"}", "regs must be present in the request");
+		assertError(put("/api/vehicle/mechanic"), "{\"regs\": null, \"mid\": \"M001\"}",
+				"regs must be present in the request");
+		assertError(put("/api/vehicle/mechanic"), "{\"regs\": [\"09-G-992\"]}", "mid must be present in the request");
+		assertError(put("/api/mechanic/M001/vehicles"), "{}", "mid must be present in the request");
+		assertError(put("/api/mechanic/M001/vehicles"), "{\"mid\": null}", "mid must be present in the request");
+		// Only mid is checked here, other mechanic attributes are ignored
+		assertError(put("/api/mechanic/M001/vehicles"), "{\"mid\": \"M001\", \"name\": \"Name\"}",
+				"Vehicles of mechanic M001 can't be reassigned to the same mechanic");
+	}
+
+	private void assertError(MockHttpServletRequestBuilder builder, String body, String message) throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(request(builder, body)).andReturn().getResponse();
+		assertThat(response.getStatus()).isEqualTo(500);
+		assertThat(response.getContentAsString()).isEqualTo(message);
+	}
+
+	private static MockHttpServletRequestBuilder request(MockHttpServletRequestBuilder builder, String body) {
+		// Each request is a client of its own, so no write budget runs out
+		return builder.header("X-Client-Id", UUID.randomUUID().toString()).contentType(MediaType.APPLICATION_JSON)
+				.content(body);
+	}
+}
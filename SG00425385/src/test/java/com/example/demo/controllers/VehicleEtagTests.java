@@ -0,0 +1,99 @@
+package com.example.demo.controllers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Checks that the vehicle listings carry the data version as their ETag,
+ * answer a matching If-None-Match with 304 Not Modified, and change their
+ * ETag once a write commits, and that a vehicle's ETag can be sent back in
+ * If-Match.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class VehicleEtagTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void listingsAreRevalidatedWithTheirEtag() throws Exception {
+		MockHttpServletResponse first = mockMvc.perform(get("/api/vehicle/all")).andReturn().getResponse();
+		String etag = first.getHeader(HttpHeaders.ETAG);
+
+		assertThat(first.getStatus()).isEqualTo(200);
+		assertThat(etag).isNotBlank();
+		assertThat(first.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+
+		MockHttpServletResponse notModified = mockMvc
+				.perform(get("/api/vehicle/all").header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+		assertThat(notModified.getStatus()).isEqualTo(304);
+		assertThat(notModified.getContentAsString()).isEmpty();
+		assertThat(notModified.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+
+		// The other listings share the same data version
+		assertThat(mockMvc.perform(get("/api/vehicle").param("make", "Toyota").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andReturn().getResponse().getStatus()).isEqualTo(304);
+		assertThat(mockMvc
+				.perform(get("/api/vehicle/search").param("make", "toy").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andReturn().getResponse().getStatus()).isEqualTo(304);
+	}
+
+	@Test
+	void writesChangeTheEtag() throws Exception {
+		String etag = mockMvc.perform(get("/api/vehicle/all")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		MockHttpServletResponse created = mockMvc.perform(post("/api/vehicle")
+				.header("X-Client-Id", UUID.randomUUID().toString()).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"reg\": \"ET-" + UUID.randomUUID().toString().substring(0, 8)
+						+ "\", \"make\": \"EtMake\", \"model\": \"EtModel\"}"))
+				.andReturn().getResponse();
+		assertThat(created.getStatus()).isEqualTo(200);
+
+		MockHttpServletResponse changed = mockMvc
+				.perform(get("/api/vehicle/all").header(HttpHeaders.IF_NONE_MATCH, etag)).andReturn().getResponse();
+		assertThat(changed.getStatus()).isEqualTo(200);
+		assertThat(changed.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+		assertThat(changed.getContentAsString()).contains("EtMake");
+	}
+
+	@Test
+	void vehicleEtagIsAcceptedInIfMatch() throws Exception {
+		String reg = "EM-" + UUID.randomUUID().toString().substring(0, 8);
+		mockMvc.perform(post("/api/vehicle").header("X-Client-Id", UUID.randomUUID().toString())
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"reg\": \"" + reg + "\", \"make\": \"EmMake\", \"model\": \"EmModel\"}")).andReturn();
+		String etag = mockMvc.perform(get("/api/vehicle/" + reg)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isEqualTo("W/\"0\"");
+
+		MockHttpServletResponse updated = mockMvc.perform(assignMechanic(reg, etag)).andReturn().getResponse();
+		assertThat(updated.getStatus()).isEqualTo(200);
+		assertThat(updated.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"1\"");
+
+		MockHttpServletResponse stale = mockMvc.perform(assignMechanic(reg, etag)).andReturn().getResponse();
+		assertThat(stale.getStatus()).isEqualTo(409);
+		assertThat(stale.getContentType()).startsWith(MediaType.TEXT_PLAIN_VALUE);
+	}
+
+	private static MockHttpServletRequestBuilder assignMechanic(String reg, String ifMatch) {
+		return put("/api/vehicle/" + reg).header("X-Client-Id", UUID.randomUUID().toString())
+				.header(HttpHeaders.IF_MATCH, ifMatch).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"mid\": \"M002\"}");
+	}
+}
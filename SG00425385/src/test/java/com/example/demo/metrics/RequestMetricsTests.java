@@ -0,0 +1,75 @@
+package com.example.demo.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Checks that API requests are recorded per endpoint with their SQL
+ * statistics, and that debug mode adds them as Server-Timing headers.
+ */
+@SpringBootTest(properties = "app.metrics.debug-headers=true")
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+class RequestMetricsTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Test
+	void requestsAreRecordedByEndpoint() throws Exception {
+		long before = recorded("/api/vehicle/{reg}");
+
+		MockHttpServletResponse response = mockMvc.perform(get("/api/vehicle/09-G-992")).andReturn().getResponse();
+		mockMvc.perform(get("/api/vehicle/192-G-43")).andReturn();
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		DistributionSummary statements = meterRegistry.get("app.request.sql.statements")
+				.tags("method", "GET", "uri", "/api/vehicle/{reg}").summary();
+		assertThat(statements.count()).isEqualTo(before + 2);
+		assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+		Timer jdbc = meterRegistry.get("app.request.jdbc").tags("method", "GET", "uri", "/api/vehicle/{reg}").timer();
+		assertThat(jdbc.count()).isEqualTo(before + 2);
+		assertThat(meterRegistry.get("app.request.handler").tags("uri", "/api/vehicle/{reg}").timer().count())
+				.isEqualTo(before + 2);
+		assertThat(meterRegistry.get("app.request.serialization").tags("uri", "/api/vehicle/{reg}").timer().count())
+				.isEqualTo(before + 2);
+	}
+
+	@Test
+	void debugHeadersCarryTheRequestsSqlStatistics() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get("/api/vehicle/09-G-992")).andReturn().getResponse();
+
+		assertThat(response.getHeader("Server-Timing"))
+				.matches("db;dur=\\d+\\.\\d{2}, pool;dur=\\d+\\.\\d{2}, handler;dur=\\d+\\.\\d{2}");
+		assertThat(Integer.parseInt(response.getHeader("X-SQL-Statements"))).isPositive();
+	}
+
+	@Test
+	void requestsOutsideTheApiAreNotRecorded() throws Exception {
+		mockMvc.perform(get("/actuator/health")).andReturn();
+
+		assertThat(meterRegistry.find("app.request.sql.statements").tag("uri", "/actuator/health").meters())
+				.isEmpty();
+	}
+
+	private long recorded(String uri) {
+		DistributionSummary summary = meterRegistry.find("app.request.sql.statements").tags("method", "GET", "uri", uri)
+				.summary();
+		return summary == null ? 0 : summary.count();
+	}
+}
@@ -0,0 +1,172 @@
+package com.example.demo.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.search.NgramIndex.Document;
+import com.example.demo.search.NgramIndex.Hit;
+import com.example.demo.search.NgramIndex.Result;
+
+/**
+ * Checks the trigram index: normalized substring matching, replacing and
+ * removing documents and reusing their slots, the ranking and limit of the
+ * hits, and searches running alongside writes.
+ */
+class NgramIndexTests {
+
+	@Test
+	void tokensMatchNormalizedSubstrings() {
+		NgramIndex index = new NgramIndex();
+		index.put(vehicle("09-G-992", "Toyota", "Corolla"));
+		index.put(vehicle("192-G-43", "Ford", "Focus"));
+
+		assertThat(keys(index.search("09 g-992", 10))).containsExactly("09-G-992");
+		assertThat(keys(index.search("OROL", 10))).containsExactly("09-G-992");
+		assertThat(keys(index.search("toyota focus", 10))).isEmpty();
+		assertThat(keys(index.search("ford foc", 10))).containsExactly("192-G-43");
+		// Tokens shorter than a trigram are checked against every document
+		assertThat(keys(index.search("g", 10))).containsExactlyInAnyOrder("09-G-992", "192-G-43");
+		assertThat(index.search(" -- ", 10).getTotal()).isZero();
+		assertThat(index.search("ford", 0).getHits()).isEmpty();
+	}
+
+	@Test
+	void sharedTrigramsAloneDoNotMatch() {
+		NgramIndex index = new NgramIndex();
+		index.put(vehicle("R-1", "abcxbcd", null));
+
+		// "abcd" has the trigrams abc and bcd, which both occur, but not as a whole
+		assertThat(index.search("abcd", 10).getTotal()).isZero();
+		assertThat(keys(index.search("xbcd", 10))).containsExactly("R-1");
+	}
+
+	@Test
+	void documentsCanBeReplacedAndRemoved() {
+		NgramIndex index = new NgramIndex();
+		index.put(vehicle("R-1", "Toyota", "Corolla"));
+		index.put(vehicle("R-1", "Honda", "Civic"));
+
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(index.search("toyota", 10).getTotal()).isZero();
+		assertThat(keys(index.search("civic", 10))).containsExactly("R-1");
+
+		// Same key, other type
+		index.put(new Document("customer", "R-1", "Civic Club", new String[] { "name" }, new String[] { "Civic Club" },
+				new double[] { 1 }));
+		index.remove("vehicle", "R-1");
+		index.remove("vehicle", "NO-SUCH-KEY");
+		assertThat(index.size()).isEqualTo(1);
+		assertThat(index.search("civic", 10).getHits()).extracting(Hit::getType).containsExactly("customer");
+
+		index.clear();
+		assertThat(index.size()).isZero();
+		assertThat(index.search("civic", 10).getTotal()).isZero();
+	}
+
+	@Test
+	void removedSlotsAreReused() {
+		NgramIndex index = new NgramIndex();
+		for (int i = 0; i < 10; i++) {
+			index.put(vehicle("R-" + i, "Make", "Model"));
+		}
+
+		// Churn: every round removes and adds back as many documents
+		for (int round = 0; round < 100; round++) {
+			for (int i = 0; i < 5; i++) {
+				index.remove("vehicle", "R-" + (round * 5 + i));
+				index.put(vehicle("R-" + (10 + round * 5 + i), "Make", "Model"));
+			}
+			index.put(vehicle("R-" + (10 + round * 5), "Other", "Model"));
+		}
+
+		assertThat(index.size()).isEqualTo(10);
+		assertThat(index.slots()).isEqualTo(10);
+		// The last two rounds' replaced documents are still indexed
+		assertThat(index.search("make", 100).getTotal()).isEqualTo(8);
+		assertThat(keys(index.search("other", 10))).containsExactlyInAnyOrder("R-500", "R-505");
+	}
+
+	@Test
+	void hitsAreRankedByMatchAndWeight() {
+		NgramIndex index = new NgramIndex();
+		index.put(vehicle("R-1", "Kia", "Pica"));
+		index.put(vehicle("R-2", "Picanto", "Rio"));
+		index.put(vehicle("R-3", "Pica", "Rio"));
+		index.put(vehicle("R-4", "Epica", "Rio"));
+		index.put(vehicle("R-5", "Epica", "Rio2"));
+
+		Result result = index.search("pica", 10);
+
+		// Whole make 3 x 2, whole model 3 x 1, make prefix 2 x 2, make substring 1 x 2
+		assertThat(result.getHits()).extracting(Hit::getScore).containsExactly(6.0, 4.0, 3.0, 2.0, 2.0);
+		assertThat(keys(result)).containsExactly("R-3", "R-2", "R-1", "R-4", "R-5");
+		assertThat(result.getHits().get(0).getMatchedFields()).containsExactly("make");
+
+		Result limited = index.search("pica", 2);
+		assertThat(limited.getTotal()).isEqualTo(5);
+		assertThat(keys(limited)).containsExactly("R-3", "R-2");
+
+		// Scores add up over the tokens, each in its best field
+		Result twoTokens = index.search("epica rio2", 10);
+		assertThat(keys(twoTokens)).containsExactly("R-5");
+		assertThat(twoTokens.getHits().get(0).getScore()).isEqualTo(9.0);
+		assertThat(twoTokens.getHits().get(0).getMatchedFields()).containsExactly("make", "model");
+	}
+
+	@Test
+	void searchesRunAlongsideWrites() throws Exception {
+		NgramIndex index = new NgramIndex();
+		for (int i = 0; i < 100; i++) {
+			index.put(vehicle("STABLE-" + i, "Stablemake", "Model"));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int writer = 0; writer < 2; writer++) {
+				int offset = writer * 1000;
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						index.put(vehicle("CHURN-" + (offset + i), "Churnmake", "Model"));
+						index.remove("vehicle", "CHURN-" + (offset + i - 1));
+					}
+				}));
+			}
+			for (int reader = 0; reader < 2; reader++) {
+				futures.add(executor.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						// Documents that aren't written are always found
+						assertThat(index.search("stablemake", 1000).getTotal()).isEqualTo(100);
+						assertThat(index.search("churnmake", 1000).getTotal()).isBetween(0, 4);
+					}
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// Each writer leaves its last document
+		assertThat(index.size()).isEqualTo(102);
+		assertThat(keys(index.search("churnmake", 10))).containsExactlyInAnyOrder("CHURN-499", "CHURN-1499");
+	}
+
+	private static Document vehicle(String reg, String make, String model) {
+		return new Document("vehicle", reg, reg, new String[] { "reg", "make", "model" },
+				new String[] { reg, make, model }, new double[] { 3, 2, 1 });
+	}
+
+	private static List<String> keys(Result result) {
+		return result.getHits().stream().map(Hit::getKey).toList();
+	}
+}
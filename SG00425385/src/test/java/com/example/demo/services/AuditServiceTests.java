@@ -0,0 +1,73 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.audit.AuditEventType;
+import com.example.demo.dto.AuditEventDTO;
+import com.example.demo.dto.VehicleDTO;
+
+/**
+ * Checks that committed creations, assignments and deletions reach the audit
+ * log, and that rolled back ones don't.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class AuditServiceTests {
+
+	@Autowired
+	private AuditService auditService;
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private MechanicService mechanicService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void changesAreRecorded() throws InterruptedException {
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) VALUES ('AUM1', 'Name', 100, 1)");
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) VALUES ('AUM2', 'Name', 100, 2)");
+		VehicleDTO vehicle = new VehicleDTO();
+		vehicle.setReg("AU-1");
+		vehicle.setMake("AuMake");
+		vehicle.setModel("AuModel");
+		vehicleService.createVehicle(vehicle);
+		vehicleService.updateVehicleMechanic("AU-1", "AUM1");
+		vehicleService.updateVehicleMechanic("AU-1", "AUM2");
+		mechanicService.deleteMechanic("AUM1");
+		auditService.flush();
+
+		List<AuditEventDTO> events = auditService.query("AU-1", null, null, null, null);
+		assertThat(events).extracting(AuditEventDTO::getType).containsExactly(AuditEventType.VEHICLE_CREATED,
+				AuditEventType.MECHANIC_ASSIGNED, AuditEventType.MECHANIC_ASSIGNED);
+		assertThat(events.get(2).getMid()).isEqualTo("AUM2");
+		assertThat(events.get(2).getPreviousMid()).isEqualTo("AUM1");
+
+		assertThat(auditService.query(null, "AUM1", events.get(1).getTime(), null, null))
+				.extracting(AuditEventDTO::getType).containsExactly(AuditEventType.MECHANIC_ASSIGNED,
+						AuditEventType.MECHANIC_ASSIGNED, AuditEventType.MECHANIC_DELETED);
+	}
+
+	@Test
+	void rolledBackChangesAreNotRecorded() throws InterruptedException {
+		try {
+			vehicleService.reassignVehicles(List.of("09-G-992", "NO-SUCH-REG"), "M003");
+		} catch (IllegalArgumentException e) {
+			// Expected, nothing is changed
+		}
+		auditService.flush();
+
+		assertThat(auditService.query("09-G-992", "M003", null, null, null)).isEmpty();
+	}
+}
@@ -0,0 +1,140 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.groups.Tuple.tuple;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.ImportResultDTO;
+import com.example.demo.dto.ImportResultDTO.RowErrorDTO;
+
+/**
+ * Checks that CSV imports resolve references by natural key, report bad rows
+ * without stopping, and keep the garage summaries and search index current.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class CsvImportServiceTests {
+
+	@Autowired
+	private CsvImportService csvImportService;
+
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	@Autowired
+	private SearchService searchService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void entitiesAreImportedWithReferences() throws IOException {
+		ImportResultDTO garages = importCsv("garage", "gid,location,budget\r\n"
+				+ "CIG1,\"Ennis, Co. Clare\",50000\r\n"
+				+ "CIG2,Kilrush,lots\r\n");
+		assertThat(garages.getImported()).isEqualTo(1);
+		assertThat(garages.getErrors()).extracting(RowErrorDTO::getLine, RowErrorDTO::getMessage)
+				.containsExactly(tuple(3, "Budget must be a whole number"));
+		assertThat(jdbcTemplate.queryForObject("SELECT location FROM garage WHERE gid = 'CIG1'", String.class))
+				.isEqualTo("Ennis, Co. Clare");
+
+		ImportResultDTO mechanics = importCsv("mechanic", "mid,name,salary,gid\n"
+				+ "CIM1,Importer,41000.5,CIG1\n"
+				+ "CIM2,Nobody,1,NO-SUCH-GARAGE\n");
+		assertThat(mechanics.getImported()).isEqualTo(1);
+		assertThat(mechanics.getErrors()).extracting(RowErrorDTO::getKey, RowErrorDTO::getMessage)
+				.containsExactly(tuple("CIM2", "Garage NO-SUCH-GARAGE doesn't exist"));
+
+		importCsv("customer", "cid,name,phone\nCIC1,\"Quote \"\"Q\"\" Person\",087 555\n");
+		assertThat(jdbcTemplate.queryForObject("SELECT name FROM customer WHERE cid = 'CIC1'", String.class))
+				.isEqualTo("Quote \"Q\" Person");
+
+		// Columns in any order, missing optional values, a multi-line quoted field
+		ImportResultDTO vehicles = importCsv("vehicle", "mid,reg,make,model,cid\n"
+				+ "CIM1,CI-1,Ciimport,\"Long\nModel\",CIC1\n"
+				+ ",CI-2,Ciimport,Plain,\n"
+				+ "CIM1,CI-1,Ciimport,Again,\n"
+				+ "CIM9,CI-3,Ciimport,Plain,\n"
+				+ "CIM1,CI-4,Ciimport\n");
+		assertThat(vehicles.getRows()).isEqualTo(5);
+		assertThat(vehicles.getImported()).isEqualTo(2);
+		assertThat(vehicles.getFailed()).isEqualTo(3);
+		assertThat(vehicles.getErrors()).extracting(RowErrorDTO::getLine, RowErrorDTO::getMessage).containsExactly(
+				tuple(5, "Registration CI-1 is duplicated in the file"),
+				tuple(6, "Mechanic CIM9 doesn't exist"),
+				tuple(7, "Expected 5 fields but found 3"));
+		assertThat(jdbcTemplate.queryForObject("SELECT model FROM vehicle WHERE reg = 'CI-1'", String.class))
+				.isEqualTo("Long\nModel");
+
+		// A second run only finds existing keys
+		ImportResultDTO again = importCsv("vehicle", "reg,make,model\nCI-2,Ciimport,Plain\n");
+		assertThat(again.getImported()).isZero();
+		assertThat(again.getErrors()).extracting(RowErrorDTO::getMessage)
+				.containsExactly("Registration CI-2 already exists");
+
+		assertThat(garageAnalyticsService.getAnalytics()).usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyElementsOf(garageAnalyticsService.computeAnalytics());
+		assertThat(searchService.search("ciimport long", null, null).getTotal()).isEqualTo(1);
+		assertThat(searchService.search("quote person", null, null).getTotal()).isEqualTo(1);
+	}
+
+	@Test
+	void invalidFilesAreRejected() {
+		assertThatThrownBy(() -> importCsv("invoice", "id\n1\n")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> importCsv("vehicle", "reg,make\nCI-X,Make\n"))
+				.hasMessage("Column model is missing");
+		assertThatThrownBy(() -> importCsv("vehicle", "reg,make,model,colour\n"))
+				.hasMessageStartingWith("Unknown column colour");
+		assertThatThrownBy(() -> importCsv("customer", "cid,name\nCIC-X,\"Unclosed\n"))
+				.hasMessageStartingWith("Quoted field starting on line 2 isn't closed");
+	}
+
+	@Test
+	void largeFileIsStreamed() throws IOException {
+		int rows = 20_000;
+		String header = "reg,make,model\n";
+		Iterator<InputStream> lines = IntStream.range(0, rows)
+				.mapToObj(i -> (InputStream) new ByteArrayInputStream(
+						("CIL-" + i + ",Cilarge,Model " + (i % 50) + "\n").getBytes(StandardCharsets.UTF_8)))
+				.iterator();
+		Enumeration<InputStream> parts = Collections.enumeration(List.of(
+				new ByteArrayInputStream(header.getBytes(StandardCharsets.UTF_8)),
+				new SequenceInputStream(new Enumeration<InputStream>() {
+					@Override
+					public boolean hasMoreElements() {
+						return lines.hasNext();
+					}
+
+					@Override
+					public InputStream nextElement() {
+						return lines.next();
+					}
+				})));
+
+		ImportResultDTO result = csvImportService.importCsv("vehicle", new SequenceInputStream(parts));
+		assertThat(result.getImported()).isEqualTo(rows);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle WHERE make = 'Cilarge'", Long.class))
+				.isEqualTo(rows);
+	}
+
+	private ImportResultDTO importCsv(String entity, String csv) throws IOException {
+		return csvImportService.importCsv(entity, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+	}
+}
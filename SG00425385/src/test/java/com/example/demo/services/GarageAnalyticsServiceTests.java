@@ -0,0 +1,107 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.GarageAnalyticsDTO;
+import com.example.demo.dto.MechanicWorkloadDTO;
+
+/**
+ * Checks that the garage summaries, adjusted on every change, always match the
+ * figures computed from the mechanic and vehicle tables.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class GarageAnalyticsServiceTests {
+
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private MechanicService mechanicService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		// Other tests sharing the database write around the service
+		garageAnalyticsService.rebuild();
+		assertSummariesMatch();
+	}
+
+	@Test
+	void summariesFollowReassignments() {
+		jdbcTemplate.update("INSERT INTO garage (gid, location, budget) VALUES ('GA1', 'Tuam', 90000)");
+		jdbcTemplate.update("INSERT INTO garage (gid, location, budget) VALUES ('GA2', 'Gort', 80000)");
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) "
+				+ "VALUES ('GAM1', 'Ann', 40000.5, (SELECT id FROM garage WHERE gid = 'GA1'))");
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) "
+				+ "VALUES ('GAM2', 'Bob', 30000.25, (SELECT id FROM garage WHERE gid = 'GA2'))");
+		for (int i = 0; i < 4; i++) {
+			jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, mechanic_id) "
+					+ "VALUES (?, 'GaMake', 'GaModel', (SELECT id FROM mechanic WHERE mid = 'GAM1'))", "GA-" + i);
+		}
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model) VALUES ('GA-9', 'GaMake', 'GaModel')");
+		garageAnalyticsService.rebuild();
+		assertThat(analytics("GA1").getVehicles()).isEqualTo(4);
+		assertThat(analytics("GA1").getPayroll()).isEqualTo(40000.5);
+
+		vehicleService.updateVehicleMechanic("GA-0", "GAM2");
+		assertSummariesMatch();
+
+		vehicleService.reassignVehicles(List.of("GA-1", "GA-2", "GA-9"), "GAM2");
+		assertSummariesMatch();
+		assertThat(analytics("GA2").getVehicles()).isEqualTo(4);
+
+		mechanicService.reassignAllVehicles("GAM2", "GAM1");
+		assertSummariesMatch();
+		assertThat(analytics("GA1").getVehicles()).isEqualTo(5);
+		assertThat(analytics("GA2").getVehicles()).isZero();
+		assertThat(analytics("GA1").getVehiclesPerMechanic()).isEqualTo(5.0);
+
+		mechanicService.deleteMechanic("GAM2");
+		assertSummariesMatch();
+		assertThat(analytics("GA2").getMechanics()).isZero();
+		assertThat(analytics("GA2").getPayroll()).isZero();
+		assertThat(analytics("GA2").getRemainingBudget()).isEqualTo(80000);
+
+		assertThat(garageAnalyticsService.getWorkload("GA1")).extracting(MechanicWorkloadDTO::getMid,
+				MechanicWorkloadDTO::getVehicles).containsExactly(org.assertj.core.groups.Tuple.tuple("GAM1", 5L));
+	}
+
+	@Test
+	void failedReassignmentLeavesSummariesUnchanged() {
+		assertThatThrownBy(() -> vehicleService.reassignVehicles(List.of("09-G-992", "NO-SUCH-REG"), "M003"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertSummariesMatch();
+	}
+
+	@Test
+	void workloadOfUnknownGarageIsRejected() {
+		assertThatThrownBy(() -> garageAnalyticsService.getWorkload("NO-SUCH-GARAGE"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private GarageAnalyticsDTO analytics(String gid) {
+		return garageAnalyticsService.getAnalytics().stream().filter(a -> a.getGid().equals(gid)).findFirst()
+				.orElseThrow();
+	}
+
+	private void assertSummariesMatch() {
+		assertThat(garageAnalyticsService.getAnalytics()).usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyElementsOf(garageAnalyticsService.computeAnalytics());
+	}
+}
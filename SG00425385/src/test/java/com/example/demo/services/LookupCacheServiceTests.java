@@ -0,0 +1,55 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.models.Mechanic;
+
+/**
+ * Checks that the mechanic lookup cache serves repeated lookups, is left
+ * untouched by assignments and failed deletes, and forgets a mechanic once it
+ * has been deleted.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class LookupCacheServiceTests {
+
+	@Autowired
+	private LookupCacheService lookupCacheService;
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private MechanicService mechanicService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void deletedMechanicsAreEvicted() {
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) VALUES ('LCM1', 'LcName', 100, 1)");
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model) VALUES ('LC-1', 'LcMake', 'LcModel')");
+		Mechanic cached = lookupCacheService.findMechanicByMid("LCM1");
+		assertThat(lookupCacheService.findMechanicByMid("LCM1")).isSameAs(cached);
+
+		vehicleService.updateVehicleMechanic("LC-1", "LCM1");
+		assertThat(lookupCacheService.findMechanicByMid("LCM1")).isSameAs(cached);
+
+		// A failed delete leaves the cached mechanic in place
+		assertThatThrownBy(() -> mechanicService.deleteMechanic("LCM1")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Mechanic LCM1 is still servicing vehicles");
+		assertThat(lookupCacheService.findMechanicByMid("LCM1")).isSameAs(cached);
+
+		vehicleService.updateVehicleMechanic("LC-1", "M001");
+		mechanicService.deleteMechanic("LCM1");
+		assertThat(lookupCacheService.findMechanicByMid("LCM1")).isNull();
+		assertThat(cached.getName()).isEqualTo("LcName");
+	}
+}
@@ -0,0 +1,101 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.BulkDeleteResultDTO;
+import com.example.demo.dto.GarageAnalyticsDTO;
+
+/**
+ * Checks that mechanics are deleted only while they service no vehicles, and
+ * that the garage summaries follow the deletions.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class MechanicServiceDeleteTests {
+
+	@Autowired
+	private MechanicService mechanicService;
+
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		// Other tests sharing the database write around the service
+		garageAnalyticsService.rebuild();
+	}
+
+	@Test
+	void bulkDeleteSkipsBusyAndMissingMechanics() {
+		jdbcTemplate.update("INSERT INTO garage (gid, location, budget) VALUES ('BD1', 'Ennis', 50000)");
+		insertMechanic("BDM1", 1000.5);
+		insertMechanic("BDM2", 2000.25);
+		insertMechanic("BDM3", 3000);
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, mechanic_id) "
+				+ "VALUES ('BD-1', 'BdMake', 'BdModel', (SELECT id FROM mechanic WHERE mid = 'BDM2'))");
+		garageAnalyticsService.rebuild();
+
+		BulkDeleteResultDTO result = mechanicService
+				.deleteMechanics(List.of("BDM1", "NO-SUCH-MID", "BDM2", "BDM3", "BDM1"));
+
+		assertThat(result.getDeleted()).containsExactly("BDM1", "BDM3");
+		assertThat(result.getBlocked()).containsExactly("BDM2");
+		assertThat(result.getMissing()).containsExactly("NO-SUCH-MID");
+		assertThat(jdbcTemplate.queryForList("SELECT mid FROM mechanic WHERE mid LIKE 'BDM%'", String.class))
+				.containsExactly("BDM2");
+		assertThat(analytics("BD1").getMechanics()).isEqualTo(1);
+		assertThat(analytics("BD1").getPayroll()).isEqualTo(2000.25);
+		assertSummariesMatch();
+	}
+
+	@Test
+	void singleDeleteOfBusyMechanicIsRejected() {
+		jdbcTemplate.update("INSERT INTO garage (gid, location, budget) VALUES ('BD2', 'Kells', 50000)");
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) "
+				+ "VALUES ('BDM4', 'Name', 100, (SELECT id FROM garage WHERE gid = 'BD2'))");
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, mechanic_id) "
+				+ "VALUES ('BD-2', 'BdMake', 'BdModel', (SELECT id FROM mechanic WHERE mid = 'BDM4'))");
+		garageAnalyticsService.rebuild();
+
+		assertThatThrownBy(() -> mechanicService.deleteMechanic("BDM4")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Mechanic BDM4 is still servicing vehicles");
+		assertThatThrownBy(() -> mechanicService.deleteMechanic("NO-SUCH-MID"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Mechanic NO-SUCH-MID doesn't exist");
+		assertThat(analytics("BD2").getMechanics()).isEqualTo(1);
+		assertSummariesMatch();
+	}
+
+	@Test
+	void emptyBulkDeleteIsRejected() {
+		assertThatThrownBy(() -> mechanicService.deleteMechanics(List.of()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private void insertMechanic(String mid, double salary) {
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) "
+				+ "VALUES (?, 'Name', ?, (SELECT id FROM garage WHERE gid = 'BD1'))", mid, salary);
+	}
+
+	private GarageAnalyticsDTO analytics(String gid) {
+		return garageAnalyticsService.getAnalytics().stream().filter(a -> a.getGid().equals(gid)).findFirst()
+				.orElseThrow();
+	}
+
+	private void assertSummariesMatch() {
+		assertThat(garageAnalyticsService.getAnalytics()).usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyElementsOf(garageAnalyticsService.computeAnalytics());
+	}
+}
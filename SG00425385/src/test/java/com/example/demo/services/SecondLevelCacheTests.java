@@ -0,0 +1,120 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.BulkCreateResultDTO;
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.models.Mechanic;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that repeated make queries are answered from the query cache, that
+ * mechanics are kept in the second-level cache, and that writes through JPQL,
+ * JDBC and the repositories are never hidden by them.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class SecondLevelCacheTests {
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private MechanicService mechanicService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void repeatedMakeQueryDoesNotTouchTheDatabase() {
+		insertVehicle("L2-1", "CachedMake", "C0001", "M001");
+		insertVehicle("L2-2", "CachedMake", "C0002", "M003");
+		vehicleService.getVehiclesDTOByMake("CachedMake");
+
+		long statements = statistics.getPrepareStatementCount();
+		long queryHits = statistics.getQueryCacheHitCount();
+		List<VehicleDTO> vehicles = vehicleService.getVehiclesDTOByMake("CachedMake");
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+		assertThat(statistics.getQueryCacheHitCount()).isEqualTo(queryHits + 1);
+		assertThat(vehicles).extracting(VehicleDTO::getReg).containsExactlyInAnyOrder("L2-1", "L2-2");
+		assertThat(vehicles).extracting(vehicle -> vehicle.getMechanic().getGarage().getGid()).doesNotContainNull();
+	}
+
+	@Test
+	void bulkInsertThroughJdbcEvictsCachedQueries() {
+		insertVehicle("L2-3", "BulkMake", "C0001", "M001");
+		assertThat(vehicleService.getVehiclesDTOByMake("BulkMake")).hasSize(1);
+
+		VehicleDTO vehicle = new VehicleDTO();
+		vehicle.setReg("L2-4");
+		vehicle.setMake("BulkMake");
+		vehicle.setModel("Model");
+		vehicleService.createVehicles(List.of(vehicle), new BulkCreateResultDTO());
+
+		assertThat(vehicleService.getVehiclesDTOByMake("BulkMake")).extracting(VehicleDTO::getReg)
+				.containsExactlyInAnyOrder("L2-3", "L2-4");
+	}
+
+	@Test
+	void reassignmentIsSeenByCachedQueries() {
+		insertVehicle("L2-5", "ReassignMake", "C0001", "M004");
+		assertThat(vehicleService.getVehiclesDTOByMake("ReassignMake")).extracting(v -> v.getMechanic().getMid())
+				.containsExactly("M004");
+
+		mechanicService.reassignAllVehicles("M004", "M005");
+
+		assertThat(vehicleService.getVehiclesDTOByMake("ReassignMake")).extracting(v -> v.getMechanic().getMid())
+				.containsExactly("M005");
+	}
+
+	@Test
+	void deletedMechanicIsEvictedFromTheCache() {
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) VALUES ('L2M', 'Temp', 1, 1)");
+		Integer id = jdbcTemplate.queryForObject("SELECT id FROM mechanic WHERE mid = 'L2M'", Integer.class);
+		assertThat(findMechanic(id)).isNotNull();
+		assertThat(entityManagerFactory.getCache().contains(Mechanic.class, id)).isTrue();
+
+		mechanicService.deleteMechanic("L2M");
+
+		assertThat(findMechanic(id)).isNull();
+	}
+
+	private Mechanic findMechanic(Integer id) {
+		EntityManager entityManager = entityManagerFactory.createEntityManager();
+		try {
+			return entityManager.find(Mechanic.class, id);
+		} finally {
+			entityManager.close();
+		}
+	}
+
+	private void insertVehicle(String reg, String make, String cid, String mid) {
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, owner_id, mechanic_id) VALUES (?, ?, 'Model', "
+				+ "(SELECT id FROM customer WHERE cid = ?), (SELECT id FROM mechanic WHERE mid = ?))", reg, make, cid,
+				mid);
+	}
+}
@@ -0,0 +1,88 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.csv.CsvReader;
+import com.example.demo.dto.ExportResultDTO;
+
+/**
+ * Checks that the parallel CSV export writes every vehicle once, in id order,
+ * with its owner, mechanic and garage, as one valid gzip file.
+ */
+@SpringBootTest(properties = { "app.export.chunk-size=7", "app.export.parallelism=3" })
+@AutoConfigureTestDatabase
+class VehicleExportServiceTests {
+
+	@Autowired
+	private VehicleExportService vehicleExportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void allVehiclesAreExportedInOrder() throws IOException {
+		jdbcTemplate.update("INSERT INTO customer (cid, name, phone) VALUES ('VEC1', 'Smith, \"Jo\"', '091 1')");
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, owner_id, mechanic_id) VALUES "
+				+ "('VE-1', 'VeMake', 'VeModel', (SELECT id FROM customer WHERE cid = 'VEC1'), "
+				+ "(SELECT id FROM mechanic WHERE mid = 'M001'))");
+		// Leave a gap of several chunks in the ids
+		for (int i = 0; i < 30; i++) {
+			jdbcTemplate.update("INSERT INTO vehicle (reg, make, model) VALUES (?, 'VeMake', 'VeGap')", "VE-GAP-" + i);
+		}
+		jdbcTemplate.update("DELETE FROM vehicle WHERE model = 'VeGap'");
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model) VALUES ('VE-2', 'VeMake', 'VeModel')");
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		long rows = vehicleExportService.exportCsv(out);
+		List<List<String>> records = read(new ByteArrayInputStream(out.toByteArray()));
+
+		List<String> regs = jdbcTemplate.queryForList("SELECT reg FROM vehicle ORDER BY id", String.class);
+		assertThat(rows).isEqualTo(regs.size());
+		assertThat(records.get(0)).startsWith("reg", "make", "model", "owner_cid");
+		assertThat(records.subList(1, records.size())).extracting(record -> record.get(0))
+				.containsExactlyElementsOf(regs);
+		assertThat(records).contains(List.of("VE-1", "VeMake", "VeModel", "VEC1", "Smith, \"Jo\"", "091 1", "M001",
+				"Michael", "55000.0", "G1", "Galway", "500000"));
+		assertThat(records).contains(List.of("VE-2", "VeMake", "VeModel", "", "", "", "", "", "", "", "", ""));
+	}
+
+	@Test
+	void exportIsWrittenToFile() throws IOException {
+		ExportResultDTO result = vehicleExportService.exportCsvToFile();
+		Path file = Path.of(result.getFile());
+		assertThat(file.getFileName().toString()).endsWith(".csv.gz");
+		assertThat(result.getBytes()).isEqualTo(Files.size(file));
+		try (InputStream in = Files.newInputStream(file)) {
+			assertThat(read(in)).hasSize((int) result.getRows() + 1);
+		}
+	}
+
+	private static List<List<String>> read(InputStream gzip) throws IOException {
+		List<List<String>> records = new ArrayList<>();
+		try (CsvReader reader = new CsvReader(
+				new InputStreamReader(new GZIPInputStream(gzip), StandardCharsets.UTF_8))) {
+			for (List<String> record = reader.readRecord(); record != null; record = reader.readRecord()) {
+				records.add(record);
+			}
+		}
+		return records;
+	}
+}
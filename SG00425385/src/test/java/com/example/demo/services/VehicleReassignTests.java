@@ -0,0 +1,101 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Checks the set-based reassignments of vehicles to a mechanic: the counts
+ * they report, and that a request naming an unknown vehicle or mechanic
+ * changes nothing. The tests only use the seeded mechanics, and their changes
+ * are rolled back with their transaction.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Transactional
+class VehicleReassignTests {
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private MechanicService mechanicService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void listedVehiclesAreCountedOnce() {
+		insertVehicles("RA-", 3, "M001");
+
+		assertThat(vehicleService.reassignVehicles(List.of("RA-0", "RA-1", "RA-0"), "M004")).isEqualTo(2);
+		assertThat(mechanicOf("RA-0")).isEqualTo("M004");
+		assertThat(mechanicOf("RA-1")).isEqualTo("M004");
+		assertThat(mechanicOf("RA-2")).isEqualTo("M001");
+
+		// Vehicles already serviced by the mechanic are counted as updated too
+		assertThat(vehicleService.reassignVehicles(List.of("RA-1", "RA-2"), "M004")).isEqualTo(2);
+	}
+
+	@Test
+	void unknownVehiclesOrMechanicsChangeNothing() {
+		insertVehicles("RU-", 2, "M001");
+
+		assertThatThrownBy(() -> vehicleService.reassignVehicles(List.of("RU-0", "NO-SUCH-1", "RU-1", "NO-SUCH-2"),
+				"M004")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Vehicles NO-SUCH-1, NO-SUCH-2 don't exist");
+		assertThatThrownBy(() -> vehicleService.reassignVehicles(List.of("RU-0"), "NO-SUCH-MID"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Mechanic NO-SUCH-MID doesn't exist");
+		assertThatThrownBy(() -> vehicleService.reassignVehicles(List.of(), "M004"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThat(mechanicOf("RU-0")).isEqualTo("M001");
+		assertThat(mechanicOf("RU-1")).isEqualTo("M001");
+	}
+
+	@Test
+	void allVehiclesOfAMechanicAreMoved() {
+		jdbcTemplate.update("UPDATE vehicle SET mechanic_id = NULL WHERE mechanic_id = "
+				+ "(SELECT id FROM mechanic WHERE mid = 'M006')");
+		insertVehicles("RM-", 4, "M006");
+
+		assertThat(mechanicService.reassignAllVehicles("M006", "M003")).isEqualTo(4);
+		assertThat(countOf("M006")).isZero();
+		assertThat(mechanicOf("RM-3")).isEqualTo("M003");
+		// Nothing left to move
+		assertThat(mechanicService.reassignAllVehicles("M006", "M003")).isZero();
+
+		assertThatThrownBy(() -> mechanicService.reassignAllVehicles("M003", "M003"))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Vehicles of mechanic M003 can't be reassigned to the same mechanic");
+		assertThatThrownBy(() -> mechanicService.reassignAllVehicles("M003", "NO-SUCH-MID"))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Mechanic NO-SUCH-MID doesn't exist");
+		assertThat(countOf("M003")).isGreaterThanOrEqualTo(4);
+	}
+
+	private void insertVehicles(String prefix, int count, String mid) {
+		for (int i = 0; i < count; i++) {
+			jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, mechanic_id) "
+					+ "VALUES (?, 'RaMake', 'RaModel', (SELECT id FROM mechanic WHERE mid = ?))", prefix + i, mid);
+		}
+	}
+
+	private String mechanicOf(String reg) {
+		return jdbcTemplate.queryForObject(
+				"SELECT m.mid FROM vehicle v JOIN mechanic m ON m.id = v.mechanic_id WHERE v.reg = ?", String.class,
+				reg);
+	}
+
+	private int countOf(String mid) {
+		return jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM vehicle WHERE mechanic_id = (SELECT id FROM mechanic WHERE mid = ?)",
+				Integer.class, mid);
+	}
+}
@@ -0,0 +1,109 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.BulkCreateResultDTO;
+import com.example.demo.dto.BulkCreateResultDTO.ItemErrorDTO;
+import com.example.demo.dto.VehicleDTO;
+
+/**
+ * Checks that bulk creation inserts every valid vehicle across several batches
+ * and reports each rejected item with its position. The rows the tests add
+ * are rolled back with their transaction.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Transactional
+class VehicleServiceBulkCreateTests {
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void validVehiclesAreInsertedInBatches() {
+		int count = 2 * VehicleService.BULK_BATCH_SIZE + 3;
+		List<VehicleDTO> vehicles = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			vehicles.add(vehicle("BC-" + i, "BcMake", "Model " + i));
+		}
+
+		BulkCreateResultDTO result = vehicleService.createVehicles(vehicles, new BulkCreateResultDTO(count));
+
+		assertThat(result.getCreated()).isEqualTo(count);
+		assertThat(result.getErrors()).isEmpty();
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle WHERE make = 'BcMake'", Integer.class))
+				.isEqualTo(count);
+		assertThat(jdbcTemplate.queryForMap("SELECT make_key, model_key FROM vehicle WHERE reg = 'BC-7'"))
+				.containsValues("bcmake", "model 7");
+		assertThat(vehicleService.getVehicleDTO("BC-" + (count - 1)).getModel()).isEqualTo("Model " + (count - 1));
+	}
+
+	@Test
+	void invalidItemsAreSkippedAndReportedByPosition() {
+		List<VehicleDTO> vehicles = new ArrayList<>();
+		vehicles.add(vehicle("BE-1", "BeMake", "Model"));
+		vehicles.add(vehicle("09-G-992", "Toyota", "Corolla"));
+		vehicles.add(vehicle(null, "BeMake", "Model"));
+		vehicles.add(vehicle("  ", "BeMake", "Model"));
+		vehicles.add(vehicle("BE-1", "BeMake", "Other"));
+		// Rejected by the controller while binding the request
+		vehicles.add(null);
+		vehicles.add(vehicle("BE-2", "BeMake", null));
+		VehicleDTO withOwner = vehicle("BE-3", "BeMake", "Model");
+		withOwner.setOwner(new VehicleDTO.OwnerDTO());
+		vehicles.add(withOwner);
+		vehicles.add(vehicle("BE-4", "BeMake", "Model"));
+		BulkCreateResultDTO result = new BulkCreateResultDTO(vehicles.size());
+		result.addError(5, "BE-5", "id should not be provided in the request");
+
+		vehicleService.createVehicles(vehicles, result);
+
+		assertThat(result.getRequested()).isEqualTo(9);
+		assertThat(result.getCreated()).isEqualTo(2);
+		assertThat(result.getErrors()).extracting(ItemErrorDTO::getIndex).containsExactly(1, 2, 3, 4, 5, 6, 7);
+		assertThat(result.getErrors()).extracting(ItemErrorDTO::getMessage).containsExactly(
+				"Registration 09-G-992 already exists", "Registration (reg) must be provided",
+				"Registration (reg) must be provided", "Registration BE-1 is duplicated in the request",
+				"id should not be provided in the request", "Model must be provided",
+				"Owner should not be provided in the request");
+		assertThat(jdbcTemplate.queryForList("SELECT reg FROM vehicle WHERE make = 'BeMake' ORDER BY reg",
+				String.class)).containsExactly("BE-1", "BE-4");
+		// The first occurrence of a duplicated registration wins
+		assertThat(vehicleService.getVehicleDTO("BE-1").getModel()).isEqualTo("Model");
+	}
+
+	@Test
+	void oversizedRequestsAreRejectedAsAWhole() {
+		List<VehicleDTO> vehicles = Collections.nCopies(VehicleService.MAX_BULK_SIZE + 1,
+				vehicle("BO-1", "BoMake", "Model"));
+
+		assertThatThrownBy(() -> vehicleService.createVehicles(vehicles, new BulkCreateResultDTO(vehicles.size())))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("At most " + VehicleService.MAX_BULK_SIZE + " vehicles can be created at once");
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle WHERE make = 'BoMake'", Integer.class))
+				.isZero();
+	}
+
+	private static VehicleDTO vehicle(String reg, String make, String model) {
+		VehicleDTO vehicle = new VehicleDTO();
+		vehicle.setReg(reg);
+		vehicle.setMake(make);
+		vehicle.setModel(model);
+		return vehicle;
+	}
+}
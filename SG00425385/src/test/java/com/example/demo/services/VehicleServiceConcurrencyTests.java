@@ -0,0 +1,194 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.dto.VehicleDTO;
+
+/**
+ * Hammers a few vehicles from many threads and checks that every conditional
+ * update reported as successful was applied exactly once, and that the garage
+ * summaries, adjusted by every update, still match the vehicle table.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+class VehicleServiceConcurrencyTests {
+
+	private static final int THREADS = 8;
+
+	private static final int UPDATES_PER_THREAD = 25;
+
+	/**
+	 * Conditional updates per thread; each needs a read and often several tries.
+	 * Even in total, so the vehicle ends with the mechanic it started with.
+	 */
+	private static final int CONDITIONAL_UPDATES_PER_THREAD = 10;
+
+	/**
+	 * Tries allowed for one conditional update. A try only conflicts when another
+	 * client's update went through since the read, so far fewer are needed
+	 * unless updates are lost or the clients livelock.
+	 */
+	private static final int MAX_CONDITIONAL_TRIES = 200;
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private GarageAnalyticsService garageAnalyticsService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		// Other tests sharing the database write around the service
+		garageAnalyticsService.rebuild();
+	}
+
+	@Test
+	void concurrentUpdatesAreRetriedAndNeverLost() throws Exception {
+		insertGarageWithMechanic("OC1", "OCM1");
+		insertGarageWithMechanic("OC2", "OCM2");
+		insertVehicle("OC-1", "OCM1");
+		insertVehicle("OC-2", "OCM1");
+		garageAnalyticsService.rebuild();
+
+		AtomicInteger succeeded = new AtomicInteger();
+		AtomicInteger exhausted = new AtomicInteger();
+		runConcurrently(UPDATES_PER_THREAD, (thread, i) -> {
+			String reg = i % 2 == 0 ? "OC-1" : "OC-2";
+			try {
+				vehicleService.updateVehicleMechanic(reg, (thread + i) % 2 == 0 ? "OCM1" : "OCM2");
+				succeeded.incrementAndGet();
+			} catch (ConcurrencyFailureException e) {
+				exhausted.incrementAndGet();
+			}
+		});
+
+		assertThat(succeeded.get() + exhausted.get()).isEqualTo(THREADS * UPDATES_PER_THREAD);
+		assertThat(succeeded.get()).isPositive();
+		assertSummariesMatch();
+	}
+
+	@Test
+	void conditionalUpdatesFromManyClientsAreNeverLost() throws Exception {
+		insertGarageWithMechanic("CC1", "CCM1");
+		insertGarageWithMechanic("CC2", "CCM2");
+		insertVehicle("CC-1", "CCM1");
+		garageAnalyticsService.rebuild();
+		long versionBefore = versionOf("CC-1");
+
+		// Each client reads the vehicle, moves it to the other mechanic and retries
+		// on conflict until its update goes through, like a UI reloading the vehicle
+		// after a 409. Every update changes the vehicle, so each adds one version.
+		runConcurrently(CONDITIONAL_UPDATES_PER_THREAD, (thread, i) -> {
+			for (int tries = 0; tries < MAX_CONDITIONAL_TRIES; tries++) {
+				VehicleDTO vehicle = vehicleService.getVehicleDTO("CC-1");
+				String other = vehicle.getMechanic().getMid().equals("CCM1") ? "CCM2" : "CCM1";
+				try {
+					vehicleService.updateVehicleMechanic("CC-1", other, vehicle.getVersion());
+					return;
+				} catch (VersionConflictException | ConcurrencyFailureException e) {
+					// Read again and retry
+				}
+			}
+			fail("Update %d of client %d still conflicted after %d tries", i, thread, MAX_CONDITIONAL_TRIES);
+		});
+
+		assertThat(versionOf("CC-1")).isEqualTo(versionBefore + THREADS * CONDITIONAL_UPDATES_PER_THREAD);
+		assertThat(vehicleService.getVehicleDTO("CC-1").getMechanic().getMid()).isEqualTo("CCM1");
+		assertSummariesMatch();
+	}
+
+	@Test
+	void staleVersionIsRejected() {
+		insertGarageWithMechanic("SV1", "SVM1");
+		insertVehicle("SV-1", "SVM1");
+		garageAnalyticsService.rebuild();
+		Long read = vehicleService.getVehicleDTO("SV-1").getVersion();
+
+		// The bulk reassignment bumps the version like any other update
+		vehicleService.reassignVehicles(List.of("SV-1"), "SVM1");
+
+		assertThatThrownBy(() -> vehicleService.updateVehicleMechanic("SV-1", "M001", read))
+				.isInstanceOf(VersionConflictException.class);
+		assertThat(vehicleService.getVehicleDTO("SV-1").getMechanic().getMid()).isEqualTo("SVM1");
+		assertThat(vehicleService.updateVehicleMechanic("SV-1", "M001", read + 1).getVersion()).isEqualTo(read + 2);
+		assertSummariesMatch();
+	}
+
+	/**
+	 * One update made by a worker thread.
+	 */
+	private interface Update {
+		void run(int thread, int i) throws Exception;
+	}
+
+	/**
+	 * Runs the updates from all threads at once.
+	 *
+	 * @param updatesPerThread The number of updates each thread makes
+	 * @param update           The update to make
+	 */
+	private void runConcurrently(int updatesPerThread, Update update) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<?>> futures = new ArrayList<>();
+			for (int t = 0; t < THREADS; t++) {
+				int thread = t;
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int i = 0; i < updatesPerThread; i++) {
+						update.run(thread, i);
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void insertGarageWithMechanic(String gid, String mid) {
+		jdbcTemplate.update("INSERT INTO garage (gid, location, budget) VALUES (?, 'Loc', 10000)", gid);
+		jdbcTemplate.update("INSERT INTO mechanic (mid, name, salary, garage_id) "
+				+ "VALUES (?, 'Name', 100, (SELECT id FROM garage WHERE gid = ?))", mid, gid);
+	}
+
+	private void insertVehicle(String reg, String mid) {
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, mechanic_id) "
+				+ "VALUES (?, 'OcMake', 'OcModel', (SELECT id FROM mechanic WHERE mid = ?))", reg, mid);
+	}
+
+	private long versionOf(String reg) {
+		return jdbcTemplate.queryForObject("SELECT version FROM vehicle WHERE reg = ?", Long.class, reg);
+	}
+
+	private void assertSummariesMatch() {
+		assertThat(garageAnalyticsService.getAnalytics()).usingRecursiveFieldByFieldElementComparator()
+				.containsExactlyElementsOf(garageAnalyticsService.computeAnalytics());
+	}
+}
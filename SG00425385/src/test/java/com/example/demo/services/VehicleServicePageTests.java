@@ -0,0 +1,148 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.dto.VehiclePageDTO;
+
+/**
+ * Checks the keyset pagination of the vehicle listings: cursor tokens, page
+ * boundaries and the validation of the paging parameters. The rows the tests
+ * add are rolled back with their transaction.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Transactional
+class VehicleServicePageTests {
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void cursorsRoundTripAsOpaqueTokens() {
+		VehicleCursor cursor = new VehicleCursor(VehicleCursor.SortKey.REG, "09-G-992:x/y+z");
+		String token = cursor.encode();
+
+		assertThat(token).matches("[A-Za-z0-9_-]+");
+		VehicleCursor decoded = VehicleCursor.decode(token);
+		assertThat(decoded.getSortKey()).isEqualTo(VehicleCursor.SortKey.REG);
+		assertThat(decoded.getValue()).isEqualTo("09-G-992:x/y+z");
+
+		assertThat(VehicleCursor.decode(new VehicleCursor(VehicleCursor.SortKey.ID, "42").encode()).getIdValue())
+				.isEqualTo(42);
+		assertThat(VehicleCursor.first(null).getSortKey()).isEqualTo(VehicleCursor.SortKey.ID);
+		assertThat(VehicleCursor.first("reg").getValue()).isEmpty();
+	}
+
+	@Test
+	void malformedCursorsAreRejected() {
+		assertThatThrownBy(() -> VehicleCursor.decode("not base64!")).isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid cursor not base64!");
+		assertThatThrownBy(() -> VehicleCursor.decode(token("no separator")))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> VehicleCursor.decode(token("id:abc"))).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> VehicleCursor.decode(token("make:Toyota")))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Unsupported sort make, expected id or reg");
+		assertThatThrownBy(() -> VehicleCursor.first("make")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void pagesVisitEveryVehicleOnceInOrder() {
+		insertVehicles("PG-", "PageMake", 7);
+
+		// 7 vehicles in pages of 3, then 6 in pages of 3 so the last page is full
+		assertThat(regs(walk("PageMake", "id", 3), 3)).containsExactly("PG-0", "PG-1", "PG-2", "PG-3", "PG-4",
+				"PG-5", "PG-6");
+		assertThat(regs(walk("PageMake", "reg", 3), 3)).containsExactly("PG-0", "PG-1", "PG-2", "PG-3", "PG-4",
+				"PG-5", "PG-6");
+		jdbcTemplate.update("DELETE FROM vehicle WHERE reg = 'PG-6'");
+		List<VehiclePageDTO> pages = walk("PageMake", "reg", 3);
+		assertThat(pages).hasSize(2);
+		assertThat(regs(pages, 3)).hasSize(6);
+
+		// The unfiltered listing holds the seeded vehicles as well
+		int total = vehicleService.getAllVehiclesDTO().size();
+		assertThat(regs(walk(null, "id", 4), 4)).hasSize(total).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void vehiclesAddedBehindTheCursorDontShiftLaterPages() {
+		insertVehicles("PK-B", "ShiftMake", 4);
+
+		VehiclePageDTO first = vehicleService.getVehiclesPageDTO("ShiftMake", "reg", null, 2);
+		assertThat(first.getItems()).extracting(VehicleDTO::getReg).containsExactly("PK-B0", "PK-B1");
+		// With offsets, a vehicle sorting before the page just read would repeat PK-B1
+		insertVehicles("PK-A", "ShiftMake", 1);
+
+		VehiclePageDTO second = vehicleService.getVehiclesPageDTO("ShiftMake", null, first.getNextCursor(), 2);
+		assertThat(second.getItems()).extracting(VehicleDTO::getReg).containsExactly("PK-B2", "PK-B3");
+		assertThat(second.getNextCursor()).isNull();
+	}
+
+	@Test
+	void pageSizeIsValidatedAndCapped() {
+		insertVehicles("PS-", "SizeMake", VehicleService.MAX_PAGE_SIZE + 5);
+
+		assertThat(vehicleService.getVehiclesPageDTO("SizeMake", null, null, null).getItems())
+				.hasSize(VehicleService.DEFAULT_PAGE_SIZE);
+		assertThat(vehicleService.getVehiclesPageDTO("SizeMake", null, null, 1000).getItems())
+				.hasSize(VehicleService.MAX_PAGE_SIZE);
+		assertThatThrownBy(() -> vehicleService.getVehiclesPageDTO("SizeMake", null, null, 0))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Page size must be at least 1");
+	}
+
+	private List<VehiclePageDTO> walk(String make, String sort, int size) {
+		List<VehiclePageDTO> pages = new ArrayList<>();
+		String cursor = null;
+		do {
+			VehiclePageDTO page = vehicleService.getVehiclesPageDTO(make, sort, cursor, size);
+			pages.add(page);
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+		return pages;
+	}
+
+	/**
+	 * Flattens the pages to regs, checking that only the last page is short.
+	 */
+	private static List<String> regs(List<VehiclePageDTO> pages, int size) {
+		List<String> regs = new ArrayList<>();
+		for (int i = 0; i < pages.size(); i++) {
+			List<VehicleDTO> items = pages.get(i).getItems();
+			if (i < pages.size() - 1) {
+				assertThat(items).hasSize(size);
+			} else {
+				assertThat(items).isNotEmpty().hasSizeLessThanOrEqualTo(size);
+			}
+			items.forEach(vehicle -> regs.add(vehicle.getReg()));
+		}
+		return regs;
+	}
+
+	private void insertVehicles(String prefix, String make, int count) {
+		for (int i = 0; i < count; i++) {
+			jdbcTemplate.update("INSERT INTO vehicle (reg, make, model) VALUES (?, ?, 'Model')", prefix + i, make);
+		}
+	}
+
+	private static String token(String raw) {
+		return Base64.getUrlEncoder().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,91 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.VehicleDTO;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Checks that the vehicle listings are read with a constant number of SQL
+ * statements, however many vehicles, owners, mechanics and garages there are.
+ * The rows the test adds are rolled back with its transaction.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase
+@Transactional
+class VehicleServiceQueryCountTests {
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void listingsUseOneStatementRegardlessOfRowCount() {
+		long before = countStatements(() -> vehicleService.getAllVehiclesDTO());
+		int sizeBefore = vehicleService.getAllVehiclesDTO().size();
+
+		// Every extra vehicle gets its own owner, mechanic and garage, which is the
+		// worst case for per-row association loading
+		for (int i = 0; i < 25; i++) {
+			jdbcTemplate.update("INSERT INTO garage (gid, location, budget) VALUES (?, ?, ?)", "QG" + i, "Loc" + i,
+					1000 + i);
+			jdbcTemplate.update(
+					"INSERT INTO mechanic (mid, name, salary, garage_id) VALUES (?, ?, ?, (SELECT id FROM garage WHERE gid = ?))",
+					"QM" + i, "Mechanic" + i, 40000.0 + i, "QG" + i);
+			jdbcTemplate.update("INSERT INTO customer (cid, name, phone) VALUES (?, ?, ?)", "QC" + i, "Customer" + i,
+					"091 000" + i);
+			jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, owner_id, mechanic_id) VALUES (?, ?, ?, "
+					+ "(SELECT id FROM customer WHERE cid = ?), (SELECT id FROM mechanic WHERE mid = ?))", "Q-" + i,
+					"QueryMake", "Model" + i, "QC" + i, "QM" + i);
+		}
+
+		long after = countStatements(() -> vehicleService.getAllVehiclesDTO());
+		assertThat(vehicleService.getAllVehiclesDTO()).hasSize(sizeBefore + 25);
+		assertThat(after).isEqualTo(before).isEqualTo(1);
+
+		long byMake = countStatements(() -> vehicleService.getVehiclesDTOByMake("QueryMake"));
+		assertThat(byMake).isEqualTo(1);
+
+		List<VehicleDTO> vehicles = vehicleService.getVehiclesDTOByMake("QueryMake");
+		assertThat(vehicles).hasSize(25);
+		VehicleDTO first = vehicles.get(0);
+		assertThat(first.getOwner().getCid()).isEqualTo("QC0");
+		assertThat(first.getMechanic().getMid()).isEqualTo("QM0");
+		assertThat(first.getMechanic().getGarage().getGid()).isEqualTo("QG0");
+		assertThat(first.getMechanic().getGarage().getBudget()).isEqualTo(1000);
+
+		long page = countStatements(() -> vehicleService.getVehiclesPageDTO("QueryMake", "reg", null, 10));
+		assertThat(page).isEqualTo(1);
+	}
+
+	private long countStatements(Runnable action) {
+		statistics.clear();
+		action.run();
+		return statistics.getPrepareStatementCount();
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.models.Vehicle;
+
+/**
+ * Checks the case-insensitive make and model search: exact and prefix
+ * matching, its order and limit, and that LIKE wildcards and the escape
+ * character in a term only match themselves. The rows the tests add are
+ * rolled back with their transaction.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@Transactional
+class VehicleServiceSearchTests {
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void insertVehicles() {
+		insert("SE-1", "Se%Make", "Bravo");
+		insert("SE-2", "Se_Make", "Alpha");
+		insert("SE-3", "SeXMake", "Alpha");
+		insert("SE-4", "Se!Make", "Al_pha");
+		insert("SE-5", "SEXMAKE", "Alp%ha");
+	}
+
+	@Test
+	void exactMatchesIgnoreCase() {
+		assertThat(regs(vehicleService.searchVehiclesDTO("sexmake", null, false, null))).containsExactly("SE-5",
+				"SE-3");
+		assertThat(regs(vehicleService.searchVehiclesDTO(" SEXMAKE ", "alpha", false, null))).containsExactly("SE-3");
+		assertThat(vehicleService.searchVehiclesDTO("Se", null, false, null)).isEmpty();
+	}
+
+	@Test
+	void wildcardsInTermsMatchThemselves() {
+		assertThat(regs(vehicleService.searchVehiclesDTO("Se%Make", null, false, null))).containsExactly("SE-1");
+		assertThat(regs(vehicleService.searchVehiclesDTO("Se_Make", null, false, null))).containsExactly("SE-2");
+		assertThat(regs(vehicleService.searchVehiclesDTO("Se!Make", null, false, null))).containsExactly("SE-4");
+
+		assertThat(regs(vehicleService.searchVehiclesDTO("se%", null, true, null))).containsExactly("SE-1");
+		assertThat(regs(vehicleService.searchVehiclesDTO("se_", null, true, null))).containsExactly("SE-2");
+		assertThat(regs(vehicleService.searchVehiclesDTO("se!", null, true, null))).containsExactly("SE-4");
+		assertThat(regs(vehicleService.searchVehiclesDTO(null, "al_", true, null))).containsExactly("SE-4");
+		assertThat(regs(vehicleService.searchVehiclesDTO(null, "alp%", true, null))).containsExactly("SE-5");
+	}
+
+	@Test
+	void prefixMatchesAreOrderedAndLimited() {
+		// Make, model and reg order, or model first when searching by model only
+		assertThat(regs(vehicleService.searchVehiclesDTO("se", null, true, null))).containsExactly("SE-4", "SE-1",
+				"SE-2", "SE-5", "SE-3");
+		assertThat(regs(vehicleService.searchVehiclesDTO(null, "al", true, null))).containsExactly("SE-4", "SE-5",
+				"SE-2", "SE-3");
+		assertThat(regs(vehicleService.searchVehiclesDTO("sex", "al", true, null))).containsExactly("SE-5", "SE-3");
+		assertThat(regs(vehicleService.searchVehiclesDTO("se", null, true, 2))).containsExactly("SE-4", "SE-1");
+	}
+
+	@Test
+	void invalidSearchesAreRejected() {
+		assertThatThrownBy(() -> vehicleService.searchVehiclesDTO(null, " ", true, null))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("make or model must be provided");
+		assertThatThrownBy(() -> vehicleService.searchVehiclesDTO("se", null, true, 0))
+				.isInstanceOf(IllegalArgumentException.class).hasMessage("Limit must be at least 1");
+	}
+
+	private void insert(String reg, String make, String model) {
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, make_key, model_key) VALUES (?, ?, ?, ?, ?)", reg,
+				make, model, Vehicle.searchKey(make), Vehicle.searchKey(model));
+	}
+
+	private static List<String> regs(List<VehicleDTO> vehicles) {
+		return vehicles.stream().map(VehicleDTO::getReg).toList();
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.demo.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.demo.dto.VehicleDTO;
+import com.example.demo.repositories.VehicleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Checks the newline-delimited JSON export of all vehicles: one complete DTO
+ * per line across fetch batches, and an early first flush. The rows the tests
+ * add are rolled back with their transaction.
+ */
+@SpringBootTest
+@AutoConfigureTestDatabase
+@AutoConfigureMockMvc
+@Transactional
+class VehicleServiceStreamTests {
+
+	@Autowired
+	private VehicleService vehicleService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void exportWritesEveryVehicleOncePerLine() throws IOException {
+		int extra = 2 * VehicleRepository.STREAM_FETCH_SIZE + 7;
+		jdbcTemplate.update("INSERT INTO vehicle (reg, make, model, owner_id, mechanic_id) "
+				+ "SELECT 'ND-' || X, 'NdMake', 'NdModel', (SELECT MIN(id) FROM customer), "
+				+ "(SELECT MIN(id) FROM mechanic) FROM SYSTEM_RANGE(1, ?)", extra);
+		int total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM vehicle", Integer.class);
+
+		FlushCountingStream out = new FlushCountingStream();
+		vehicleService.exportVehicles(out);
+
+		List<VehicleDTO> vehicles = parse(out.toString(StandardCharsets.UTF_8));
+		assertThat(vehicles).hasSize(total);
+		assertThat(vehicles).extracting(VehicleDTO::getReg).doesNotHaveDuplicates().contains("ND-1", "ND-" + extra);
+		// Associations survive the persistence context being cleared between batches
+		VehicleDTO last = vehicles.stream().filter(v -> v.getReg().equals("ND-" + extra)).findFirst().orElseThrow();
+		assertThat(last.getOwner().getCid()).isEqualTo("C0001");
+		assertThat(last.getMechanic().getGarage().getGid()).isEqualTo("G1");
+
+		// After the first vehicle, after each full batch and at the end
+		assertThat(out.firstFlushAt).isEqualTo(out.toString(StandardCharsets.UTF_8).indexOf('\n') + 1);
+		assertThat(out.flushes).isEqualTo(2 + total / VehicleRepository.STREAM_FETCH_SIZE);
+	}
+
+	@Test
+	void endpointStreamsNdjson() throws Exception {
+		MvcResult started = mockMvc.perform(get("/api/vehicle/export")).andReturn();
+		MockHttpServletResponse response = mockMvc.perform(asyncDispatch(started)).andReturn().getResponse();
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON_VALUE);
+		assertThat(parse(response.getContentAsString())).extracting(VehicleDTO::getReg).contains("09-G-992",
+				"251-RN-103");
+	}
+
+	private List<VehicleDTO> parse(String ndjson) throws IOException {
+		assertThat(ndjson).endsWith("\n");
+		List<VehicleDTO> vehicles = new ArrayList<>();
+		for (String line : ndjson.split("\n")) {
+			vehicles.add(objectMapper.readValue(line, VehicleDTO.class));
+		}
+		return vehicles;
+	}
+
+	private static final class FlushCountingStream extends ByteArrayOutputStream {
+		private int flushes;
+		private int firstFlushAt = -1;
+
+		@Override
+		public void flush() {
+			if (flushes++ == 0) {
+				firstFlushAt = size();
+			}
+		}
+	}
+}